@@ -1,7 +1,10 @@
 plugins {
     java
     id("org.springframework.boot") version "3.4.3"
+    // Generates the bean definitions at build time (processAot); used when started with -Dspring.aot.enabled=true
+    id("org.springframework.boot.aot") version "3.4.3"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.bright"
@@ -23,21 +26,148 @@ repositories {
     mavenCentral()
 }
 
+// The reactive profile (WebFlux on Netty, R2DBC) is its own source set, so its starters and drivers
+// stay off the classpath, the boot jar and the CDS archive of the default servlet application.
+// bootRun -Preactive, reactiveBootJar and reactiveTest put them back.
+val reactive by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+val reactiveTest by sourceSets.creating {
+    compileClasspath += reactive.output + sourceSets.main.get().output
+    runtimeClasspath += reactive.output + sourceSets.main.get().output
+}
+configurations {
+    named(reactive.implementationConfigurationName) { extendsFrom(configurations.implementation.get()) }
+    named(reactive.compileOnlyConfigurationName) { extendsFrom(configurations.compileOnly.get()) }
+    named(reactive.annotationProcessorConfigurationName) { extendsFrom(configurations.annotationProcessor.get()) }
+    named(reactive.runtimeOnlyConfigurationName) { extendsFrom(configurations.runtimeOnly.get()) }
+    named(reactiveTest.implementationConfigurationName) {
+        extendsFrom(configurations[reactive.implementationConfigurationName], configurations.testImplementation.get())
+    }
+    named(reactiveTest.runtimeOnlyConfigurationName) {
+        extendsFrom(configurations[reactive.runtimeOnlyConfigurationName], configurations.testRuntimeOnly.get())
+    }
+}
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     compileOnly("org.projectlombok:lombok")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     runtimeOnly("com.h2database:h2")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
-    // https://mvnrepository.com/artifact/com.google.code.gson/gson
-    implementation("com.google.code.gson:gson:2.7")
     runtimeOnly("org.postgresql:postgresql")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    jmhRuntimeOnly("com.h2database:h2")
+    // Reactive profile only (--spring.profiles.active=reactive)
+    "reactiveImplementation"("org.springframework.boot:spring-boot-starter-webflux")
+    "reactiveImplementation"("org.springframework.boot:spring-boot-starter-data-r2dbc")
+    "reactiveRuntimeOnly"("io.r2dbc:r2dbc-h2")
+    "reactiveRuntimeOnly"("org.postgresql:r2dbc-postgresql")
+    "reactiveTestImplementation"("io.projectreactor:reactor-test")
+}
+
+tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
+    if (project.hasProperty("virtualThreads")) {
+        args("--spring.threads.virtual.enabled=true")
+        jvmArgs("-Djdk.tracePinnedThreads=short")
+    }
+    if (project.hasProperty("reactive")) {
+        classpath = reactive.runtimeClasspath
+        args("--spring.profiles.active=reactive")
+    }
+}
+
+tasks.register<org.springframework.boot.gradle.tasks.bundling.BootJar>("reactiveBootJar") {
+    description = "Assembles a boot jar with the reactive profile; start it with --spring.profiles.active=reactive."
+    group = "build"
+    archiveClassifier = "reactive"
+    mainClass = tasks.bootJar.flatMap { it.mainClass }
+    targetJavaVersion = tasks.bootJar.flatMap { it.targetJavaVersion }
+    classpath(reactive.runtimeClasspath)
+}
+
+val reactiveTestTask = tasks.register<Test>("reactiveTest") {
+    description = "Runs the tests of the reactive profile."
+    group = "verification"
+    testClassesDirs = reactiveTest.output.classesDirs
+    classpath = reactiveTest.runtimeClasspath
+}
+
+tasks.check {
+    dependsOn(reactiveTestTask)
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 //    jvmArgs("-XX:+EnableDynamicAgentLoading")
 }
+
+jmh {
+    jmhVersion = "1.37"
+    // Machine readable results, kept per build so runs of two releases can be diffed
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    profilers = listOf("gc")
+    if (project.hasProperty("jmhIncludes")) {
+        includes = listOf(project.property("jmhIncludes") as String)
+    }
+}
+
+tasks.register<JavaExec>("replicaFootprint") {
+    description = "Compares the read replica's memory footprint with Employee entities at 1M and 10M rows."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "com.bright.ems.benchmark.EmployeeReplicaFootprint"
+    args("1000000", "10000000")
+    maxHeapSize = "8g"
+}
+
+// Fast start: the boot jar is extracted into build/fast-start and a CDS archive of the classes
+// loaded while the AOT-processed context starts is written next to it. Start the extracted jar from
+// that directory with -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true.
+val fastStartDir = layout.buildDirectory.dir("fast-start")
+val fastStartJava = javaToolchains.launcherFor { languageVersion = java.toolchain.languageVersion }
+    .map { it.executablePath.asFile.absolutePath }
+
+val extractBootJar by tasks.registering(Exec::class) {
+    description = "Extracts the boot jar into build/fast-start, the layout a CDS archive needs."
+    val bootJar = tasks.bootJar.flatMap { it.archiveFile }
+    inputs.file(bootJar)
+    outputs.dir(fastStartDir)
+    doFirst {
+        delete(fastStartDir)
+        executable = fastStartJava.get()
+        args("-Djarmode=tools", "-jar", bootJar.get().asFile.absolutePath,
+            "extract", "--destination", fastStartDir.get().asFile.absolutePath)
+    }
+}
+
+val cdsArchive by tasks.registering(Exec::class) {
+    description = "Writes build/fast-start/application.jsa from a training start of the AOT-processed application."
+    dependsOn(extractBootJar)
+    val jarName = tasks.bootJar.flatMap { it.archiveFileName }
+    outputs.file(fastStartDir.map { it.file("application.jsa") })
+    workingDir(fastStartDir)
+    doFirst {
+        executable = fastStartJava.get()
+        args("-XX:ArchiveClassesAtExit=application.jsa", "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh",
+            "-jar", jarName.get(), "--server.port=0")
+    }
+}
+
+tasks.register<Exec>("startupBenchmark") {
+    description = "Reports time to ready and RSS of the plain and the fast-start application."
+    dependsOn(cdsArchive)
+    val jarName = tasks.bootJar.flatMap { it.archiveFileName }
+    doFirst {
+        environment("JAVA", fastStartJava.get())
+        commandLine("perf/startup/startup-benchmark.sh", fastStartDir.get().asFile.absolutePath, jarName.get(),
+            project.findProperty("startupRuns") ?: "5")
+    }
+}
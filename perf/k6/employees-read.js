@@ -0,0 +1,45 @@
+// Read-heavy load against the employee API.
+//
+//   ./gradlew bootRun                     # platform threads
+//   ./gradlew bootRun -PvirtualThreads    # virtual threads
+//   k6 run -e VUS=2000 perf/k6/employees-read.js
+//
+// Compare http_req_duration percentiles and http_req_failed between the two runs.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const EMPLOYEES = 1000;
+
+export const options = {
+    scenarios: {
+        readers: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 2000),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+};
+
+export function setup() {
+    const employees = [];
+    for (let i = 0; i < EMPLOYEES; i++) {
+        employees.push({
+            firstName: `First${i}`,
+            lastName: `Last${i}`,
+            email: `employee${i}@example.com`,
+            departmentCode: `D${i % 20}`,
+        });
+    }
+    http.post(`${BASE_URL}/api/v1/employees/bulk`, JSON.stringify(employees), {
+        headers: { 'Content-Type': 'application/json' },
+    });
+}
+
+export default function () {
+    const i = Math.floor(Math.random() * EMPLOYEES);
+    const byEmail = http.get(`${BASE_URL}/api/v1/employees/email/employee${i}@example.com`);
+    check(byEmail, { 'email lookup is 200': (r) => r.status === 200 });
+    const byDepartment = http.get(`${BASE_URL}/api/v1/employees/department/D${i % 20}`);
+    check(byDepartment, { 'department listing is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,62 @@
+// Servlet and reactive profiles side by side under the same high-concurrency mix of full-list
+// streams and single-employee reads. Run once per profile and compare the two summaries:
+//
+//   ./gradlew bootRun                     # servlet (Tomcat, JPA)
+//   ./gradlew bootRun -Preactive          # reactive (Netty, R2DBC)
+//   k6 run -e VUS=5000 -e STACK=servlet perf/k6/employees-stacks.js
+//
+// http_req_duration covers latency; teardown prints the server's heap and thread counts from
+// the actuator, sampled right after the load stops.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const EMPLOYEES = 10000;
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 5000),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    for (let from = 0; from < EMPLOYEES; from += 1000) {
+        const requests = [];
+        for (let i = from; i < from + 1000; i++) {
+            requests.push(['POST', `${BASE_URL}/api/v1/employees`, JSON.stringify({
+                firstName: `First${i}`,
+                lastName: `Last${i}`,
+                email: `employee${i}@example.com`,
+                departmentCode: `D${i % 20}`,
+            }), { headers: { 'Content-Type': 'application/json' } }]);
+        }
+        http.batch(requests);
+    }
+}
+
+export default function () {
+    const i = Math.floor(Math.random() * EMPLOYEES);
+    if (i % 50 === 0) {
+        const all = http.get(`${BASE_URL}/api/v1/employees`, { tags: { name: 'list' } });
+        check(all, { 'list is 200': (r) => r.status === 200 });
+        return;
+    }
+    const byEmail = http.get(`${BASE_URL}/api/v1/employees/email/employee${i}@example.com`, { tags: { name: 'email' } });
+    check(byEmail, { 'email lookup is 200': (r) => r.status === 200 });
+    const byDepartment = http.get(`${BASE_URL}/api/v1/employees/department/D${i % 20}`, { tags: { name: 'department' } });
+    check(byDepartment, { 'department listing is 200': (r) => r.status === 200 });
+}
+
+export function teardown() {
+    for (const metric of ['jvm.memory.used?tag=area:heap', 'jvm.threads.live', 'process.cpu.usage']) {
+        const response = http.get(`${BASE_URL}/actuator/metrics/${metric}`);
+        if (response.status === 200) {
+            console.log(`${__ENV.STACK || 'server'} ${metric}: ${response.json('measurements.0.value')}`);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Time to ready and resident memory of the application started plain and in fast-start mode
+# (Spring AOT + CDS archive), from the same extracted jar:
+#
+#   ./gradlew startupBenchmark -PstartupRuns=10
+#   perf/startup/startup-benchmark.sh build/fast-start <jar name> 10    # after ./gradlew cdsArchive
+#
+# Each run starts the application, polls /actuator/health until it answers UP and records the
+# elapsed time and the process's RSS at that moment, then stops it. Linux (date +%s%N, ps -o rss).
+set -euo pipefail
+
+DIR=${1:?extracted application directory, e.g. build/fast-start}
+JAR=${2:?jar name inside that directory}
+RUNS=${3:-5}
+JAVA=${JAVA:-java}
+PORT=${PORT:-18080}
+
+run_once() {
+    local start pid rss elapsed
+    start=$(date +%s%N)
+    (cd "$DIR" && exec "$JAVA" "$@" -jar "$JAR" --server.port="$PORT" > /dev/null 2>&1) &
+    pid=$!
+    until curl -fs "http://localhost:$PORT/actuator/health" 2> /dev/null | grep -q '"UP"'; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Application exited before it was ready" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed $(( rss / 1024 ))"
+}
+
+measure() {
+    local mode=$1
+    shift
+    for ((run = 1; run <= RUNS; run++)); do
+        run_once "$@"
+    done | sort -n | awk -v mode="$mode" '
+        { ms[NR] = $1; rss[NR] = $2; sumMs += $1; sumRss += $2 }
+        END {
+            printf "%-10s runs=%d  ready: avg %d ms, median %d ms  RSS: avg %d MB\n",
+                mode, NR, sumMs / NR, ms[int((NR + 1) / 2)], sumRss / NR
+        }'
+}
+
+measure plain
+measure fast-start -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
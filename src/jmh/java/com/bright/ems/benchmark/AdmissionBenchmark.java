@@ -0,0 +1,88 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.admission.AdmissionControl;
+import com.bright.ems.admission.GradientLimiter;
+import com.bright.ems.config.AdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link com.bright.ems.admission.AdmissionFilter} adds to every request: classifying it,
+ * checking its client's rate and taking and returning a concurrency slot, on one thread and on
+ * eight. The limits are set high enough that every request is admitted, so each operation takes
+ * the full path. With one client every thread contends for the same rate state; with 10k they
+ * spread out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    private static final long RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Param({"1", "10000"})
+    private int clients;
+
+    private AdmissionControl admissionControl;
+    private String[] clientIds;
+
+    @Setup
+    public void setUp() {
+        admissionControl = new AdmissionControl(new AdmissionProperties(true, 1_000_000, 1_000_000, 1_000_000, 1_000_000, 1,
+                2.0, 100, List.of("/api/v1/employees/bulk", "/api/v1/employees/lookup", "/api/v1/employees/import",
+                "/api/v1/employees/export", "/api/v1/employees/stream"), List.of("/api/v1/employees/changes"),
+                Integer.MAX_VALUE, 1, null, 100_000, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+        clientIds = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            clientIds[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public AdmissionControl.EndpointGroup classify() {
+        return admissionControl.group("GET", "/api/v1/employees/email/john.smith@gmail.com");
+    }
+
+    @Benchmark
+    public boolean admit() {
+        return admitOne();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean admitContended() {
+        return admitOne();
+    }
+
+    private boolean admitOne() {
+        AdmissionControl.EndpointGroup group = admissionControl.group("GET", "/api/v1/employees/email/john.smith@gmail.com");
+        if (admissionControl.rateLimitWait(group, clientIds[ThreadLocalRandom.current().nextInt(clients)]) > 0) {
+            return false;
+        }
+        GradientLimiter limiter = admissionControl.tryAcquire(group);
+        if (limiter == null) {
+            return false;
+        }
+        limiter.release(RTT_NANOS);
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.RepoLayerTestingApplication;
+import com.bright.ems.model.Employee;
+import com.bright.ems.repository.EmployeeRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server against a private in-memory H2 database
+ * and seeds it with synthetic employees.
+ */
+final class BenchmarkContext {
+
+    static final int DEPARTMENTS = 100;
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "logging.level.root=WARN",
+                "ems.search.enabled=false"));
+        allProperties.addAll(List.of(properties));
+        return new SpringApplicationBuilder(RepoLayerTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(allProperties.toArray(String[]::new))
+                .run();
+    }
+
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+        for (int from = 0; from < rows; from += SEED_CHUNK) {
+            int to = Math.min(from + SEED_CHUNK, rows);
+            List<Employee> employees = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                employees.add(employee(i));
+            }
+            employeeRepository.insertAll(employees, 1000);
+        }
+    }
+
+    static Employee employee(int i) {
+        return new Employee("First" + i, "Last" + (i % 5000), email(i), departmentCode(i));
+    }
+
+    static String email(int i) {
+        return "employee" + i + "@example.com";
+    }
+
+    static String departmentCode(int i) {
+        return "D" + (i % DEPARTMENTS);
+    }
+}
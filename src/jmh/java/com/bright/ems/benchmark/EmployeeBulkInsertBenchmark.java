@@ -0,0 +1,79 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to import 10k and 100k new employees one POST at a time versus through the bulk path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeBulkInsertBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private List<EmployeeRequestDto> employeeRequestDtos;
+    private int batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("bulk-" + rows, "ems.bulk.max-rows=" + rows);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void newEmails() {
+        batch++;
+        employeeRequestDtos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            employeeRequestDtos.add(new EmployeeRequestDto("First" + i, "Last" + i, "b" + batch + "-" + BenchmarkContext.email(i), BenchmarkContext.departmentCode(i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singleRow() {
+        int created = 0;
+        for (EmployeeRequestDto employeeRequestDto : employeeRequestDtos) {
+            if (employeeService.createEmployee(employeeRequestDto).isPresent()) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    @Benchmark
+    public List<BulkEmployeeResultDto> bulk() {
+        return employeeService.createEmployees(employeeRequestDtos);
+    }
+}
@@ -0,0 +1,81 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.json.EmployeeJsonCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the list responses and parsing of the bulk request bodies of the employee
+ * endpoints, Jackson databinding against {@link EmployeeJsonCodec}. Run with the gc profiler
+ * (the default in build.gradle.kts) to compare bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    private static final TypeReference<List<EmployeeRequestDto>> EMPLOYEE_REQUESTS = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EmployeeJsonCodec employeeJsonCodec = new EmployeeJsonCodec();
+    private List<EmployeeResponseDto> employeeResponseDtos;
+    private byte[] employeeRequestsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        employeeResponseDtos = new ArrayList<>(size);
+        List<EmployeeRequestDto> employeeRequestDtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employeeResponseDtos.add(new EmployeeResponseDto("First" + i, "Last" + i, BenchmarkContext.departmentCode(i)));
+            employeeRequestDtos.add(new EmployeeRequestDto("First" + i, "Last" + i, BenchmarkContext.email(i), BenchmarkContext.departmentCode(i)));
+        }
+        employeeRequestsJson = objectMapper.writeValueAsBytes(employeeRequestDtos);
+    }
+
+    @Benchmark
+    public void serializeList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), employeeResponseDtos);
+    }
+
+    @Benchmark
+    public void serializeListCodec() throws IOException {
+        employeeJsonCodec.writeEmployees(employeeResponseDtos, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public List<EmployeeRequestDto> parseList() throws IOException {
+        return objectMapper.readValue(new ByteArrayInputStream(employeeRequestsJson), EMPLOYEE_REQUESTS);
+    }
+
+    @Benchmark
+    public List<EmployeeRequestDto> parseListCodec() throws IOException {
+        return employeeJsonCodec.readEmployeeRequests(new ByteArrayInputStream(employeeRequestsJson));
+    }
+}
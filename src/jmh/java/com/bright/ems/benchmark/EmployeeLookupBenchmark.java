@@ -0,0 +1,82 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.dto.response.EmployeeLookupResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving N emails with N findByEmail calls versus one batch lookup, against H2 seeded with 100k
+ * employees. The cache is off, so both variants pay for the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EmployeeLookupBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"10", "100", "1000"})
+    private int emails;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("lookup-" + emails, "ems.cache.enabled=false");
+        BenchmarkContext.seed(context, ROWS);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Optional<EmployeeResponseDto>> singleCalls() {
+        List<String> batch = randomEmails();
+        List<Optional<EmployeeResponseDto>> employees = new ArrayList<>(batch.size());
+        for (String email : batch) {
+            employees.add(employeeService.findByEmail(email));
+        }
+        return employees;
+    }
+
+    @Benchmark
+    public EmployeeLookupResponseDto batch() {
+        return employeeService.lookupEmployees(randomEmails());
+    }
+
+    private List<String> randomEmails() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> batch = new ArrayList<>(emails);
+        for (int i = 0; i < emails; i++) {
+            batch.add(BenchmarkContext.email(random.nextInt(ROWS)));
+        }
+        return batch;
+    }
+}
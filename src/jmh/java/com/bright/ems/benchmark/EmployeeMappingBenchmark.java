@@ -0,0 +1,68 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.model.Employee;
+import com.bright.ems.repository.projection.EmployeeRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning query results into response DTOs: the entity copy loop the service used to run
+ * against the row projection it maps today.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Employee> employees;
+    private List<EmployeeRow> employeeRows;
+
+    @Setup
+    public void setUp() {
+        employees = new ArrayList<>(size);
+        employeeRows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Employee employee = BenchmarkContext.employee(i);
+            employees.add(employee);
+            employeeRows.add(new EmployeeRow((long) i, employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getDepartmentCode(), 0L));
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDto> mapEntities() {
+        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>();
+        for (Employee employee : employees) {
+            employeeResponseDtos.add(new EmployeeResponseDto(employee.getFirstName(), employee.getLastName(), employee.getDepartmentCode()));
+        }
+        return employeeResponseDtos;
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDto> mapRows() {
+        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>(employeeRows.size());
+        for (EmployeeRow employeeRow : employeeRows) {
+            employeeResponseDtos.add(employeeRow.toResponseDto());
+        }
+        return employeeResponseDtos;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.model.Employee;
+import com.bright.ems.replica.EmployeeReplicaStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory footprint of the read replica against the same rows held as {@link Employee} entities,
+ * the way a persistence context or an entity cache would hold them. Heap sizes are measured as
+ * the used-heap difference after a full GC, so run it with a heap large enough for the biggest
+ * row count: {@code ./gradlew replicaFootprint}.
+ */
+public class EmployeeReplicaFootprint {
+
+    public static void main(String[] args) {
+        String[] rowCounts = args.length == 0 ? new String[]{"1000000", "10000000"} : args;
+        System.out.printf("%12s %16s %16s %16s %16s%n", "rows", "replica heap", "replica off-heap", "entities heap", "bytes/row ratio");
+        for (String rowCount : rowCounts) {
+            report(Integer.parseInt(rowCount));
+        }
+    }
+
+    private static void report(int rows) {
+        long baseline = usedHeap();
+        long replicaHeap;
+        long replicaOffHeap;
+        try (EmployeeReplicaStore employeeReplicaStore = new EmployeeReplicaStore(rows)) {
+            for (int i = 0; i < rows; i++) {
+                Employee employee = BenchmarkContext.employee(i);
+                employeeReplicaStore.upsert(i + 1L, employee.getEmail(), employee.getFirstName(), employee.getLastName(), employee.getDepartmentCode(), 0L);
+            }
+            replicaHeap = usedHeap() - baseline;
+            replicaOffHeap = employeeReplicaStore.offHeapBytes();
+        }
+
+        baseline = usedHeap();
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Employee employee = BenchmarkContext.employee(i);
+            employees.add(Employee.builder()
+                    .employeeId(i + 1L)
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(employee.getEmail())
+                    .departmentCode(employee.getDepartmentCode())
+                    .version(0L)
+                    .firstNameLower(Employee.toLowerCase(employee.getFirstName()))
+                    .lastNameLower(Employee.toLowerCase(employee.getLastName()))
+                    .build());
+        }
+        long entitiesHeap = usedHeap() - baseline;
+
+        System.out.printf("%12d %16d %16d %16d %16.2f%n", rows, replicaHeap, replicaOffHeap, entitiesHeap,
+                (double) entitiesHeap / (replicaHeap + replicaOffHeap));
+        if (employees.size() != rows) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,81 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.model.Employee;
+import com.bright.ems.repository.EmployeeRepository;
+import com.bright.ems.repository.projection.EmployeeRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmployeeRepository queries against H2 seeded with 1k, 100k and 1M employees.
+ * Department lookups are measured both as managed entities and as DTO projections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("repository-" + rows, "ems.cache.enabled=false");
+        BenchmarkContext.seed(context, rows);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<EmployeeResponseDto> findResponseDtoByEmail() {
+        return employeeRepository.findResponseDtoByEmail(BenchmarkContext.email(randomRow()));
+    }
+
+    @Benchmark
+    public List<Employee> findEntitiesByDepartmentCode() {
+        return employeeRepository.findByDepartmentCode(BenchmarkContext.departmentCode(randomRow()));
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDto> findResponseDtosByDepartmentCode() {
+        return employeeRepository.findResponseDtosByDepartmentCode(BenchmarkContext.departmentCode(randomRow()));
+    }
+
+    @Benchmark
+    public List<EmployeeRow> findRowsAfter() {
+        return employeeRepository.findRowsAfter((long) randomRow(), PageRequest.ofSize(50));
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(rows);
+    }
+}
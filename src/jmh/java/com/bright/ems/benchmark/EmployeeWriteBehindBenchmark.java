@@ -0,0 +1,96 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.service.EmployeeService;
+import com.bright.ems.writebehind.EmployeeWriteBehindQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates per second from 32 concurrent callers, each waiting for its write to commit, going
+ * straight to the service (one transaction per create) or through the write-behind queue at
+ * several batch sizes. The commits per iteration are printed, so writes per commit can be read
+ * next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeWriteBehindBenchmark {
+
+    @Param({"1", "16", "128", "512"})
+    private int maxBatchSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeWriteBehindQueue employeeWriteBehindQueue;
+    private long commitsBefore;
+    private long writesBefore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("write-behind-" + maxBatchSize,
+                "ems.write-behind.enabled=true",
+                "ems.write-behind.max-batch-size=" + maxBatchSize,
+                "ems.write-behind.offer-timeout=10s");
+        employeeService = context.getBean(EmployeeService.class);
+        employeeWriteBehindQueue = context.getBean(EmployeeWriteBehindQueue.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void markCommits() {
+        commitsBefore = employeeWriteBehindQueue.commits();
+        writesBefore = sequence.get();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCommits() {
+        long commits = employeeWriteBehindQueue.commits() - commitsBefore;
+        long writes = sequence.get() - writesBefore;
+        if (commits > 0) {
+            System.out.printf("%n%d write-behind commits, %.1f writes per commit%n", commits, (double) writes / commits);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<EmployeeResponseDto> direct() {
+        return employeeService.createEmployee(nextEmployee());
+    }
+
+    @Benchmark
+    public Optional<EmployeeResponseDto> writeBehind() {
+        return employeeWriteBehindQueue.create(nextEmployee(), false).join();
+    }
+
+    private EmployeeRequestDto nextEmployee() {
+        long i = sequence.incrementAndGet();
+        return new EmployeeRequestDto("First" + i, "Last" + i, "wb" + i + "@example.com", BenchmarkContext.departmentCode((int) (i % BenchmarkContext.DEPARTMENTS)));
+    }
+}
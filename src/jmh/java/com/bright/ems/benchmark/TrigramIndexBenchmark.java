@@ -0,0 +1,63 @@
+package com.bright.ems.benchmark;
+
+import com.bright.ems.model.Employee;
+import com.bright.ems.search.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search index on its own, without Spring or a database: a prefix query, a query with a typo and
+ * the update of a random employee, which takes a new document id and leaves a dead one behind.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TrigramIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private TrigramIndex trigramIndex;
+    private long version;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trigramIndex = new TrigramIndex();
+        for (int i = 0; i < rows; i++) {
+            Employee employee = BenchmarkContext.employee(i);
+            trigramIndex.put(i + 1L, employee.getEmail(), employee.getFirstName(), employee.getLastName(), employee.getDepartmentCode(), 0L);
+        }
+    }
+
+    @Benchmark
+    public TrigramIndex.Hits prefix() {
+        return trigramIndex.search("last42", 10, TrigramIndex.FIRST_PAGE);
+    }
+
+    @Benchmark
+    public TrigramIndex.Hits typo() {
+        return trigramIndex.search("frist4217", 10, TrigramIndex.FIRST_PAGE);
+    }
+
+    @Benchmark
+    public void update() {
+        Employee employee = BenchmarkContext.employee(ThreadLocalRandom.current().nextInt(rows));
+        trigramIndex.put(TrigramIndex.NO_ID, employee.getEmail(), employee.getFirstName(), employee.getLastName(), employee.getDepartmentCode(), ++version);
+    }
+}
@@ -0,0 +1,126 @@
+package com.bright.ems.admission;
+
+import com.bright.ems.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The admission decisions of {@link AdmissionFilter}, kept apart from the servlet API so their cost
+ * can be benchmarked on their own: which group a request belongs to, whether its client is within
+ * its rate, and the {@link GradientLimiter} of each group but {@link EndpointGroup#LONG_POLL}.
+ * <p>
+ * Each group's limit and in-flight count are gauged as {@code ems.admission.limit} and
+ * {@code ems.admission.in-flight}, and rejections are counted in {@code ems.admission.rejected},
+ * tagged by group and by reason: rate or concurrency.
+ */
+public class AdmissionControl {
+
+    public enum EndpointGroup {
+        READ, WRITE, BULK,
+        /**
+         * Requests that park without a connection until there is something to answer; their
+         * duration is set by the client, so they only count against the rate limit.
+         */
+        LONG_POLL
+    }
+
+    private final AdmissionProperties admissionProperties;
+    private final ClientRateLimiter clientRateLimiter;
+    private final Map<EndpointGroup, GradientLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rateRejections = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> concurrencyRejections = new EnumMap<>(EndpointGroup.class);
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public AdmissionControl(AdmissionProperties admissionProperties, MeterRegistry meterRegistry) {
+        this.admissionProperties = admissionProperties;
+        this.clientRateLimiter = admissionProperties.clientRate() > 0
+                ? new ClientRateLimiter(admissionProperties.clientRate(), admissionProperties.clientBurst(), admissionProperties.maxClients())
+                : null;
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String tag = group.name().toLowerCase(Locale.ROOT);
+            rateRejections.put(group, rejections(meterRegistry, tag, "rate"));
+            if (group == EndpointGroup.LONG_POLL) {
+                continue;
+            }
+            int maxLimit = switch (group) {
+                case READ -> admissionProperties.readMaxLimit();
+                case WRITE -> admissionProperties.writeMaxLimit();
+                default -> admissionProperties.bulkMaxLimit();
+            };
+            GradientLimiter limiter = new GradientLimiter(Math.min(admissionProperties.initialLimit(), maxLimit),
+                    Math.min(admissionProperties.minLimit(), maxLimit), maxLimit,
+                    admissionProperties.tolerance(), admissionProperties.windowSize());
+            limiters.put(group, limiter);
+            Gauge.builder("ems.admission.limit", limiter, GradientLimiter::limit).tag("group", tag).register(meterRegistry);
+            Gauge.builder("ems.admission.in-flight", limiter, GradientLimiter::inFlight).tag("group", tag).register(meterRegistry);
+            concurrencyRejections.put(group, rejections(meterRegistry, tag, "concurrency"));
+        }
+    }
+
+    /**
+     * @param path Request path without the context path
+     */
+    public EndpointGroup group(String method, String path) {
+        for (String longPollPath : admissionProperties.longPollPaths()) {
+            if (pathMatcher.match(longPollPath, path)) {
+                return EndpointGroup.LONG_POLL;
+            }
+        }
+        for (String bulkPath : admissionProperties.bulkPaths()) {
+            if (pathMatcher.match(bulkPath, path)) {
+                return EndpointGroup.BULK;
+            }
+        }
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)
+                ? EndpointGroup.READ
+                : EndpointGroup.WRITE;
+    }
+
+    /**
+     * @return 0 if the client is within its rate, otherwise the nanoseconds until it may retry
+     */
+    public long rateLimitWait(EndpointGroup group, String client) {
+        if (clientRateLimiter == null) {
+            return 0;
+        }
+        long wait = clientRateLimiter.tryAcquire(client);
+        if (wait > 0) {
+            rateRejections.get(group).increment();
+        }
+        return wait;
+    }
+
+    /**
+     * @return Whether the group's requests take a slot of a concurrency limit
+     */
+    public boolean concurrencyLimited(EndpointGroup group) {
+        return limiters.containsKey(group);
+    }
+
+    /**
+     * @return The group's limiter if the request was admitted, otherwise null
+     */
+    public GradientLimiter tryAcquire(EndpointGroup group) {
+        GradientLimiter limiter = limiters.get(group);
+        if (limiter.tryAcquire()) {
+            return limiter;
+        }
+        concurrencyRejections.get(group).increment();
+        return null;
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String group, String reason) {
+        return Counter.builder("ems.admission.rejected")
+                .tag("group", group)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package com.bright.ems.admission;
+
+import com.bright.ems.config.AdmissionProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fails requests fast instead of letting them queue for database connections: a client over its
+ * rate gets 429 and a request over its group's concurrency limit gets 503, both with Retry-After.
+ * The time an admitted request spends in the rest of the chain is its latency sample. Requests that
+ * go async (streams, exports) keep their slot until the async request completes, errs or times out,
+ * and release it without a sample, since their duration is set by the client. Long polls are only
+ * rate limited: parked for up to their wait, they would otherwise hold the read slots that ordinary
+ * reads need.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+    private final AdmissionProperties admissionProperties;
+
+    public AdmissionFilter(AdmissionControl admissionControl, AdmissionProperties admissionProperties) {
+        this.admissionControl = admissionControl;
+        this.admissionProperties = admissionProperties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        AdmissionControl.EndpointGroup group = admissionControl.group(request.getMethod(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        long wait = admissionControl.rateLimitWait(group, client(request));
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, Duration.ofNanos(wait), "Request rate limit exceeded");
+            return;
+        }
+        if (!admissionControl.concurrencyLimited(group)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        GradientLimiter limiter = admissionControl.tryAcquire(group);
+        if (limiter == null) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, admissionProperties.retryAfter(), "Too many concurrent requests");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(limiter));
+            } else {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        if (StringUtils.hasText(admissionProperties.clientHeader())) {
+            String client = request.getHeader(admissionProperties.clientHeader());
+            if (StringUtils.hasText(client)) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Releases once, whichever of complete, error and timeout comes first; complete also follows the other two.
+     */
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final GradientLimiter limiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingListener(GradientLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A re-started async request is still the same request; keep the slot until it ends
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release();
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, Duration retryAfter, String message) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, Math.ceilDiv(retryAfter.toMillis(), 1000))));
+        response.sendError(status.value(), message);
+    }
+}
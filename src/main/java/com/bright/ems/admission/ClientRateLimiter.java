@@ -0,0 +1,58 @@
+package com.bright.ems.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per client, kept as the generic cell rate algorithm: one {@link AtomicLong} per client
+ * holds the time at which its bucket will be full again, and a request is admitted with a single
+ * compare-and-set that pushes that time one emission interval further. A client may run up to
+ * burst requests ahead of its rate before it has to wait.
+ * <p>
+ * Clients are kept in a bounded Caffeine cache. One idle for longer than it takes to refill its
+ * bucket is dropped, which changes nothing, since it would be admitted with a full bucket anyway.
+ */
+public class ClientRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> clients;
+
+    /**
+     * @param rate  Requests per second admitted on average
+     * @param burst Requests admitted at once from a full bucket
+     */
+    public ClientRateLimiter(int rate, int burst, int maxClients) {
+        if (rate < 1 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.emissionIntervalNanos = Duration.ofSeconds(1).toNanos() / rate;
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(Math.max(burstToleranceNanos + emissionIntervalNanos, Duration.ofSeconds(1).toNanos())))
+                .build();
+    }
+
+    /**
+     * @return 0 if the request is admitted, otherwise the nanoseconds until the client may send it
+     */
+    public long tryAcquire(String client) {
+        long now = System.nanoTime();
+        AtomicLong theoreticalArrival = clients.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = theoreticalArrival.get();
+            long start = current - now < 0 ? now : current;
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
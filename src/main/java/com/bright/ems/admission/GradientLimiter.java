@@ -0,0 +1,108 @@
+package com.bright.ems.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows the latency of the requests it admits. Every windowSize completed
+ * requests the window's average latency is compared with a slowly moving long-term average: while
+ * it stays within tolerance times the long-term one the limit grows by about the square root of
+ * itself, and once it exceeds that the limit shrinks in proportion, down to half per window. The
+ * limit does not grow while fewer than half of it are in use, so a quiet period cannot inflate it.
+ * <p>
+ * Admission is a compare-and-set on the in-flight count and completions only add to striped
+ * adders. The release that closes a window adjusts the limit; windows are far apart, so two
+ * adjustments practically never overlap, and if they do one of them is lost, which costs nothing.
+ */
+public class GradientLimiter {
+
+    private static final double LONG_RTT_SMOOTHING = 0.05;
+    private static final double LIMIT_SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int windowSize;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger completions = new AtomicInteger();
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private volatile double estimatedLimit;
+    private volatile int limit;
+    private volatile double longRttNanos;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, int windowSize) {
+        if (minLimit < 1 || maxLimit < minLimit || windowSize < 1 || tolerance < 1.0) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowSize = windowSize;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return Whether the request may run; if so, {@link #release(long)} or {@link #release()} must follow
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Ends an admitted request and feeds its latency into the limit.
+     */
+    public void release(long rttNanos) {
+        int stillInFlight = inFlight.decrementAndGet();
+        windowRttNanos.add(rttNanos);
+        windowSamples.increment();
+        if (completions.incrementAndGet() % windowSize == 0) {
+            long samples = windowSamples.sumThenReset();
+            long rttSum = windowRttNanos.sumThenReset();
+            if (samples > 0) {
+                adjust((double) rttSum / samples, stillInFlight + 1);
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted request whose latency says nothing about the load, e.g. one that went async.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust(double shortRttNanos, int inUse) {
+        double longRtt = longRttNanos == 0 ? shortRttNanos : longRttNanos * (1 - LONG_RTT_SMOOTHING) + shortRttNanos * LONG_RTT_SMOOTHING;
+        // A long run of slow windows drags the long-term average up; let it come back down quickly
+        if (longRtt > 2 * shortRttNanos) {
+            longRtt *= 0.95;
+        }
+        longRttNanos = longRtt;
+        double current = estimatedLimit;
+        if (inUse < current / 2) {
+            return;
+        }
+        double gradient = Math.clamp(tolerance * longRtt / Math.max(shortRttNanos, 1), 0.5, 1.0);
+        double target = current * gradient + Math.sqrt(current);
+        double next = Math.clamp(current * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING, minLimit, maxLimit);
+        estimatedLimit = next;
+        limit = (int) next;
+    }
+}
@@ -0,0 +1,359 @@
+package com.bright.ems.changes;
+
+import com.bright.ems.dto.response.EmployeeChangeDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of employee changes in memory-mapped segment files, each named after the offset
+ * of its first change. A record is a 4-byte length followed by the offset, the time, the change
+ * type, the version and the email and names as length-prefixed UTF-8. The length is written last,
+ * so a record torn by a crash reads as the end of its segment and is dropped when the log is reopened.
+ * The position of every {@value #INDEX_INTERVAL}th record is kept on the heap, so a read seeks to
+ * within that many records of its offset instead of scanning the segment.
+ * <p>
+ * Offsets start at 1. When a new segment would exceed maxSegments the oldest is unmapped and
+ * deleted, and reads from before it start at the first retained offset. Appends and
+ * {@link #force()} come from a single thread; reads may run concurrently with them.
+ */
+public class EmployeeChangeLog implements AutoCloseable {
+
+    static final int INDEX_INTERVAL = 128;
+
+    private static final String SUFFIX = ".log";
+    private static final ValueLayout.OfInt LENGTH = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int NULL_STRING = -1;
+    private static final long NO_VERSION = Long.MIN_VALUE;
+    private static final EmployeeChangedEvent.Type[] TYPES = EmployeeChangedEvent.Type.values();
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxSegments;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextOffset = 1;
+
+    /**
+     * Opens the log in the directory, recovering the segments already there.
+     *
+     * @param segmentBytes Size of a new segment file
+     * @param maxSegments  Segments kept before the oldest is deleted
+     */
+    public EmployeeChangeLog(Path directory, long segmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(maxSegments, 1);
+        try {
+            Files.createDirectories(directory);
+            long[] baseOffsets;
+            try (Stream<Path> files = Files.list(directory)) {
+                baseOffsets = files.map(file -> file.getFileName().toString())
+                        .filter(name -> name.endsWith(SUFFIX))
+                        .mapToLong(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                        .sorted()
+                        .toArray();
+            }
+            for (long baseOffset : baseOffsets) {
+                Segment segment = new Segment(segmentPath(baseOffset), baseOffset, segmentBytes);
+                segment.recover();
+                segments.add(segment);
+                nextOffset = segment.nextOffset;
+            }
+            if (segments.isEmpty()) {
+                segments.add(new Segment(segmentPath(nextOffset), nextOffset, segmentBytes));
+            }
+            deleteExpiredSegments();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Could not open the change log in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends a change and assigns it the next offset. Becomes durable with the next {@link #force()}.
+     *
+     * @param employee State after the change, null for deletes
+     * @param version  Version after the change, or of the deleted row
+     * @return The offset of the change
+     */
+    public long append(EmployeeChangedEvent.Type type, String email, EmployeeResponseDto employee, Long version, Instant changedAt) {
+        byte[] record = encode(nextOffset, type, email, employee, version, changedAt);
+        if (LENGTH_BYTES + record.length > segmentBytes) {
+            throw new IllegalArgumentException("A change of " + record.length + " bytes does not fit in a segment");
+        }
+        lock.writeLock().lock();
+        try {
+            Segment active = segments.getLast();
+            if (active.size + LENGTH_BYTES + record.length > active.memory.byteSize()) {
+                active.memory.force();
+                active = roll();
+            }
+            MemorySegment.copy(record, 0, active.memory, ValueLayout.JAVA_BYTE, active.size + LENGTH_BYTES, record.length);
+            active.memory.set(LENGTH, active.size, record.length);
+            active.index(nextOffset, active.size);
+            active.size += LENGTH_BYTES + record.length;
+            active.nextOffset = ++nextOffset;
+            return nextOffset - 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the appended changes of the active segment to disk. Earlier segments were flushed when they filled up.
+     */
+    public void force() {
+        segments.getLast().memory.force();
+    }
+
+    /**
+     * @param after Offset of the last change already seen, 0 to read from the start
+     * @param max   Maximum number of changes to return
+     * @return Changes after the offset, oldest first, starting at {@link #firstOffset()} if older ones were deleted
+     */
+    public List<EmployeeChangeDto> read(long after, int max) {
+        lock.readLock().lock();
+        try {
+            long offset = Math.max(after + 1, segments.getFirst().baseOffset);
+            List<EmployeeChangeDto> changes = new ArrayList<>((int) Math.max(0, Math.min(nextOffset - offset, max)));
+            for (int i = segmentIndex(offset); i < segments.size() && changes.size() < max; i++) {
+                Segment segment = segments.get(i);
+                long position = segment.position(offset);
+                while (offset < segment.nextOffset && changes.size() < max) {
+                    int length = segment.memory.get(LENGTH, position);
+                    changes.add(decode(segment.memory, position + LENGTH_BYTES, length));
+                    position += LENGTH_BYTES + length;
+                    offset++;
+                }
+            }
+            return changes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Offset of the oldest change still in the log, or of the next change if none was appended since
+     */
+    public long firstOffset() {
+        lock.readLock().lock();
+        try {
+            return segments.getFirst().baseOffset;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Offset of the last change appended, 0 if there is none
+     */
+    public long lastOffset() {
+        lock.readLock().lock();
+        try {
+            return nextOffset - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) {
+                segment.memory.force();
+                segment.arena.close();
+            }
+            segments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Segment roll() {
+        try {
+            Segment segment = new Segment(segmentPath(nextOffset), nextOffset, segmentBytes);
+            segments.add(segment);
+            deleteExpiredSegments();
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a change log segment in " + directory, e);
+        }
+    }
+
+    private void deleteExpiredSegments() throws IOException {
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.removeFirst();
+            oldest.arena.close();
+            Files.deleteIfExists(oldest.path);
+        }
+    }
+
+    /**
+     * Index of the last segment starting at or before the offset.
+     */
+    private int segmentIndex(long offset) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segments.get(middle).baseOffset <= offset) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private Path segmentPath(long baseOffset) {
+        return directory.resolve(String.format("%020d", baseOffset) + SUFFIX);
+    }
+
+    private static byte[] encode(long offset, EmployeeChangedEvent.Type type, String email, EmployeeResponseDto employee, Long version, Instant changedAt) {
+        byte[][] strings = {
+                bytes(email),
+                employee == null ? null : bytes(employee.firstName()),
+                employee == null ? null : bytes(employee.lastName()),
+                employee == null ? null : bytes(employee.departmentCode())
+        };
+        int length = Long.BYTES + Long.BYTES + Byte.BYTES + Long.BYTES;
+        for (byte[] string : strings) {
+            length += Integer.BYTES + (string == null ? 0 : string.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length)
+                .putLong(offset)
+                .putLong(changedAt.toEpochMilli())
+                .put((byte) type.ordinal())
+                .putLong(version == null ? NO_VERSION : version);
+        for (byte[] string : strings) {
+            if (string == null) {
+                buffer.putInt(NULL_STRING);
+            } else {
+                buffer.putInt(string.length).put(string);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static EmployeeChangeDto decode(MemorySegment memory, long position, int length) {
+        byte[] record = new byte[length];
+        MemorySegment.copy(memory, ValueLayout.JAVA_BYTE, position, record, 0, length);
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        long offset = buffer.getLong();
+        Instant changedAt = Instant.ofEpochMilli(buffer.getLong());
+        EmployeeChangedEvent.Type type = TYPES[buffer.get()];
+        long storedVersion = buffer.getLong();
+        Long version = storedVersion == NO_VERSION ? null : storedVersion;
+        String email = string(buffer);
+        String firstName = string(buffer);
+        String lastName = string(buffer);
+        String departmentCode = string(buffer);
+        EmployeeResponseDto employee = type == EmployeeChangedEvent.Type.DELETED ? null : new EmployeeResponseDto(firstName, lastName, departmentCode, version);
+        return new EmployeeChangeDto(offset, type, email, employee, version, changedAt);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * One mapped file. Its own shared arena lets it be unmapped as soon as it is deleted.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final long baseOffset;
+        private final Arena arena = Arena.ofShared();
+        private final MemorySegment memory;
+        private long size;
+        private long nextOffset;
+        private long[] positions = new long[16];
+        private int indexed;
+
+        private Segment(Path path, long baseOffset, long segmentBytes) throws IOException {
+            this.path = path;
+            this.baseOffset = baseOffset;
+            this.nextOffset = baseOffset;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                memory = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentBytes), arena);
+            } catch (IOException | RuntimeException e) {
+                arena.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Walks the records written before the log was last closed, up to the first empty or torn one.
+         */
+        private void recover() {
+            long position = 0;
+            while (position + LENGTH_BYTES + Long.BYTES <= memory.byteSize()) {
+                int length = memory.get(LENGTH, position);
+                if (length < Long.BYTES || position + LENGTH_BYTES + length > memory.byteSize()
+                        || memory.get(ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN), position + LENGTH_BYTES) != nextOffset) {
+                    break;
+                }
+                index(nextOffset, position);
+                position += LENGTH_BYTES + length;
+                nextOffset++;
+            }
+            size = position;
+        }
+
+        private void index(long offset, long position) {
+            if ((offset - baseOffset) % INDEX_INTERVAL != 0) {
+                return;
+            }
+            if (indexed == positions.length) {
+                positions = Arrays.copyOf(positions, indexed << 1);
+            }
+            positions[indexed++] = position;
+        }
+
+        /**
+         * Position of the record with the offset, which must lie in this segment or be its next offset.
+         */
+        private long position(long offset) {
+            if (offset >= nextOffset) {
+                return size;
+            }
+            int slot = (int) ((offset - baseOffset) / INDEX_INTERVAL);
+            long position = positions[slot];
+            for (long skipped = baseOffset + (long) slot * INDEX_INTERVAL; skipped < offset; skipped++) {
+                position += LENGTH_BYTES + memory.get(LENGTH, position);
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bright.ems.changes;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.model.EmployeeOutboxEntry;
+import com.bright.ems.repository.EmployeeOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Records every employee change in the outbox table. A plain {@link EventListener} runs inside the
+ * transaction that publishes the event, so the outbox row commits or rolls back with the change.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "ems.changes", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class EmployeeOutbox {
+
+    private final EmployeeOutboxRepository employeeOutboxRepository;
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        EmployeeResponseDto employee = event.employee();
+        employeeOutboxRepository.save(EmployeeOutboxEntry.builder()
+                .type(event.type())
+                .email(event.email())
+                .firstName(employee == null ? null : employee.firstName())
+                .lastName(employee == null ? null : employee.lastName())
+                .departmentCode(employee == null ? null : employee.departmentCode())
+                .version(employee == null ? event.deletedVersion() : employee.version())
+                .changedAt(Instant.now())
+                .build());
+    }
+}
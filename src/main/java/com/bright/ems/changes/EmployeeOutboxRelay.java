@@ -0,0 +1,178 @@
+package com.bright.ems.changes;
+
+import com.bright.ems.config.ChangeFeedProperties;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.event.EmployeeChangesAppendedEvent;
+import com.bright.ems.model.ChangeFeedLease;
+import com.bright.ems.model.EmployeeOutboxEntry;
+import com.bright.ems.repository.ChangeFeedLeaseRepository;
+import com.bright.ems.repository.EmployeeOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves committed outbox rows into the {@link EmployeeChangeLog} from a single thread, in batches
+ * of up to relayBatchSize: the rows are appended, the log is forced to disk and only then are the
+ * rows deleted, all in one transaction. A crash between the force and the commit appends the batch
+ * again on restart, so consumers see every change at least once and can drop repeats by version.
+ * <p>
+ * Each committed change wakes the relay up; it also looks at the outbox every relayInterval, which
+ * picks up rows left behind by a failed relay or a previous run.
+ * <p>
+ * The change log is a local file, so with several application instances only one may relay. Every
+ * batch first claims the {@link ChangeFeedLease} row in the batch's transaction: the holder extends
+ * it by leaseDuration, anyone else takes it only after it has expired, and the row lock taken by the
+ * claim keeps a takeover from overlapping a batch. Expiry is judged by each instance's clock, so
+ * clocks must agree to well within leaseDuration. Instances without the lease relay nothing and
+ * their logs stay empty; the lease is released on stop so another instance takes over at once.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "ems.changes", name = "enabled", havingValue = "true")
+public class EmployeeOutboxRelay implements SmartLifecycle {
+
+    static final String LEASE = "employee-outbox-relay";
+
+    private final EmployeeOutboxRepository employeeOutboxRepository;
+    private final ChangeFeedLeaseRepository changeFeedLeaseRepository;
+    private final EmployeeChangeLog employeeChangeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ChangeFeedProperties changeFeedProperties;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final String owner = UUID.randomUUID().toString();
+    private volatile boolean running;
+    private boolean leaseHeld;
+    private Thread relay;
+
+    public EmployeeOutboxRelay(EmployeeOutboxRepository employeeOutboxRepository, ChangeFeedLeaseRepository changeFeedLeaseRepository,
+                               EmployeeChangeLog employeeChangeLog, PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher applicationEventPublisher, ChangeFeedProperties changeFeedProperties) {
+        this.employeeOutboxRepository = employeeOutboxRepository;
+        this.changeFeedLeaseRepository = changeFeedLeaseRepository;
+        this.employeeChangeLog = employeeChangeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.changeFeedProperties = changeFeedProperties;
+        if (changeFeedProperties.leaseDuration().compareTo(changeFeedProperties.relayInterval()) <= 0) {
+            throw new IllegalStateException("ems.changes.lease-duration must be longer than ems.changes.relay-interval");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        wakeUps.release();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        relay = Thread.ofPlatform().name("employee-outbox-relay").daemon().start(this::run);
+    }
+
+    /**
+     * Stops once the batch being relayed is committed; rows still in the outbox wait for the next start.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        wakeUps.release();
+        try {
+            relay.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> changeFeedLeaseRepository.release(LEASE, owner, Instant.now()));
+        } catch (RuntimeException e) {
+            log.warn("Could not release the employee outbox relay lease; it expires in {}", changeFeedProperties.leaseDuration(), e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                wakeUps.tryAcquire(changeFeedProperties.relayInterval().toNanos(), TimeUnit.NANOSECONDS);
+                wakeUps.drainPermits();
+                int relayed;
+                do {
+                    relayed = relayBatch();
+                } while (running && relayed == changeFeedProperties.relayBatchSize());
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                log.warn("Could not relay the employee outbox, retrying in {}", changeFeedProperties.relayInterval(), e);
+            }
+        }
+    }
+
+    /**
+     * @return Number of changes relayed, 0 without the lease
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            if (!claimLease()) {
+                return 0;
+            }
+            List<EmployeeOutboxEntry> entries = employeeOutboxRepository.findByOrderByIdAsc(Limit.of(changeFeedProperties.relayBatchSize()));
+            if (entries.isEmpty()) {
+                return 0;
+            }
+            List<Long> ids = new ArrayList<>(entries.size());
+            for (EmployeeOutboxEntry entry : entries) {
+                EmployeeResponseDto employee = entry.getType() == EmployeeChangedEvent.Type.DELETED ? null
+                        : new EmployeeResponseDto(entry.getFirstName(), entry.getLastName(), entry.getDepartmentCode(), entry.getVersion());
+                employeeChangeLog.append(entry.getType(), entry.getEmail(), employee, entry.getVersion(), entry.getChangedAt());
+                ids.add(entry.getId());
+            }
+            employeeChangeLog.force();
+            employeeOutboxRepository.deleteAllByIdInBatch(ids);
+            return entries.size();
+        });
+        if (relayed != null && relayed > 0) {
+            applicationEventPublisher.publishEvent(new EmployeeChangesAppendedEvent(employeeChangeLog.lastOffset()));
+        }
+        return relayed == null ? 0 : relayed;
+    }
+
+    /**
+     * Runs in the batch's transaction, so the lease row stays locked until the batch commits.
+     */
+    private boolean claimLease() {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(changeFeedProperties.leaseDuration());
+        boolean held = changeFeedLeaseRepository.claim(LEASE, owner, now, expiresAt) == 1;
+        if (!held && !changeFeedLeaseRepository.existsById(LEASE)) {
+            // First relay ever; a concurrent first insert fails this batch on the primary key and the next one claims
+            changeFeedLeaseRepository.saveAndFlush(new ChangeFeedLease(LEASE, owner, expiresAt));
+            held = true;
+        }
+        if (held != leaseHeld) {
+            log.info(held ? "Relaying the employee outbox as {}" : "Employee outbox relay lease lost by {}", owner);
+            leaseHeld = held;
+        }
+        return held;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bright.ems.config;
+
+import com.bright.ems.admission.AdmissionControl;
+import com.bright.ems.admission.AdmissionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "ems.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionControl admissionControl(AdmissionProperties admissionProperties, MeterRegistry meterRegistry) {
+        return new AdmissionControl(admissionProperties, meterRegistry);
+    }
+
+    /**
+     * Runs ahead of the other API filters, so a rejected request costs nothing beyond the decision.
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionControl admissionControl, AdmissionProperties admissionProperties) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(new AdmissionFilter(admissionControl, admissionProperties));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Admission control of the employee API: an adaptive concurrency limit per endpoint group and a
+ * request rate limit per client.
+ *
+ * @param enabled       reject requests over either limit instead of letting them queue for connections
+ * @param readMaxLimit  most concurrent GET and HEAD requests the read limit can grow to
+ * @param writeMaxLimit most concurrent POST, PUT, PATCH and DELETE requests the write limit can grow to
+ * @param bulkMaxLimit  most concurrent requests to bulkPaths the bulk limit can grow to
+ * @param initialLimit  concurrency limit of every group at startup, capped by the group's maximum
+ * @param minLimit      the least every concurrency limit shrinks to
+ * @param tolerance     how many times its usual latency a group may take before its limit shrinks
+ * @param windowSize    completed requests per limit adjustment
+ * @param bulkPaths     endpoints (Ant patterns) limited as bulk rather than by method
+ * @param longPollPaths endpoints (Ant patterns) that park until there is something to answer; only rate limited
+ * @param clientRate    requests per second each client is allowed on average; 0 turns the rate limit off
+ * @param clientBurst   requests a client may send at once on top of its rate
+ * @param clientHeader  request header naming the client, e.g. X-Client-Id; the remote address when blank or absent
+ * @param maxClients    clients whose rate is tracked at once; the least recently seen are forgotten first
+ * @param retryAfter    Retry-After of requests rejected by a concurrency limit
+ */
+@ConfigurationProperties(prefix = "ems.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200") int readMaxLimit,
+        @DefaultValue("50") int writeMaxLimit,
+        @DefaultValue("4") int bulkMaxLimit,
+        @DefaultValue("10") int initialLimit,
+        @DefaultValue("1") int minLimit,
+        @DefaultValue("2.0") double tolerance,
+        @DefaultValue("100") int windowSize,
+        @DefaultValue({"/api/v1/employees/bulk", "/api/v1/employees/lookup", "/api/v1/employees/import",
+                "/api/v1/employees/export", "/api/v1/employees/stream"}) List<String> bulkPaths,
+        @DefaultValue("/api/v1/employees/changes") List<String> longPollPaths,
+        @DefaultValue("50") int clientRate,
+        @DefaultValue("100") int clientBurst,
+        String clientHeader,
+        @DefaultValue("100000") int maxClients,
+        @DefaultValue("1s") Duration retryAfter
+) {
+}
@@ -0,0 +1,21 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits for bulk employee creation and lookup.
+ *
+ * @param batchSize       rows written per JDBC batch before the persistence context is flushed and cleared
+ * @param maxRows         largest number of rows accepted in one bulk request
+ * @param importBatchSize rows of an import committed per transaction
+ * @param maxLookupEmails largest number of emails accepted in one batch lookup
+ */
+@ConfigurationProperties(prefix = "ems.bulk")
+public record BulkProperties(
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("100000") int maxRows,
+        @DefaultValue("1000") int importBatchSize,
+        @DefaultValue("1000") int maxLookupEmails
+) {
+}
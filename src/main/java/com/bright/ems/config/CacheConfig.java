@@ -0,0 +1,67 @@
+package com.bright.ems.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EMPLOYEES_BY_EMAIL = "employeesByEmail";
+
+    /**
+     * Caffeine backed cache manager. Puts and evictions issued inside a transaction are deferred
+     * until after commit, so a reader can never repopulate an entry with uncommitted data.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "ems.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager cacheManager(EmployeeCacheProperties employeeCacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(employeeCacheProperties.maximumSize())
+                .expireAfter(new NegativeAwareExpiry(
+                        employeeCacheProperties.ttl().toNanos(),
+                        employeeCacheProperties.negativeTtl().toNanos()))
+                .recordStats());
+        caffeineCacheManager.setCacheNames(List.of(EMPLOYEES_BY_EMAIL));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ems.cache", name = "enabled", havingValue = "false")
+    public CacheManager noOpCacheManager() {
+        return new NoOpCacheManager();
+    }
+
+    /**
+     * Gives cached misses (stored by Spring as {@link NullValue}) a shorter lifetime than hits.
+     */
+    private record NegativeAwareExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return value == NullValue.INSTANCE ? negativeTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.bright.ems.config;
+
+import com.bright.ems.changes.EmployeeChangeLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "ems.changes", name = "enabled", havingValue = "true")
+public class ChangeFeedConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmployeeChangeLog employeeChangeLog(ChangeFeedProperties changeFeedProperties) {
+        return new EmployeeChangeLog(changeFeedProperties.directory(), changeFeedProperties.segmentSize().toBytes(), changeFeedProperties.maxSegments());
+    }
+}
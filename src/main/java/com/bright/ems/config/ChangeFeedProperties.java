@@ -0,0 +1,37 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Change feed of employee mutations behind GET /api/v1/employees/changes.
+ *
+ * @param enabled        record every write in the outbox and relay it to the change log
+ * @param directory      where the change log keeps its segment files
+ * @param segmentSize    size of one memory-mapped segment file
+ * @param maxSegments    segments kept; the oldest is deleted when a new one would exceed this
+ * @param relayBatchSize outbox rows moved to the log per transaction
+ * @param relayInterval  how often the relay checks the outbox when no write has woken it up
+ * @param leaseDuration  how long the relay lease is held without renewal; longer than relayInterval
+ * @param defaultLimit   changes returned when the request does not ask for a number
+ * @param maxLimit       upper bound for the requested number of changes
+ * @param maxWait        longest a long-poll waits for a change, below the servlet async timeout
+ */
+@ConfigurationProperties(prefix = "ems.changes")
+public record ChangeFeedProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/changes") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("16") int maxSegments,
+        @DefaultValue("500") int relayBatchSize,
+        @DefaultValue("1s") Duration relayInterval,
+        @DefaultValue("10s") Duration leaseDuration,
+        @DefaultValue("100") int defaultLimit,
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("25s") Duration maxWait
+) {
+}
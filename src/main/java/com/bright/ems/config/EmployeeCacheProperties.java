@@ -0,0 +1,23 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the email-keyed employee cache in front of {@link com.bright.ems.service.EmployeeService}.
+ *
+ * @param enabled     false swaps in a no-op cache so every lookup goes to the database
+ * @param maximumSize maximum number of cached emails, evicted by Caffeine's W-TinyLFU policy
+ * @param ttl         lifetime of a cached employee
+ * @param negativeTtl lifetime of a cached miss, kept short so newly created employees show up quickly
+ */
+@ConfigurationProperties(prefix = "ems.cache")
+public record EmployeeCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("30s") Duration negativeTtl
+) {
+}
@@ -0,0 +1,20 @@
+package com.bright.ems.config;
+
+import com.bright.ems.httpcache.EmployeeCollectionVersion;
+import com.bright.ems.httpcache.HttpCacheFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+public class HttpCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<HttpCacheFilter> httpCacheFilter(EmployeeCollectionVersion employeeCollectionVersion, HttpCacheProperties httpCacheProperties) {
+        FilterRegistrationBean<HttpCacheFilter> registration = new FilterRegistrationBean<>(new HttpCacheFilter(employeeCollectionVersion, httpCacheProperties));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP caching of the employee endpoints.
+ *
+ * @param collectionPaths     GET endpoints (Ant patterns) answered with the collection ETag and 304s
+ * @param defaultCacheControl Cache-Control of collection endpoints without their own policy
+ * @param cacheControl        Cache-Control per endpoint pattern, e.g. {@code ems.http-cache.cache-control.[/api/v1/employees/email/*]=private, max-age=5}
+ */
+@ConfigurationProperties(prefix = "ems.http-cache")
+public record HttpCacheProperties(
+        @DefaultValue({"/api/v1/employees", "/api/v1/employees/page", "/api/v1/employees/department/*", "/api/v1/employees/names"}) List<String> collectionPaths,
+        @DefaultValue("no-cache") String defaultCacheControl,
+        Map<String, String> cacheControl
+) {
+    public HttpCacheProperties {
+        cacheControl = cacheControl == null ? Map.of() : cacheControl;
+    }
+}
@@ -0,0 +1,62 @@
+package com.bright.ems.config;
+
+import com.bright.ems.metrics.MethodTimingInterceptor;
+import com.bright.ems.metrics.StatementCountFilter;
+import com.bright.ems.metrics.StatementCountingInspector;
+import com.bright.ems.metrics.StatementCountingTaskDecorator;
+import com.bright.ems.repository.EmployeeRepository;
+import com.bright.ems.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor employeeServiceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return timingAdvisor(EmployeeService.class, "ems.service", meterRegistryProvider);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor employeeRepositoryTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return timingAdvisor(EmployeeRepository.class, "ems.repository", meterRegistryProvider);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+
+    @Bean
+    public StatementCountingTaskDecorator statementCountingTaskDecorator() {
+        return new StatementCountingTaskDecorator();
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementCountFilter> registration = new FilterRegistrationBean<>(new StatementCountFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private static Advisor timingAdvisor(Class<?> type, String metricName, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(type)),
+                new MethodTimingInterceptor(meterRegistryProvider, metricName, type.getSimpleName()));
+        advisor.setOrder(0);
+        return advisor;
+    }
+}
@@ -0,0 +1,19 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits for keyset-paginated and streamed employee listings.
+ *
+ * @param defaultSize page size used when the client does not ask for one
+ * @param maxSize     upper bound for a client supplied page size
+ * @param fetchSize   JDBC fetch size used when streaming rows from a cursor
+ */
+@ConfigurationProperties(prefix = "ems.pagination")
+public record PaginationProperties(
+        @DefaultValue("50") int defaultSize,
+        @DefaultValue("500") int maxSize,
+        @DefaultValue("500") int fetchSize
+) {
+}
@@ -0,0 +1,97 @@
+package com.bright.ems.config;
+
+import com.bright.ems.routing.ReadYourWritesFilter;
+import com.bright.ems.routing.ReplicaDataSource;
+import com.bright.ems.routing.ReplicaHealthChecker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.SequencedMap;
+
+/**
+ * Puts a {@link LazyConnectionDataSourceProxy} in front of the spring.datasource pool
+ * (ems.read-routing.enabled=true). The proxy takes the real connection at the first statement, by
+ * when the transaction has marked it read-only, so read-only transactions get a connection of the
+ * {@link ReplicaDataSource} and all others one of the primary pool. Each pool is named (primary,
+ * replica-0, ...) and reports its own hikaricp metrics.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "ems.read-routing", name = "enabled", havingValue = "true")
+public class ReadRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primaryDataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaryDataSource.setPoolName("primary");
+        return primaryDataSource;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, ReadRoutingProperties readRoutingProperties,
+                                               ShardingProperties shardingProperties, MeterRegistry meterRegistry) {
+        if (readRoutingProperties.replicas().isEmpty()) {
+            throw new IllegalStateException("ems.read-routing.replicas must list at least one datasource");
+        }
+        if (shardingProperties.enabled()) {
+            throw new IllegalStateException("ems.read-routing cannot be combined with ems.sharding");
+        }
+        SequencedMap<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReadRoutingProperties.Replica replica : readRoutingProperties.replicas()) {
+            HikariDataSource hikariDataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.url())
+                    .username(replica.username())
+                    .password(replica.password())
+                    .build();
+            hikariDataSource.setPoolName("replica-" + replicas.size());
+            hikariDataSource.setMaximumPoolSize(readRoutingProperties.maximumPoolSize());
+            hikariDataSource.setConnectionTimeout(readRoutingProperties.connectionTimeout().toMillis());
+            hikariDataSource.setReadOnly(true);
+            // Start even while a replica is down; the health check takes it into use once it answers
+            hikariDataSource.setInitializationFailTimeout(-1);
+            hikariDataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(hikariDataSource.getPoolName(), hikariDataSource);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReplicaDataSource replicaDataSource, ReadRoutingProperties readRoutingProperties) {
+        return new ReplicaHealthChecker(replicaDataSource, readRoutingProperties);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadRoutingProperties readRoutingProperties, ReplicaDataSource replicaDataSource) {
+        return new ReadYourWritesFilter(readRoutingProperties, replicaDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilterRegistration(ReadYourWritesFilter readYourWritesFilter) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(readYourWritesFilter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,44 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to read replicas of spring.datasource.
+ *
+ * @param enabled             route read-only transactions over the replicas; writes stay on spring.datasource
+ * @param replicas            read replicas, used in turn while healthy
+ * @param maximumPoolSize     Hikari pool size of every replica
+ * @param connectionTimeout   how long a read waits for a replica connection before it falls back to the primary
+ * @param healthCheckInterval pause between two checks of every replica
+ * @param healthCheckTimeout  how long a replica has to answer a check
+ * @param stickiness          who reads from the primary after a write: the client that wrote it, or everybody
+ * @param stickyWindow        how long reads stay on the primary after a write, at least the replication lag
+ * @param readOnlyPaths       POST endpoints (Ant patterns) that only read, so they are neither pinned nor sticky
+ */
+@ConfigurationProperties(prefix = "ems.read-routing")
+public record ReadRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        List<Replica> replicas,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("1s") Duration connectionTimeout,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("1s") Duration healthCheckTimeout,
+        @DefaultValue("CLIENT") Stickiness stickiness,
+        @DefaultValue("2s") Duration stickyWindow,
+        @DefaultValue("/api/v1/employees/lookup") List<String> readOnlyPaths
+) {
+    public ReadRoutingProperties {
+        replicas = replicas == null ? List.of() : replicas;
+    }
+
+    public enum Stickiness {
+        CLIENT, GLOBAL
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
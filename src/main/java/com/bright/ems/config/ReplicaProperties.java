@@ -0,0 +1,19 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * In-memory read replica of the employees table.
+ *
+ * @param enabled     load the table at startup and serve email, department and full-list reads from memory
+ * @param fetchSize   rows fetched per round trip while loading
+ * @param initialRows row capacity reserved up front, the columns grow by half when full
+ */
+@ConfigurationProperties(prefix = "ems.replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1000") int fetchSize,
+        @DefaultValue("1024") int initialRows
+) {
+}
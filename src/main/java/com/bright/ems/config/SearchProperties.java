@@ -0,0 +1,19 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Embedded employee search index.
+ *
+ * @param enabled      build the index at startup; without it the search endpoint answers 503
+ * @param defaultLimit hits returned when the request does not ask for a limit
+ * @param maxLimit     largest number of hits returned per page
+ */
+@ConfigurationProperties(prefix = "ems.search")
+public record SearchProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10") int defaultLimit,
+        @DefaultValue("50") int maxLimit
+) {
+}
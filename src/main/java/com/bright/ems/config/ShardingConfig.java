@@ -0,0 +1,65 @@
+package com.bright.ems.config;
+
+import com.bright.ems.sharding.HashShardRouter;
+import com.bright.ems.sharding.ShardRouter;
+import com.bright.ems.sharding.ShardRoutingDataSource;
+import com.bright.ems.sharding.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with one pool per shard behind a {@link ShardRoutingDataSource}
+ * (ems.sharding.enabled=true). The write-behind queue commits many employees in one transaction and
+ * the change feed relays one outbox table, neither of which can span shards, so both are refused.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "ems.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(ShardingProperties shardingProperties, WriteBehindProperties writeBehindProperties, ChangeFeedProperties changeFeedProperties) {
+        if (shardingProperties.shards().isEmpty()) {
+            throw new IllegalStateException("ems.sharding.shards must list at least one datasource");
+        }
+        if (writeBehindProperties.enabled() || changeFeedProperties.enabled()) {
+            throw new IllegalStateException("ems.sharding cannot be combined with ems.write-behind or ems.changes");
+        }
+        List<DataSource> shardDataSources = new ArrayList<>(shardingProperties.shards().size());
+        for (ShardingProperties.Shard shard : shardingProperties.shards()) {
+            HikariDataSource hikariDataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.url())
+                    .username(shard.username())
+                    .password(shard.password())
+                    .build();
+            hikariDataSource.setPoolName("shard-" + shardDataSources.size());
+            hikariDataSource.setMaximumPoolSize(shardingProperties.maximumPoolSize());
+            shardDataSources.add(hikariDataSource);
+        }
+        return new ShardRoutingDataSource(shardDataSources);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ShardRouter shardRouter(ShardingProperties shardingProperties) {
+        return new HashShardRouter(shardingProperties.key(), shardingProperties.shards().size());
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(LocalContainerEntityManagerFactoryBean entityManagerFactory, ShardRoutingDataSource dataSource) {
+        return new ShardSchemaInitializer(entityManagerFactory, dataSource);
+    }
+}
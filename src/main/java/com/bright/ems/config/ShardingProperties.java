@@ -0,0 +1,33 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Horizontal partitioning of the employees table over several databases.
+ *
+ * @param enabled         route employee reads and writes over the shards instead of spring.datasource
+ * @param key             what decides an employee's shard: its email or its department code
+ * @param shards          one datasource per shard; the position in the list is the shard number
+ * @param maximumPoolSize Hikari pool size of every shard
+ */
+@ConfigurationProperties(prefix = "ems.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("EMAIL") ShardKey key,
+        List<Shard> shards,
+        @DefaultValue("10") int maximumPoolSize
+) {
+    public ShardingProperties {
+        shards = shards == null ? List.of() : shards;
+    }
+
+    public enum ShardKey {
+        EMAIL, DEPARTMENT_CODE
+    }
+
+    public record Shard(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Coalescing of concurrent identical database reads.
+ *
+ * @param enabled share one in-flight query between identical concurrent lookups
+ * @param maxWait how long a caller waits for a shared query before running its own
+ */
+@ConfigurationProperties(prefix = "ems.single-flight")
+public record SingleFlightProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2s") Duration maxWait
+) {
+}
@@ -0,0 +1,45 @@
+package com.bright.ems.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Checks for virtual-thread request handling (spring.threads.virtual.enabled=true).
+ * Spring Boot already runs Tomcat requests and the application task executor on virtual threads
+ * in that mode. The limit on concurrent database work is then the Hikari pool, not a thread pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadingConfig {
+
+    /**
+     * On JDK 23 a virtual thread blocked inside a synchronized block (the H2 driver, parts of Hibernate)
+     * pins its carrier thread. If more connections can be busy at once than there are carriers,
+     * every carrier can end up pinned by JDBC calls and the remaining virtual threads starve.
+     * The PostgreSQL driver uses j.u.c locks and does not pin.
+     */
+    @Bean
+    public ApplicationRunner carrierThreadCheck(DataSource dataSource) {
+        return args -> {
+            if (!(dataSource instanceof HikariDataSource hikariDataSource)) {
+                return;
+            }
+            int parallelism = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                    Runtime.getRuntime().availableProcessors());
+            if (hikariDataSource.getMaximumPoolSize() >= parallelism) {
+                log.warn("Hikari pool size {} is not below the {} virtual thread carriers; JDBC calls pinned in "
+                                + "synchronized driver code can occupy every carrier. Raise "
+                                + "-Djdk.virtualThreadScheduler.parallelism or lower spring.datasource.hikari.maximum-pool-size",
+                        hikariDataSource.getMaximumPoolSize(), parallelism);
+            }
+        };
+    }
+}
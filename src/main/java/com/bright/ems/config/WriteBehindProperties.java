@@ -0,0 +1,27 @@
+package com.bright.ems.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Asynchronous group-commit pipeline for employee writes.
+ *
+ * @param enabled       route creates, updates and deletes through the write-behind queue
+ * @param queueCapacity writes that may wait for a commit before callers are pushed back
+ * @param maxBatchSize  writes committed together in one transaction
+ * @param maxDelay      longest a write waits for its batch to fill
+ * @param offerTimeout  how long a caller waits for room in a full queue before getting 503
+ * @param awaitTimeout  how long a caller waits for its queued write to commit before getting 503
+ */
+@ConfigurationProperties(prefix = "ems.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("200") int maxBatchSize,
+        @DefaultValue("5ms") Duration maxDelay,
+        @DefaultValue("100ms") Duration offerTimeout,
+        @DefaultValue("5s") Duration awaitTimeout
+) {
+}
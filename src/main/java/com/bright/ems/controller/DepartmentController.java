@@ -0,0 +1,26 @@
+package com.bright.ems.controller;
+
+import com.bright.ems.dto.response.DepartmentStatsDto;
+import com.bright.ems.service.DepartmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/departments")
+@RequiredArgsConstructor
+public class DepartmentController {
+
+    private final DepartmentService departmentService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<DepartmentStatsDto>> getDepartmentStats() {
+        List<DepartmentStatsDto> departmentStatsDtos = departmentService.getDepartmentStats();
+        return new ResponseEntity<>(departmentStatsDtos, HttpStatus.OK);
+    }
+}
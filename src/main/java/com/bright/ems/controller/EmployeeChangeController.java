@@ -0,0 +1,42 @@
+package com.bright.ems.controller;
+
+import com.bright.ems.dto.response.EmployeeChangesResponseDto;
+import com.bright.ems.service.EmployeeChangeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Incremental feed of employee changes for downstream systems that would otherwise poll the full list.
+ */
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "ems.changes", name = "enabled", havingValue = "true")
+@RequestMapping("/api/v1/employees/changes")
+@RequiredArgsConstructor
+public class EmployeeChangeController {
+
+    private final EmployeeChangeService employeeChangeService;
+
+    /**
+     * @param since Offset of the last change already consumed, the nextOffset of the previous response
+     * @param limit Maximum number of changes to return
+     * @param wait  Seconds to hold the request open when there is no change yet (long-poll)
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<EmployeeChangesResponseDto>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                                                   @RequestParam(required = false) Integer limit,
+                                                                                   @RequestParam(defaultValue = "0") long wait) {
+        return employeeChangeService.getChanges(since, limit, Duration.ofSeconds(wait))
+                .thenApply(employeeChangesResponseDto -> new ResponseEntity<>(employeeChangesResponseDto, HttpStatus.OK));
+    }
+}
@@ -1,22 +1,48 @@
 package com.bright.ems.controller;
 
+import com.bright.ems.dto.request.EmployeeLookupRequestDto;
 import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.dto.response.EmployeeLookupResponseDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
 import com.bright.ems.dto.response.EmployeeResponseDto;
 import com.bright.ems.service.EmployeeService;
+import com.bright.ems.util.EmployeeETags;
+import com.bright.ems.writebehind.EmployeeWriteBehindQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/employees")
 @RequiredArgsConstructor
 public class EmployeeController {
 
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+    private final Optional<EmployeeWriteBehindQueue> employeeWriteBehindQueue;
 
     @GetMapping
     public ResponseEntity<List<EmployeeResponseDto>> getAllEmployees() {
@@ -24,17 +50,85 @@ public class EmployeeController {
         return new ResponseEntity<>(employeeResponseDtos, HttpStatus.OK);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<EmployeePageResponseDto> getEmployeePage(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        EmployeePageResponseDto employeePageResponseDto = employeeService.getEmployeePage(cursor, size);
+        return withNextLink(employeePageResponseDto);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<EmployeePageResponseDto> searchEmployees(@RequestParam String q, @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+        EmployeePageResponseDto employeePageResponseDto = employeeService.searchEmployees(q, limit, cursor);
+        return withNextLink(employeePageResponseDto);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+        ObjectWriter ndjsonWriter = objectMapper.writerFor(EmployeeResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        StreamingResponseBody streamingResponseBody = outputStream -> {
+            try (SequenceWriter sequenceWriter = ndjsonWriter.writeValues(outputStream)) {
+                employeeService.streamAllEmployees(employeeResponseDto -> {
+                    try {
+                        sequenceWriter.write(employeeResponseDto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(streamingResponseBody);
+    }
+
+    /**
+     * With the write-behind queue enabled, "Prefer: respond-async" is answered with 202 as soon as the
+     * write is queued; otherwise the request waits until the write's batch is committed, or answers
+     * 503 after the await timeout.
+     */
     @PostMapping
-    public ResponseEntity<EmployeeResponseDto> createEmployee(@RequestBody EmployeeRequestDto employeeRequestDto) {
-        Optional<EmployeeResponseDto> optionalEmployeeResponseDto = employeeService.createEmployee(employeeRequestDto);
-        return optionalEmployeeResponseDto.map(employeeResponseDto -> new ResponseEntity<>(employeeResponseDto, HttpStatus.CREATED)).orElseGet(() -> new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+    public ResponseEntity<EmployeeResponseDto> createEmployee(@RequestBody EmployeeRequestDto employeeRequestDto,
+                                                              @RequestHeader(value = PREFER, required = false) String prefer) {
+        Optional<EmployeeResponseDto> optionalEmployeeResponseDto;
+        if (employeeWriteBehindQueue.isPresent()) {
+            boolean async = respondAsync(prefer);
+            CompletableFuture<Optional<EmployeeResponseDto>> queuedWrite = employeeWriteBehindQueue.get().create(employeeRequestDto, async);
+            if (async) {
+                return accepted();
+            }
+            optionalEmployeeResponseDto = employeeWriteBehindQueue.get().await(queuedWrite);
+        } else {
+            optionalEmployeeResponseDto = employeeService.createEmployee(employeeRequestDto);
+        }
+        return optionalEmployeeResponseDto.map(employeeResponseDto -> EmployeeETags.withETag(employeeResponseDto, HttpStatus.CREATED)).orElseGet(() -> new ResponseEntity<>(HttpStatus.BAD_REQUEST));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkEmployeeResultDto>> createEmployees(@RequestBody List<EmployeeRequestDto> employeeRequestDtos) {
+        List<BulkEmployeeResultDto> bulkEmployeeResultDtos = employeeService.createEmployees(employeeRequestDtos);
+        return new ResponseEntity<>(bulkEmployeeResultDtos, HttpStatus.OK);
+    }
+
+    /**
+     * Batch form of {@link #getEmployeeByEmail}: one call for many emails instead of one request each.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<EmployeeLookupResponseDto> lookupEmployees(@RequestBody EmployeeLookupRequestDto employeeLookupRequestDto) {
+        EmployeeLookupResponseDto employeeLookupResponseDto = employeeService.lookupEmployees(employeeLookupRequestDto.emails());
+        return new ResponseEntity<>(employeeLookupResponseDto, HttpStatus.OK);
+    }
+
+    /**
+     * The response carries the employee's version as a strong ETag. A matching If-None-Match is answered
+     * with 304 and no body by Spring's ResponseEntity handling.
+     */
     @GetMapping("/email/{email}")
     public ResponseEntity<EmployeeResponseDto> getEmployeeByEmail(@PathVariable String email) {
         Optional<EmployeeResponseDto> employeeResponseDto = employeeService.findByEmail(email);
         if (employeeResponseDto.isPresent()) {
-            return new ResponseEntity<>(employeeResponseDto.get(), HttpStatus.OK);
+            return EmployeeETags.withETag(employeeResponseDto.get(), HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
@@ -48,27 +142,98 @@ public class EmployeeController {
         return new ResponseEntity<>(employeeResponseDtos.getFirst(), HttpStatus.OK);
     }
 
+    @GetMapping("/department/{departmentCode}")
+    public ResponseEntity<List<EmployeeResponseDto>> getEmployeesByDepartmentCode(@PathVariable String departmentCode) {
+        List<EmployeeResponseDto> employeeResponseDtos = employeeService.findByDepartmentCode(departmentCode);
+        return new ResponseEntity<>(employeeResponseDtos, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/names", params = "firstName")
+    public ResponseEntity<List<EmployeeResponseDto>> getEmployeesByFirstNamePrefix(@RequestParam("firstName") String prefix) {
+        List<EmployeeResponseDto> employeeResponseDtos = employeeService.findByFirstNamePrefix(prefix);
+        return new ResponseEntity<>(employeeResponseDtos, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/names", params = {"lastName", "!firstName"})
+    public ResponseEntity<List<EmployeeResponseDto>> getEmployeesByLastNamePrefix(@RequestParam("lastName") String prefix) {
+        List<EmployeeResponseDto> employeeResponseDtos = employeeService.findByLastNamePrefix(prefix);
+        return new ResponseEntity<>(employeeResponseDtos, HttpStatus.OK);
+    }
+
+    /**
+     * Goes through the write-behind queue like {@link #createEmployee}, where consecutive unconditional
+     * replaces of the same employee are folded into the last one.
+     */
     @PutMapping("/{email}")
-    public ResponseEntity<EmployeeResponseDto> updateEmployee(@PathVariable String email, @RequestBody EmployeeRequestDto employeeRequestDto) {
-        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.updateEmployee(email, employeeRequestDto);
+    public ResponseEntity<EmployeeResponseDto> updateEmployee(@PathVariable String email, @RequestBody EmployeeRequestDto employeeRequestDto,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                              @RequestHeader(value = PREFER, required = false) String prefer) {
+        Optional<EmployeeResponseDto> employeeResponseDto;
+        if (employeeWriteBehindQueue.isPresent()) {
+            boolean async = respondAsync(prefer);
+            CompletableFuture<Optional<EmployeeResponseDto>> queuedWrite = employeeWriteBehindQueue.get().update(email, employeeRequestDto, EmployeeETags.toExpectedVersion(ifMatch), async);
+            if (async) {
+                return accepted();
+            }
+            employeeResponseDto = employeeWriteBehindQueue.get().await(queuedWrite);
+        } else {
+            employeeResponseDto = employeeService.updateEmployee(email, employeeRequestDto, EmployeeETags.toExpectedVersion(ifMatch));
+        }
         if (employeeResponseDto.isPresent()) {
-            return new ResponseEntity<>(employeeResponseDto.get(), HttpStatus.OK);
+            return EmployeeETags.withETag(employeeResponseDto.get(), HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @PatchMapping("/{email}")
-    public ResponseEntity<EmployeeResponseDto> updateEmployeePartially(@PathVariable String email, @RequestBody EmployeeRequestDto employeeRequestDto) {
-        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.updateEmployeePartially(email, employeeRequestDto);
+    public ResponseEntity<EmployeeResponseDto> updateEmployeePartially(@PathVariable String email, @RequestBody EmployeeRequestDto employeeRequestDto,
+                                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.updateEmployeePartially(email, employeeRequestDto, EmployeeETags.toExpectedVersion(ifMatch));
         if (employeeResponseDto.isPresent()) {
-            return new ResponseEntity<>(employeeResponseDto.get(), HttpStatus.OK);
+            return EmployeeETags.withETag(employeeResponseDto.get(), HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @DeleteMapping("/{email}")
-    public ResponseEntity<Void> deleteEmployee(@PathVariable String email) {
-        employeeService.deleteEmployee(email);
+    public ResponseEntity<Void> deleteEmployee(@PathVariable String email,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestHeader(value = PREFER, required = false) String prefer) {
+        if (employeeWriteBehindQueue.isPresent()) {
+            boolean async = respondAsync(prefer);
+            CompletableFuture<Optional<EmployeeResponseDto>> queuedWrite = employeeWriteBehindQueue.get().delete(email, EmployeeETags.toExpectedVersion(ifMatch), async);
+            if (async) {
+                return accepted();
+            }
+            employeeWriteBehindQueue.get().await(queuedWrite);
+        } else {
+            employeeService.deleteEmployee(email, EmployeeETags.toExpectedVersion(ifMatch));
+        }
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    /**
+     * Points a Link rel="next" header at the current request with the next page's cursor.
+     */
+    private static ResponseEntity<EmployeePageResponseDto> withNextLink(EmployeePageResponseDto employeePageResponseDto) {
+        if (employeePageResponseDto.nextCursor() == null) {
+            return new ResponseEntity<>(employeePageResponseDto, HttpStatus.OK);
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", employeePageResponseDto.nextCursor())
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(employeePageResponseDto);
+    }
+
+    private static boolean respondAsync(String prefer) {
+        return prefer != null && prefer.toLowerCase(Locale.ROOT).contains(RESPOND_ASYNC);
+    }
+
+    private static <T> ResponseEntity<T> accepted() {
+        return ResponseEntity.accepted()
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .build();
+    }
 }
@@ -0,0 +1,137 @@
+package com.bright.ems.controller;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.ImportResultDto;
+import com.bright.ems.service.EmployeeTransferService;
+import com.bright.ems.util.EmployeeCsvReader;
+import com.bright.ems.util.EmployeeCsvWriter;
+import com.bright.ems.util.EmployeeNdjsonReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Whole-directory export and import for the nightly HR sync. Both directions stream: the export
+ * writes rows as the JDBC cursor yields them and the import parses the upload one record at a time,
+ * so neither holds more than one import batch in memory regardless of the file size.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/employees")
+@RequiredArgsConstructor
+public class EmployeeTransferController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EmployeeTransferService employeeTransferService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param format         csv (default) or ndjson
+     * @param acceptEncoding The response is gzip-compressed when it accepts gzip
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(defaultValue = "csv") String format,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean csv = isCsv(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP);
+        StreamingResponseBody streamingResponseBody = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+            if (csv) {
+                writeCsv(target);
+            } else {
+                writeNdjson(target);
+            }
+        };
+        ResponseEntity.BodyBuilder bodyBuilder = ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "employees.csv" : "employees.ndjson")
+                        .build()
+                        .toString());
+        if (gzip) {
+            bodyBuilder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return bodyBuilder.body(streamingResponseBody);
+    }
+
+    /**
+     * Accepts the export's own formats, text/csv or application/x-ndjson, optionally sent with Content-Encoding: gzip.
+     * Answers 400 with the counts of what was imported and the failing record if a record is malformed.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportResultDto> importEmployees(InputStream inputStream,
+                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                           @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) throws IOException {
+        InputStream source = GZIP.equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(inputStream, BUFFER_SIZE) : inputStream;
+        Iterator<EmployeeRequestDto> employeeRequestDtos = TEXT_CSV.isCompatibleWith(contentType)
+                ? new EmployeeCsvReader(new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8), BUFFER_SIZE))
+                : new EmployeeNdjsonReader(objectMapper.readerFor(EmployeeRequestDto.class).readValues(source));
+        ImportResultDto importResultDto = employeeTransferService.importEmployees(employeeRequestDtos);
+        return new ResponseEntity<>(importResultDto, importResultDto.failedRecord() == null ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+    }
+
+    private void writeCsv(OutputStream outputStream) throws IOException {
+        try (EmployeeCsvWriter employeeCsvWriter = new EmployeeCsvWriter(
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            employeeTransferService.exportEmployees(employeeRequestDto -> {
+                try {
+                    employeeCsvWriter.write(employeeRequestDto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeNdjson(OutputStream outputStream) throws IOException {
+        ObjectWriter ndjsonWriter = objectMapper.writerFor(EmployeeRequestDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        try (SequenceWriter sequenceWriter = ndjsonWriter.writeValues(outputStream)) {
+            employeeTransferService.exportEmployees(employeeRequestDto -> {
+                try {
+                    sequenceWriter.write(employeeRequestDto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static boolean isCsv(String format) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format " + format);
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.bright.ems.dto.request;
+
+import java.util.List;
+
+public record EmployeeLookupRequestDto(
+        List<String> emails
+) {
+}
@@ -0,0 +1,12 @@
+package com.bright.ems.dto.response;
+
+public record BulkEmployeeResultDto(
+        String email,
+        Status status
+) {
+    public enum Status {
+        CREATED,
+        CONFLICT,
+        INVALID
+    }
+}
@@ -0,0 +1,7 @@
+package com.bright.ems.dto.response;
+
+public record DepartmentStatsDto(
+        String departmentCode,
+        Long headcount
+) {
+}
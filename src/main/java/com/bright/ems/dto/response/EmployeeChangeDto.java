@@ -0,0 +1,14 @@
+package com.bright.ems.dto.response;
+
+import com.bright.ems.event.EmployeeChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * @param offset    Position of the change in the change log, increasing by one per change
+ * @param employee  State after the change, null for deletes
+ * @param version   Version of the employee after the change, or of the deleted row
+ * @param changedAt When the change was written
+ */
+public record EmployeeChangeDto(long offset, EmployeeChangedEvent.Type type, String email, EmployeeResponseDto employee, Long version, Instant changedAt) {
+}
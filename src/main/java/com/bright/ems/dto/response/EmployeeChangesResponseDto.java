@@ -0,0 +1,10 @@
+package com.bright.ems.dto.response;
+
+import java.util.List;
+
+/**
+ * @param changes    Changes after the requested offset, oldest first
+ * @param nextOffset Offset to pass as {@code since} on the next request
+ */
+public record EmployeeChangesResponseDto(List<EmployeeChangeDto> changes, long nextOffset) {
+}
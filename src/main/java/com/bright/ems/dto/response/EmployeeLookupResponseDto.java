@@ -0,0 +1,14 @@
+package com.bright.ems.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param employees Found employees keyed by email, in the order the emails were requested
+ * @param missing   Requested emails with no employee, in request order
+ */
+public record EmployeeLookupResponseDto(
+        Map<String, EmployeeResponseDto> employees,
+        List<String> missing
+) {
+}
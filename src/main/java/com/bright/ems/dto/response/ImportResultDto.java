@@ -0,0 +1,18 @@
+package com.bright.ems.dto.response;
+
+/**
+ * @param failedRecord Number of the first record that could not be read, counting employees from 1, or null if
+ *                     the whole upload was read; every record before it has been imported
+ * @param error        Why that record could not be read, or null
+ */
+public record ImportResultDto(
+        long rows,
+        long created,
+        long conflicts,
+        long invalid,
+        long elapsedMillis,
+        long rowsPerSecond,
+        Long failedRecord,
+        String error
+) {
+}
@@ -0,0 +1,39 @@
+package com.bright.ems.event;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+
+/**
+ * Published by the service for every employee it creates, updates or deletes, so that derived
+ * read models can follow the table without polling it. Listeners that must only see committed
+ * changes use {@code @TransactionalEventListener}.
+ * <p>
+ * After-commit listeners of different transactions can run in any order, so a read model must not
+ * let an update of a row that committed before its delete bring the row back. Deletes therefore
+ * carry the id and version of the row they removed.
+ *
+ * @param type                   What happened to the employee
+ * @param employeeId             Id of a created or deleted employee, null for updates which are keyed by email
+ * @param email                  Email of the employee
+ * @param previousDepartmentCode Department before an update or delete, null for creates
+ * @param employee               State after the change, null for deletes
+ * @param deletedVersion         Version of the deleted row, null for creates and updates
+ */
+public record EmployeeChangedEvent(Type type, Long employeeId, String email, String previousDepartmentCode, EmployeeResponseDto employee,
+                                   Long deletedVersion) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static EmployeeChangedEvent created(Long employeeId, String email, EmployeeResponseDto employee) {
+        return new EmployeeChangedEvent(Type.CREATED, employeeId, email, null, employee, null);
+    }
+
+    public static EmployeeChangedEvent updated(String email, String previousDepartmentCode, EmployeeResponseDto employee) {
+        return new EmployeeChangedEvent(Type.UPDATED, null, email, previousDepartmentCode, employee, null);
+    }
+
+    public static EmployeeChangedEvent deleted(Long employeeId, String email, String previousDepartmentCode, Long deletedVersion) {
+        return new EmployeeChangedEvent(Type.DELETED, employeeId, email, previousDepartmentCode, null, deletedVersion);
+    }
+}
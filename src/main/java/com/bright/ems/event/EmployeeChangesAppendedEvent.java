@@ -0,0 +1,9 @@
+package com.bright.ems.event;
+
+/**
+ * Published by the outbox relay after it has appended a batch of changes to the change log.
+ *
+ * @param lastOffset Offset of the last change appended
+ */
+public record EmployeeChangesAppendedEvent(long lastOffset) {
+}
@@ -0,0 +1,35 @@
+package com.bright.ems.httpcache;
+
+import com.bright.ems.event.EmployeeChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the employee changes committed by this instance; every create, update and delete of the
+ * employee services publishes an {@link EmployeeChangedEvent}. Single-flight uses the count to keep
+ * reads that start after a commit from sharing an older query, and {@link EmployeeCollectionVersion}
+ * adds it to the ETag of lists served by the in-memory read replica. It starts at the boot time in
+ * microseconds, so a restart never hands out a count an earlier run already used.
+ * <p>
+ * The count moves after the commit and after the read replica has applied the change, so a reader
+ * that takes the count before reading can pair new rows with an old count, never old rows with a new one.
+ */
+@Component
+public class EmployeeChangeCounter {
+
+    private final AtomicLong changes = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public long current() {
+        return changes.get();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        changes.incrementAndGet();
+    }
+}
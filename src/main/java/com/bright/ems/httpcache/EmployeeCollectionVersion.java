@@ -0,0 +1,138 @@
+package com.bright.ems.httpcache;
+
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.model.EmployeeChangeCount;
+import com.bright.ems.replica.EmployeeReplica;
+import com.bright.ems.repository.EmployeeChangeCountRepository;
+import com.bright.ems.sharding.Shards;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Version of the employee collection behind the collection ETag, kept in the database so that every
+ * application instance hands out the same tag for the same rows. Each transaction that changes
+ * employees adds one to a random {@link EmployeeChangeCount} slot just before it commits, so the
+ * slot row stays locked only for the commit itself; the version is the sum of the slots of every
+ * shard. Slot 0 starts at its creation time in microseconds, so a database created anew never
+ * hands out a version that an earlier one already used.
+ * <p>
+ * The in-memory read replica follows only this instance's writes and applies them after the commit.
+ * While it serves the lists, the version also carries the local {@link EmployeeChangeCounter} count,
+ * read first, so a version taken between a commit and the replica catching up is never handed out again.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeCollectionVersion implements SmartLifecycle {
+
+    static final int SLOTS = 16;
+
+    private final EmployeeChangeCountRepository employeeChangeCountRepository;
+    private final EmployeeChangeCounter employeeChangeCounter;
+    private final EmployeeReplica employeeReplica;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean running;
+
+    public EmployeeCollectionVersion(EmployeeChangeCountRepository employeeChangeCountRepository, EmployeeChangeCounter employeeChangeCounter,
+                                     EmployeeReplica employeeReplica, Shards shards, PlatformTransactionManager transactionManager) {
+        this.employeeChangeCountRepository = employeeChangeCountRepository;
+        this.employeeChangeCounter = employeeChangeCounter;
+        this.employeeReplica = employeeReplica;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reads the slots in read-only transactions, so callers that need the primary pin their reads first.
+     */
+    public String current() {
+        String local = employeeReplica.isReady() ? "." + employeeChangeCounter.current() : "";
+        long changes = 0;
+        for (long shardChanges : shards.onEvery(shard -> employeeChangeCountRepository.total())) {
+            changes += shardChanges;
+        }
+        return changes + local;
+    }
+
+    /**
+     * Counts each transaction once however many employees it changes. A change published outside a
+     * transaction is counted in one of its own.
+     */
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> increment());
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                increment();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(EmployeeCollectionVersion.this);
+            }
+        });
+    }
+
+    private void increment() {
+        if (employeeChangeCountRepository.increment(ThreadLocalRandom.current().nextInt(SLOTS)) == 0) {
+            throw new IllegalStateException("employee_change_count is missing slots");
+        }
+    }
+
+    /**
+     * Adds the slots a shard does not have yet, before the web server takes requests.
+     */
+    @Override
+    public void start() {
+        shards.onEvery(shard -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> addMissingSlots());
+            } catch (DataIntegrityViolationException e) {
+                // Another instance added them at the same time
+            }
+            return null;
+        });
+        running = true;
+    }
+
+    private void addMissingSlots() {
+        Set<Integer> slots = new HashSet<>();
+        for (EmployeeChangeCount employeeChangeCount : employeeChangeCountRepository.findAll()) {
+            slots.add(employeeChangeCount.getSlot());
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (!slots.contains(slot)) {
+                employeeChangeCountRepository.save(new EmployeeChangeCount(slot, slot == 0 ? System.currentTimeMillis() * 1000 : 0));
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
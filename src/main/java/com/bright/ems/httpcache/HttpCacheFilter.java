@@ -0,0 +1,77 @@
+package com.bright.ems.httpcache;
+
+import com.bright.ems.config.HttpCacheProperties;
+import com.bright.ems.routing.ReadAffinity;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Applies the configured Cache-Control policies and, on collection endpoints, a weak ETag built
+ * from {@link EmployeeCollectionVersion}. A matching If-None-Match is answered with 304 before the
+ * request reaches the controller, so an unchanged list costs one read of the version slots instead
+ * of the list query.
+ * <p>
+ * Collection requests keep all their reads on one database ({@link ReadAffinity}), the version
+ * included. Replicas lag by different amounts, so rows read from another replica than the version
+ * could be older than the tag they are sent under.
+ */
+public class HttpCacheFilter extends OncePerRequestFilter {
+
+    private final EmployeeCollectionVersion employeeCollectionVersion;
+    private final HttpCacheProperties httpCacheProperties;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public HttpCacheFilter(EmployeeCollectionVersion employeeCollectionVersion, HttpCacheProperties httpCacheProperties) {
+        this.employeeCollectionVersion = employeeCollectionVersion;
+        this.httpCacheProperties = httpCacheProperties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean collection = httpCacheProperties.collectionPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+        String cacheControl = cacheControl(path, collection);
+        if (cacheControl != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        if (!collection) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean previous = ReadAffinity.stick();
+        try {
+            // Taken before the controller reads, so the tag can only be older than the body
+            if (new ServletWebRequest(request, response).checkNotModified("W/\"" + employeeCollectionVersion.current() + "\"")) {
+                return;
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadAffinity.restore(previous);
+        }
+    }
+
+    private String cacheControl(String path, boolean collection) {
+        for (Map.Entry<String, String> policy : httpCacheProperties.cacheControl().entrySet()) {
+            if (pathMatcher.match(policy.getKey(), path)) {
+                return policy.getValue();
+            }
+        }
+        return collection ? httpCacheProperties.defaultCacheControl() : null;
+    }
+}
@@ -0,0 +1,161 @@
+package com.bright.ems.json;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written JSON codec for the employee DTOs, producing and accepting the same documents as
+ * Jackson databinding (nulls written, {@code version} left out, unknown fields ignored) without its
+ * reflection. Responses are written field by field through a streaming generator, whose output
+ * buffer is recycled between calls, with field names pre-encoded once. Requests are read token by
+ * token straight into the records, without an intermediate tree. Thread-safe.
+ */
+public class EmployeeJsonCodec {
+
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString DEPARTMENT_CODE = new SerializedString("departmentCode");
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString NEXT_CURSOR = new SerializedString("nextCursor");
+
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .build();
+
+    public void writeEmployee(EmployeeResponseDto employeeResponseDto, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            writeEmployee(generator, employeeResponseDto);
+        }
+    }
+
+    public void writeEmployees(List<EmployeeResponseDto> employeeResponseDtos, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            writeEmployees(generator, employeeResponseDtos);
+        }
+    }
+
+    public void writePage(EmployeePageResponseDto employeePageResponseDto, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeFieldName(CONTENT);
+            writeEmployees(generator, employeePageResponseDto.content());
+            generator.writeFieldName(NEXT_CURSOR);
+            generator.writeString(employeePageResponseDto.nextCursor());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * @throws JsonParseException if the document is not a JSON object of string fields
+     */
+    public EmployeeRequestDto readEmployeeRequest(InputStream inputStream) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            parser.nextToken();
+            return readEmployeeRequest(parser);
+        }
+    }
+
+    /**
+     * @throws JsonParseException if the document is not a JSON array of employee objects
+     */
+    public List<EmployeeRequestDto> readEmployeeRequests(InputStream inputStream) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of employees");
+            }
+            List<EmployeeRequestDto> employeeRequestDtos = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                employeeRequestDtos.add(readEmployeeRequest(parser));
+            }
+            return employeeRequestDtos;
+        }
+    }
+
+    private static void writeEmployees(JsonGenerator generator, List<EmployeeResponseDto> employeeResponseDtos) throws IOException {
+        if (employeeResponseDtos == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (EmployeeResponseDto employeeResponseDto : employeeResponseDtos) {
+            writeEmployee(generator, employeeResponseDto);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeEmployee(JsonGenerator generator, EmployeeResponseDto employeeResponseDto) throws IOException {
+        if (employeeResponseDto == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(FIRST_NAME);
+        generator.writeString(employeeResponseDto.firstName());
+        generator.writeFieldName(LAST_NAME);
+        generator.writeString(employeeResponseDto.lastName());
+        generator.writeFieldName(DEPARTMENT_CODE);
+        generator.writeString(employeeResponseDto.departmentCode());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads the object the parser is positioned on; a null element of an array reads as null.
+     */
+    private static EmployeeRequestDto readEmployeeRequest(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an employee object");
+        }
+        String firstName = null;
+        String lastName = null;
+        String email = null;
+        String departmentCode = null;
+        String fieldName;
+        while ((fieldName = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (fieldName) {
+                case "firstName" -> firstName = readString(parser, value);
+                case "lastName" -> lastName = readString(parser, value);
+                case "email" -> email = readString(parser, value);
+                case "departmentCode" -> departmentCode = readString(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Unterminated employee object");
+        }
+        return new EmployeeRequestDto(firstName, lastName, email, departmentCode);
+    }
+
+    /**
+     * Strings as is and other scalars as their text, the way Jackson coerces them into a String field.
+     */
+    private static String readString(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value == null || !value.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a string for " + parser.currentName());
+        }
+        return parser.getText();
+    }
+}
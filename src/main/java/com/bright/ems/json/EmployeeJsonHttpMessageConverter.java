@@ -0,0 +1,97 @@
+package com.bright.ems.json;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes the employee DTOs of /api/v1/employees with {@link EmployeeJsonCodec}. Spring
+ * Boot puts HttpMessageConverter beans ahead of its defaults, so these types skip Jackson
+ * databinding while every other body (bulk results, department stats, errors) still goes through it.
+ */
+@Component
+public class EmployeeJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final EmployeeJsonCodec employeeJsonCodec = new EmployeeJsonCodec();
+
+    public EmployeeJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == EmployeeRequestDto.class || clazz == EmployeeResponseDto.class || clazz == EmployeePageResponseDto.class;
+    }
+
+    /**
+     * Only request bodies are read, as a single employee or a list of them.
+     */
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return canRead(clazz, null, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (type == EmployeeRequestDto.class || isListOf(type, EmployeeRequestDto.class)) && canRead(mediaType);
+    }
+
+    /**
+     * Only response bodies are written, as a single employee, a list of them or a page.
+     */
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return canWrite(null, clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        Type target = type == null ? clazz : type;
+        return (target == EmployeeResponseDto.class || target == EmployeePageResponseDto.class || isListOf(target, EmployeeResponseDto.class))
+                && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return type == EmployeeRequestDto.class
+                    ? employeeJsonCodec.readEmployeeRequest(inputMessage.getBody())
+                    : employeeJsonCodec.readEmployeeRequests(inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        switch (body) {
+            case EmployeeResponseDto employeeResponseDto -> employeeJsonCodec.writeEmployee(employeeResponseDto, outputMessage.getBody());
+            case EmployeePageResponseDto employeePageResponseDto -> employeeJsonCodec.writePage(employeePageResponseDto, outputMessage.getBody());
+            default -> employeeJsonCodec.writeEmployees((List<EmployeeResponseDto>) body, outputMessage.getBody());
+        }
+    }
+
+    private static boolean isListOf(Type type, Class<?> elementType) {
+        return type instanceof ParameterizedType parameterizedType
+                && parameterizedType.getRawType() == List.class
+                && parameterizedType.getActualTypeArguments()[0] == elementType;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bright.ems.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call of the advised methods. The tagged timers of each method are built once
+ * and looked up by {@link Method} afterwards, so a call records into existing timers without
+ * allocating tags or meter ids.
+ */
+public class MethodTimingInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final String metricName;
+    private final String component;
+    private final Map<Method, MethodTimers> methodTimers = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistryProvider Resolved on first use, advisors are created before the registry is configured
+     * @param metricName            Name of the timers, e.g. ems.service
+     * @param component             Value of the component tag, e.g. EmployeeService
+     */
+    public MethodTimingInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider, String metricName, String component) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.metricName = metricName;
+        this.component = component;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        MethodTimers timers = methodTimers.get(method);
+        if (timers == null) {
+            timers = methodTimers.computeIfAbsent(method, this::register);
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            timers.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable throwable) {
+            timers.failure().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw throwable;
+        }
+    }
+
+    private MethodTimers register(Method method) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getObject();
+        return new MethodTimers(timer(meterRegistry, method, "success"), timer(meterRegistry, method, "error"));
+    }
+
+    private Timer timer(MeterRegistry meterRegistry, Method method, String outcome) {
+        return Timer.builder(metricName)
+                .tag("component", component)
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record MethodTimers(Timer success, Timer failure) {
+    }
+}
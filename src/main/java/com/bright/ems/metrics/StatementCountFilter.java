@@ -0,0 +1,78 @@
+package com.bright.ems.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how many Hibernate statements each HTTP request issued. A request that goes async
+ * (streams, exports) is recorded when the async request completes, with the statements its
+ * executor tasks issued; see {@link StatementCountingTaskDecorator}.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final DistributionSummary statementsPerRequest;
+
+    public StatementCountFilter(MeterRegistry meterRegistry) {
+        this.statementsPerRequest = DistributionSummary.builder("ems.http.jdbc.statements")
+                .description("Hibernate SQL statements issued per HTTP request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        AtomicLong statements = new AtomicLong();
+        AtomicLong previous = StatementCountingInspector.bind(statements);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementCountingInspector.bind(previous);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordingListener(statements));
+            } else {
+                statementsPerRequest.record(statements.get());
+            }
+        }
+    }
+
+    /**
+     * Records once the async request completes, which also follows an error or a timeout.
+     */
+    private final class RecordingListener implements AsyncListener {
+
+        private final AtomicLong statements;
+
+        private RecordingListener(AtomicLong statements) {
+            this.statements = statements;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            statementsPerRequest.record(statements.get());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A re-started async request is still the same request; record once it ends
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
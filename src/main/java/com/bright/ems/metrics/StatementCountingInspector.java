@@ -0,0 +1,50 @@
+package com.bright.ems.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements Hibernate prepares into the counter bound to the current thread, so the
+ * statements issued per HTTP request can be recorded and N+1 regressions show up as a shift in that
+ * distribution. {@link StatementCountFilter} binds a request's counter to its request thread, and
+ * {@link StatementCountingTaskDecorator} carries it to the task executor threads that stream the
+ * request's response. Statements on threads without a counter, such as the parallel per-shard
+ * queries, are not counted.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<AtomicLong> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicLong statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * @return The counter statements on this thread are counted into, or null
+     */
+    public static AtomicLong current() {
+        return STATEMENTS.get();
+    }
+
+    /**
+     * Counts the statements on this thread into the counter from now on.
+     *
+     * @param statements The counter, or null to stop counting
+     * @return The counter bound before, to restore afterwards
+     */
+    public static AtomicLong bind(AtomicLong statements) {
+        AtomicLong previous = STATEMENTS.get();
+        if (statements == null) {
+            STATEMENTS.remove();
+        } else {
+            STATEMENTS.set(statements);
+        }
+        return previous;
+    }
+}
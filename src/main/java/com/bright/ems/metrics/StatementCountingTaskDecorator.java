@@ -0,0 +1,29 @@
+package com.bright.ems.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the statements of a task into the counter of the thread that submitted it, so the
+ * statements of a streaming response or an async controller are added to its HTTP request. Spring
+ * Boot applies it to the application task executor, which runs the async MVC work.
+ */
+public class StatementCountingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        AtomicLong statements = StatementCountingInspector.current();
+        if (statements == null) {
+            return runnable;
+        }
+        return () -> {
+            AtomicLong previous = StatementCountingInspector.bind(statements);
+            try {
+                runnable.run();
+            } finally {
+                StatementCountingInspector.bind(previous);
+            }
+        };
+    }
+}
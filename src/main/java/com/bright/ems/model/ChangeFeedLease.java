@@ -0,0 +1,26 @@
+package com.bright.ems.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The one row saying which application instance relays the outbox to its change log, and until
+ * when. The holder extends it on every relay pass; anyone may take it over once it has expired.
+ */
+@Entity
+@Table(name = "change_feed_lease")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedLease {
+    @Id
+    private String name;
+    @Column(nullable = false)
+    private String owner;
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
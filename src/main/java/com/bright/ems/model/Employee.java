@@ -1,26 +1,53 @@
 package com.bright.ems.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Locale;
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+        @Index(name = "idx_employees_first_name", columnList = "first_name"),
+        @Index(name = "idx_employees_last_name", columnList = "last_name"),
+        // Covers the department listing: equality on the department, rows already sorted by name
+        @Index(name = "idx_employees_department_last_first", columnList = "department_code, last_name, first_name"),
+        @Index(name = "idx_employees_first_name_lower", columnList = "first_name_lower"),
+        @Index(name = "idx_employees_last_name_lower", columnList = "last_name_lower")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Employee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // A pooled sequence lets Hibernate hand out ids without a round trip per insert,
+    // which IDENTITY prevents, so inserts can be sent as JDBC batches.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
     private Long employeeId;
     private String firstName;
     private String lastName;
     @Column(unique = true, nullable = false)
     private String email;
     private String departmentCode;
+    // NOT NULL DEFAULT 0; rows stored before the column existed need the backfill in the README
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+    // Lower-cased copies backing case-insensitive prefix search with plain indexes,
+    // which works the same on H2 and PostgreSQL without functional indexes.
+    // Rows stored before these columns existed need the one-off UPDATE in the README.
+    @Setter(AccessLevel.NONE)
+    private String firstNameLower;
+    @Setter(AccessLevel.NONE)
+    private String lastNameLower;
 
     public Employee(String firstName, String lastName, String email, String departmentCode) {
         this.firstName = firstName;
@@ -28,4 +55,26 @@ public class Employee {
         this.email = email;
         this.departmentCode = departmentCode;
     }
+
+    public static String toLowerCase(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * LIKE pattern matching names that start with the prefix, case-insensitively, with '!' escaping wildcards.
+     */
+    public static String toPrefixPattern(String prefix) {
+        String escaped = toLowerCase(prefix)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escaped + "%";
+    }
+
+    @PrePersist
+    @PreUpdate
+    void lowerCaseNames() {
+        firstNameLower = toLowerCase(firstName);
+        lastNameLower = toLowerCase(lastName);
+    }
 }
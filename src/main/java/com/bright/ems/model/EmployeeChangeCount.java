@@ -0,0 +1,22 @@
+package com.bright.ems.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One slot of the committed-change count of the employees table. Writers bump a random slot so
+ * that concurrent commits rarely wait on the same row; the count is the sum of all slots.
+ */
+@Entity
+@Table(name = "employee_change_count")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeChangeCount {
+    @Id
+    private Integer slot;
+    @Column(nullable = false)
+    private long changes;
+}
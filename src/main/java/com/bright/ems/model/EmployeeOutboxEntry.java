@@ -0,0 +1,42 @@
+package com.bright.ems.model;
+
+import com.bright.ems.event.EmployeeChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An employee change waiting to be relayed to the change log. Written in the transaction of the
+ * change itself and deleted once the relay has appended it to the log.
+ * <p>
+ * The relay reads entries in id order, so ids come one at a time from the sequence: with blocks of
+ * ids cached per instance, a later change on one instance could take a lower id than an earlier
+ * change of the same employee on another and be relayed before it.
+ */
+@Entity
+@Table(name = "employee_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_outbox_seq")
+    @SequenceGenerator(name = "employee_outbox_seq", sequenceName = "employee_outbox_seq", allocationSize = 1)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmployeeChangedEvent.Type type;
+    @Column(nullable = false)
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String departmentCode;
+    private Long version;
+    @Column(nullable = false)
+    private Instant changedAt;
+}
@@ -0,0 +1,145 @@
+package com.bright.ems.replica;
+
+import com.bright.ems.config.ReplicaProperties;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.repository.EmployeeStreamRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory read replica of the employees table (ems.replica.enabled=true). The table is
+ * loaded into an {@link EmployeeReplicaStore} once the application is ready, and every committed
+ * {@link EmployeeChangedEvent} is applied to it afterwards. Until the load has finished
+ * {@link #isReady()} is false and the service keeps reading from the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmployeeReplica {
+
+    private final EmployeeStreamRepository employeeStreamRepository;
+    private final ReplicaProperties replicaProperties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private EmployeeReplicaStore employeeReplicaStore;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Loads the table while holding the write lock, so a change committed after the load query
+     * started waits for the load and is then applied on top of it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!replicaProperties.enabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            EmployeeReplicaStore loadingStore = new EmployeeReplicaStore(replicaProperties.initialRows());
+            employeeReplicaStore = loadingStore;
+            employeeStreamRepository.streamRows(replicaProperties.fetchSize(), employeeRow -> loadingStore.upsert(
+                    employeeRow.employeeId(), employeeRow.email(), employeeRow.firstName(), employeeRow.lastName(),
+                    employeeRow.departmentCode(), employeeRow.version() == null ? 0L : employeeRow.version()));
+            loadingStore.sortDepartments();
+            ready = true;
+            log.info("Loaded {} employees into the read replica in {} ms ({} bytes on heap, {} bytes off heap)",
+                    loadingStore.size(), (System.nanoTime() - start) / 1_000_000,
+                    loadingStore.heapBytes(), loadingStore.offHeapBytes());
+        } catch (RuntimeException e) {
+            log.error("Could not load the employee read replica, reads stay on the database", e);
+            close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed change. Changes seen before the load started are skipped, the load reads them from the table.
+     * Listeners of different commits may run in any order; the store's tombstones keep a late update from undoing a delete.
+     * Runs ahead of {@link com.bright.ems.httpcache.EmployeeChangeCounter}, so a new collection ETag never labels old rows.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (!replicaProperties.enabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (employeeReplicaStore == null) {
+                return;
+            }
+            if (event.type() == EmployeeChangedEvent.Type.DELETED) {
+                employeeReplicaStore.delete(event.email(),
+                        event.employeeId() == null ? EmployeeReplicaStore.NO_ID : event.employeeId(),
+                        event.deletedVersion() == null ? 0L : event.deletedVersion());
+                return;
+            }
+            EmployeeResponseDto employee = event.employee();
+            employeeReplicaStore.upsert(
+                    event.employeeId() == null ? EmployeeReplicaStore.NO_ID : event.employeeId(),
+                    event.email(), employee.firstName(), employee.lastName(), employee.departmentCode(),
+                    employee.version() == null ? 0L : employee.version());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<EmployeeResponseDto> findByEmail(String email) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(employeeReplicaStore.findByEmail(email));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<EmployeeResponseDto> findByDepartmentCode(String departmentCode) {
+        lock.readLock().lock();
+        try {
+            return employeeReplicaStore.findByDepartmentCode(departmentCode);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<EmployeeResponseDto> findAll() {
+        lock.readLock().lock();
+        try {
+            return employeeReplicaStore.findAll();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            if (employeeReplicaStore != null) {
+                employeeReplicaStore.close();
+                employeeReplicaStore = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,585 @@
+package com.bright.ems.replica;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Columnar copy of the employees table. Every column is a primitive array indexed by row; the
+ * text of names and emails lives off-heap as UTF-8 in fixed-size chunks of one {@link Arena} and
+ * each row only holds a packed {@code long} reference (chunk, offset, length) to it. Department
+ * codes are interned to {@code int} ids. An open-addressing {@code int} table indexes rows by email
+ * and per-department row lists index them by department, so a lookup walks primitive arrays and
+ * compares bytes in place without allocating until the response DTO is built.
+ * <p>
+ * Rows are appended to their department unsorted while the table is loaded; {@link #sortDepartments()}
+ * then orders every department by last and first name once, and later changes are inserted in place,
+ * so a department listing is read in order instead of sorted per request. Names are compared as
+ * UTF-8 bytes, that is by code point.
+ * <p>
+ * A delete leaves a tombstone with the id and version of the row it removed. Changes can arrive out
+ * of commit order, so an update of that row at or below the deleted version, or its create, is
+ * refused instead of bringing the employee back; a create with another id is a new employee with
+ * the same email and clears the tombstone.
+ * <p>
+ * Deleted rows, their tombstones and replaced strings that do not fit in place are not reclaimed;
+ * the space comes back on the next load. Not thread-safe, {@link EmployeeReplica} guards it with a
+ * read-write lock.
+ */
+public class EmployeeReplicaStore implements AutoCloseable {
+
+    /**
+     * Employee id of a row inserted by an update whose create was never seen.
+     */
+    public static final long NO_ID = 0L;
+
+    static final int CHUNK_BYTES = 1 << 22;
+    static final int MAX_STRING_BYTES = (1 << 16) - 1;
+
+    private static final long NULL_REF = -1L;
+    private static final int NO_ROW = -1;
+    private static final int NO_DEPARTMENT = -1;
+    private static final Comparator<EmployeeResponseDto> BY_LAST_AND_FIRST_NAME = Comparator
+            .comparing(EmployeeResponseDto::lastName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(EmployeeResponseDto::firstName, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+    private final Arena arena = Arena.ofShared();
+    private MemorySegment[] chunks = new MemorySegment[0];
+    private int chunkUsed = CHUNK_BYTES;
+
+    private long[] employeeIds;
+    private long[] versions;
+    private long[] firstNameRefs;
+    private long[] lastNameRefs;
+    private long[] emailRefs;
+    private int[] departmentIds;
+    private final BitSet deletedRows = new BitSet();
+    private int rowCount;
+    private int liveRows;
+
+    private int[] emailSlots;
+    private int indexedRows;
+
+    private final Map<String, Tombstone> tombstones = new HashMap<>();
+
+    private final Map<String, Integer> departmentIdsByCode = new HashMap<>();
+    private final List<String> departmentCodes = new ArrayList<>();
+    private final List<RowList> departmentRows = new ArrayList<>();
+    private boolean departmentsSorted;
+
+    /**
+     * @param initialRows Rows reserved up front, the columns grow by half when full
+     */
+    public EmployeeReplicaStore(int initialRows) {
+        int capacity = Math.max(initialRows, 16);
+        employeeIds = new long[capacity];
+        versions = new long[capacity];
+        firstNameRefs = new long[capacity];
+        lastNameRefs = new long[capacity];
+        emailRefs = new long[capacity];
+        departmentIds = new int[capacity];
+        emailSlots = new int[Integer.highestOneBit(capacity - 1) << 2];
+    }
+
+    private record Tombstone(long employeeId, long version) {
+    }
+
+    /**
+     * Inserts the employee, or overwrites the row with the same email unless the stored version is
+     * newer. Does nothing for a row deleted at this version or a later one.
+     *
+     * @param employeeId Id of the employee, or {@link #NO_ID} to keep the stored one
+     */
+    public void upsert(long employeeId, String email, String firstName, String lastName, String departmentCode, long version) {
+        if (buried(employeeId, email, version)) {
+            return;
+        }
+        int row = findRow(email);
+        if (row == NO_ROW) {
+            append(employeeId, email, firstName, lastName, departmentCode, version);
+            return;
+        }
+        if (version < versions[row]) {
+            return;
+        }
+        if (employeeId != NO_ID) {
+            employeeIds[row] = employeeId;
+        }
+        int departmentId = internDepartment(departmentCode);
+        boolean moved = departmentId != departmentIds[row] || (departmentsSorted
+                && !(storedEquals(lastNameRefs[row], lastName) && storedEquals(firstNameRefs[row], firstName)));
+        if (moved) {
+            removeFromDepartment(row);
+        }
+        firstNameRefs[row] = rewriteString(firstNameRefs[row], firstName);
+        lastNameRefs[row] = rewriteString(lastNameRefs[row], lastName);
+        departmentIds[row] = departmentId;
+        if (moved) {
+            addToDepartment(row);
+        }
+        versions[row] = version;
+    }
+
+    /**
+     * Removes the row and leaves a tombstone for it. A stored row of another employee with this
+     * email, or at a newer version, was created after the delete and is kept.
+     *
+     * @param employeeId Id of the deleted employee, or {@link #NO_ID} if unknown
+     * @param version    Version of the deleted row
+     * @return true if the row was stored
+     */
+    public boolean delete(String email, long employeeId, long version) {
+        int row = findRow(email);
+        if (row != NO_ROW && (versions[row] > version || !sameEmployee(employeeIds[row], employeeId))) {
+            return false;
+        }
+        Tombstone tombstone = tombstones.get(email);
+        if (tombstone == null || version > tombstone.version() || !sameEmployee(tombstone.employeeId(), employeeId)) {
+            tombstones.put(email, new Tombstone(employeeId, version));
+        }
+        if (row == NO_ROW) {
+            return false;
+        }
+        deletedRows.set(row);
+        removeFromDepartment(row);
+        liveRows--;
+        return true;
+    }
+
+    /**
+     * @return The employee with this email, or null
+     */
+    public EmployeeResponseDto findByEmail(String email) {
+        int row = findRow(email);
+        return row == NO_ROW ? null : toResponseDto(row);
+    }
+
+    /**
+     * @return The employees of the department ordered by last name and first name, like the repository query
+     */
+    public List<EmployeeResponseDto> findByDepartmentCode(String departmentCode) {
+        Integer departmentId = departmentIdsByCode.get(departmentCode);
+        if (departmentId == null) {
+            return new ArrayList<>();
+        }
+        RowList rows = departmentRows.get(departmentId);
+        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>(rows.size);
+        for (int i = 0; i < rows.size; i++) {
+            employeeResponseDtos.add(toResponseDto(rows.rows[i]));
+        }
+        if (!departmentsSorted) {
+            employeeResponseDtos.sort(BY_LAST_AND_FIRST_NAME);
+        }
+        return employeeResponseDtos;
+    }
+
+    /**
+     * Orders every department by last and first name; called once the load is done, later inserts keep the order.
+     */
+    public void sortDepartments() {
+        for (RowList rows : departmentRows) {
+            rows.sort(this::compareNames);
+        }
+        departmentsSorted = true;
+    }
+
+    /**
+     * @return Every employee, in load and insertion order
+     */
+    public List<EmployeeResponseDto> findAll() {
+        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>(liveRows);
+        for (int row = deletedRows.nextClearBit(0); row < rowCount; row = deletedRows.nextClearBit(row + 1)) {
+            employeeResponseDtos.add(toResponseDto(row));
+        }
+        return employeeResponseDtos;
+    }
+
+    public int size() {
+        return liveRows;
+    }
+
+    /**
+     * @return Bytes held on the heap by the columns and indexes, excluding object headers
+     */
+    public long heapBytes() {
+        long bytes = (long) employeeIds.length * Long.BYTES * 5
+                + (long) departmentIds.length * Integer.BYTES
+                + (long) emailSlots.length * Integer.BYTES
+                + deletedRows.size() / Byte.SIZE;
+        for (int departmentId = 0; departmentId < departmentRows.size(); departmentId++) {
+            bytes += (long) departmentRows.get(departmentId).rows.length * Integer.BYTES
+                    + departmentCodes.get(departmentId).length();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return Bytes reserved off-heap for names and emails
+     */
+    public long offHeapBytes() {
+        return (long) chunks.length * CHUNK_BYTES;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    /**
+     * A change is buried by a tombstone of the same employee at its version or a later one. Any other
+     * change belongs to an employee created after the delete, so the tombstone is dropped.
+     */
+    private boolean buried(long employeeId, String email, long version) {
+        Tombstone tombstone = tombstones.get(email);
+        if (tombstone == null) {
+            return false;
+        }
+        if (sameEmployee(tombstone.employeeId(), employeeId) && version <= tombstone.version()) {
+            return true;
+        }
+        tombstones.remove(email);
+        return false;
+    }
+
+    private static boolean sameEmployee(long employeeId, long otherEmployeeId) {
+        return employeeId == NO_ID || otherEmployeeId == NO_ID || employeeId == otherEmployeeId;
+    }
+
+    private void append(long employeeId, String email, String firstName, String lastName, String departmentCode, long version) {
+        if (rowCount == employeeIds.length) {
+            growColumns();
+        }
+        int row = rowCount++;
+        employeeIds[row] = employeeId;
+        versions[row] = version;
+        firstNameRefs[row] = writeString(firstName);
+        lastNameRefs[row] = writeString(lastName);
+        emailRefs[row] = writeString(email);
+        departmentIds[row] = internDepartment(departmentCode);
+        addToDepartment(row);
+        liveRows++;
+        if ((indexedRows + 1) * 2 > emailSlots.length) {
+            rehashEmails();
+        }
+        indexEmail(row);
+    }
+
+    private void growColumns() {
+        int capacity = employeeIds.length + (employeeIds.length >> 1);
+        employeeIds = Arrays.copyOf(employeeIds, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        firstNameRefs = Arrays.copyOf(firstNameRefs, capacity);
+        lastNameRefs = Arrays.copyOf(lastNameRefs, capacity);
+        emailRefs = Arrays.copyOf(emailRefs, capacity);
+        departmentIds = Arrays.copyOf(departmentIds, capacity);
+    }
+
+    private int internDepartment(String departmentCode) {
+        if (departmentCode == null) {
+            return NO_DEPARTMENT;
+        }
+        Integer departmentId = departmentIdsByCode.get(departmentCode);
+        if (departmentId != null) {
+            return departmentId;
+        }
+        departmentCodes.add(departmentCode);
+        departmentRows.add(new RowList());
+        departmentIdsByCode.put(departmentCode, departmentCodes.size() - 1);
+        return departmentCodes.size() - 1;
+    }
+
+    private void addToDepartment(int row) {
+        if (departmentIds[row] == NO_DEPARTMENT) {
+            return;
+        }
+        RowList rows = departmentRows.get(departmentIds[row]);
+        if (departmentsSorted) {
+            rows.insert(row, this::compareNames);
+        } else {
+            rows.add(row);
+        }
+    }
+
+    private void removeFromDepartment(int row) {
+        if (departmentIds[row] != NO_DEPARTMENT) {
+            departmentRows.get(departmentIds[row]).remove(row);
+        }
+    }
+
+    private int compareNames(int row, int other) {
+        int order = compareStored(lastNameRefs[row], lastNameRefs[other]);
+        return order != 0 ? order : compareStored(firstNameRefs[row], firstNameRefs[other]);
+    }
+
+    /**
+     * Orders null first, then by unsigned UTF-8 bytes.
+     */
+    private int compareStored(long ref, long otherRef) {
+        if (ref == NULL_REF || otherRef == NULL_REF) {
+            return Boolean.compare(ref != NULL_REF, otherRef != NULL_REF);
+        }
+        MemorySegment chunk = chunks[chunk(ref)];
+        MemorySegment otherChunk = chunks[chunk(otherRef)];
+        int offset = offset(ref);
+        int otherOffset = offset(otherRef);
+        int length = length(ref);
+        int otherLength = length(otherRef);
+        long mismatch = MemorySegment.mismatch(chunk, offset, offset + length, otherChunk, otherOffset, otherOffset + otherLength);
+        if (mismatch == -1) {
+            return 0;
+        }
+        if (mismatch == length || mismatch == otherLength) {
+            return Integer.compare(length, otherLength);
+        }
+        return Integer.compare(Byte.toUnsignedInt(chunk.get(ValueLayout.JAVA_BYTE, offset + mismatch)),
+                Byte.toUnsignedInt(otherChunk.get(ValueLayout.JAVA_BYTE, otherOffset + mismatch)));
+    }
+
+    private int findRow(String email) {
+        if (email == null) {
+            return NO_ROW;
+        }
+        int mask = emailSlots.length - 1;
+        for (int slot = hash(email) & mask; ; slot = (slot + 1) & mask) {
+            int entry = emailSlots[slot];
+            if (entry == 0) {
+                return NO_ROW;
+            }
+            int row = entry - 1;
+            if (!deletedRows.get(row) && storedEquals(emailRefs[row], email)) {
+                return row;
+            }
+        }
+    }
+
+    private void indexEmail(int row) {
+        int mask = emailSlots.length - 1;
+        int slot = storedHash(emailRefs[row]) & mask;
+        while (emailSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        emailSlots[slot] = row + 1;
+        indexedRows++;
+    }
+
+    /**
+     * Doubles the email table when it would pass half full; deleted rows are dropped from it on the way.
+     */
+    private void rehashEmails() {
+        emailSlots = new int[Math.max(emailSlots.length, Integer.highestOneBit(Math.max(liveRows, 1)) << 2)];
+        indexedRows = 0;
+        for (int row = deletedRows.nextClearBit(0); row < rowCount - 1; row = deletedRows.nextClearBit(row + 1)) {
+            indexEmail(row);
+        }
+    }
+
+    private EmployeeResponseDto toResponseDto(int row) {
+        int departmentId = departmentIds[row];
+        return new EmployeeResponseDto(
+                readString(firstNameRefs[row]),
+                readString(lastNameRefs[row]),
+                departmentId == NO_DEPARTMENT ? null : departmentCodes.get(departmentId),
+                versions[row]);
+    }
+
+    private long writeString(String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        byte[] bytes = toBytes(value);
+        if (chunks.length == 0 || chunkUsed + bytes.length > CHUNK_BYTES) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = arena.allocate(CHUNK_BYTES);
+            chunkUsed = 0;
+        }
+        int chunk = chunks.length - 1;
+        MemorySegment.copy(bytes, 0, chunks[chunk], ValueLayout.JAVA_BYTE, chunkUsed, bytes.length);
+        long ref = ref(chunk, chunkUsed, bytes.length);
+        chunkUsed += bytes.length;
+        return ref;
+    }
+
+    /**
+     * Overwrites the old bytes when the new value fits in them, otherwise appends it.
+     */
+    private long rewriteString(long ref, String value) {
+        if (ref == NULL_REF || value == null) {
+            return writeString(value);
+        }
+        byte[] bytes = toBytes(value);
+        if (bytes.length > length(ref)) {
+            return writeString(value);
+        }
+        MemorySegment.copy(bytes, 0, chunks[chunk(ref)], ValueLayout.JAVA_BYTE, offset(ref), bytes.length);
+        return ref(chunk(ref), offset(ref), bytes.length);
+    }
+
+    private String readString(long ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        byte[] bytes = new byte[length(ref)];
+        MemorySegment.copy(chunks[chunk(ref)], ValueLayout.JAVA_BYTE, offset(ref), bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares ASCII values char by char against the stored bytes; only other values are encoded.
+     */
+    private boolean storedEquals(long ref, String value) {
+        if (ref == NULL_REF || value == null) {
+            return ref == NULL_REF && value == null;
+        }
+        int length = length(ref);
+        if (value.length() > length) {
+            return false;
+        }
+        MemorySegment chunk = chunks[chunk(ref)];
+        int offset = offset(ref);
+        if (value.length() == length) {
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    ascii = false;
+                } else if (chunk.get(ValueLayout.JAVA_BYTE, offset + i) != (byte) c) {
+                    return false;
+                }
+            }
+            if (ascii) {
+                return true;
+            }
+        }
+        byte[] bytes = toBytes(value);
+        return bytes.length == length
+                && MemorySegment.mismatch(chunk, offset, offset + length, MemorySegment.ofArray(bytes), 0, length) == -1;
+    }
+
+    private int storedHash(long ref) {
+        MemorySegment chunk = chunks[chunk(ref)];
+        int offset = offset(ref);
+        int hash = 0;
+        for (int i = 0; i < length(ref); i++) {
+            hash = 31 * hash + (chunk.get(ValueLayout.JAVA_BYTE, offset + i) & 0xff);
+        }
+        return spread(hash);
+    }
+
+    /**
+     * Same hash as {@link #storedHash(long)} over the UTF-8 bytes, computed on the chars for ASCII values.
+     */
+    private static int hash(String value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                hash = 0;
+                for (byte b : toBytes(value)) {
+                    hash = 31 * hash + (b & 0xff);
+                }
+                return spread(hash);
+            }
+            hash = 31 * hash + c;
+        }
+        return spread(hash);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static byte[] toBytes(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Value longer than " + MAX_STRING_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
+    // ref layout: chunk (bits 38-62) | offset in chunk (bits 16-37) | length (bits 0-15)
+    private static long ref(int chunk, int offset, int length) {
+        return ((long) chunk << 38) | ((long) offset << 16) | length;
+    }
+
+    private static int chunk(long ref) {
+        return (int) (ref >>> 38);
+    }
+
+    private static int offset(long ref) {
+        return (int) (ref >>> 16) & (CHUNK_BYTES - 1);
+    }
+
+    private static int length(long ref) {
+        return (int) ref & MAX_STRING_BYTES;
+    }
+
+    /**
+     * Growable list of row numbers, kept in the order of the comparator once sorted.
+     */
+    private static final class RowList {
+
+        private int[] rows = new int[8];
+        private int size;
+
+        private void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size << 1);
+            }
+            rows[size++] = row;
+        }
+
+        /**
+         * Inserts after the rows that compare equal, so rows with the same name keep their insertion order.
+         */
+        private void insert(int row, IntBinaryOperator comparator) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparator.applyAsInt(rows[middle], row) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size << 1);
+            }
+            System.arraycopy(rows, low, rows, low + 1, size - low);
+            rows[low] = row;
+            size++;
+        }
+
+        private void sort(IntBinaryOperator comparator) {
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                boxed[i] = rows[i];
+            }
+            Arrays.sort(boxed, comparator::applyAsInt);
+            for (int i = 0; i < size; i++) {
+                rows[i] = boxed[i];
+            }
+        }
+
+        private void remove(int row) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == row) {
+                    System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.bright.ems.repository;
+
+import com.bright.ems.model.ChangeFeedLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+public interface ChangeFeedLeaseRepository extends JpaRepository<ChangeFeedLease, String> {
+
+    // Extends the lease if the owner holds it, takes it over if it has expired. The updated row stays
+    // locked until the caller's transaction ends, so no one else can take it over in the meantime.
+    @Modifying
+    @Query("update ChangeFeedLease l set l.owner = :owner, l.expiresAt = :expiresAt where l.name = :name and (l.owner = :owner or l.expiresAt < :now)")
+    int claim(String name, String owner, Instant now, Instant expiresAt);
+
+    @Modifying
+    @Query("update ChangeFeedLease l set l.expiresAt = :now where l.name = :name and l.owner = :owner")
+    int release(String name, String owner, Instant now);
+}
@@ -0,0 +1,9 @@
+package com.bright.ems.repository;
+
+import com.bright.ems.model.Employee;
+
+import java.util.List;
+
+public interface EmployeeBulkRepository {
+    void insertAll(List<Employee> employees, int batchSize);
+}
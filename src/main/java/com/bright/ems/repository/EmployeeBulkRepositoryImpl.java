@@ -0,0 +1,36 @@
+package com.bright.ems.repository;
+
+import com.bright.ems.model.Employee;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EmployeeBulkRepositoryImpl implements EmployeeBulkRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Persists new employees, flushing and clearing the persistence context every batchSize rows.
+     * Hibernate turns each flush into one JDBC batch (hibernate.jdbc.batch_size), and clearing keeps
+     * the context from growing with the size of the import.
+     *
+     * @param employees New, not yet persisted employees
+     * @param batchSize Rows per flush, expected to match hibernate.jdbc.batch_size
+     */
+    @Override
+    @Transactional
+    public void insertAll(List<Employee> employees, int batchSize) {
+        for (int i = 0; i < employees.size(); i++) {
+            entityManager.persist(employees.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,18 @@
+package com.bright.ems.repository;
+
+import com.bright.ems.model.EmployeeChangeCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface EmployeeChangeCountRepository extends JpaRepository<EmployeeChangeCount, Integer> {
+
+    @Modifying
+    @Query("update EmployeeChangeCount c set c.changes = c.changes + 1 where c.slot = :slot")
+    int increment(int slot);
+
+    @Transactional(readOnly = true)
+    @Query("select coalesce(sum(c.changes), 0) from EmployeeChangeCount c")
+    long total();
+}
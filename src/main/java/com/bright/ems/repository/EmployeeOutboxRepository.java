@@ -0,0 +1,11 @@
+package com.bright.ems.repository;
+
+import com.bright.ems.model.EmployeeOutboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface EmployeeOutboxRepository extends JpaRepository<EmployeeOutboxEntry, Long> {
+    List<EmployeeOutboxEntry> findByOrderByIdAsc(Limit limit);
+}
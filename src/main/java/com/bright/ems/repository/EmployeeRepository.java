@@ -1,14 +1,107 @@
 package com.bright.ems.repository;
 
+import com.bright.ems.dto.response.DepartmentStatsDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
 import com.bright.ems.model.Employee;
+import com.bright.ems.repository.projection.EmployeeRow;
+import com.bright.ems.repository.projection.EmployeeVersionRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeBulkRepository {
+    // Keeps IN lists well below the bind-parameter limits of H2 and PostgreSQL.
+    int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     List<Employee> findByFirstName(String firstName);
     List<Employee> findByLastName(String lastName);
     List<Employee> findByDepartmentCode(String departmentCode);
     Optional<Employee> findByEmail(String email);
+
+    // Closed projections: rows are mapped straight into DTOs, so no managed entities
+    // or dirty-checking snapshots are created on the read paths.
+    // Declared queries get no transaction of their own, so each is read-only: a caller without a
+    // transaction (the replica, cache and single-flight fallbacks) still lets ems.read-routing send
+    // it to a replica. Inside a caller's transaction they join it and run where it runs.
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.dto.response.EmployeeResponseDto(e.firstName, e.lastName, e.departmentCode, e.version) from Employee e")
+    List<EmployeeResponseDto> findAllResponseDtos();
+
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.dto.response.EmployeeResponseDto(e.firstName, e.lastName, e.departmentCode, e.version) from Employee e where e.firstName = :firstName")
+    List<EmployeeResponseDto> findResponseDtosByFirstName(String firstName);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.dto.response.EmployeeResponseDto(e.firstName, e.lastName, e.departmentCode, e.version) from Employee e where e.lastName = :lastName")
+    List<EmployeeResponseDto> findResponseDtosByLastName(String lastName);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.dto.response.EmployeeResponseDto(e.firstName, e.lastName, e.departmentCode, e.version) from Employee e where e.departmentCode = :departmentCode order by e.lastName, e.firstName")
+    List<EmployeeResponseDto> findResponseDtosByDepartmentCode(String departmentCode);
+
+    // Prefix patterns are lower-cased by the caller, with '!' escaping LIKE wildcards
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.dto.response.EmployeeResponseDto(e.firstName, e.lastName, e.departmentCode, e.version) from Employee e where e.firstNameLower like :pattern escape '!' order by e.firstNameLower")
+    List<EmployeeResponseDto> findResponseDtosByFirstNameLike(String pattern);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.dto.response.EmployeeResponseDto(e.firstName, e.lastName, e.departmentCode, e.version) from Employee e where e.lastNameLower like :pattern escape '!' order by e.lastNameLower")
+    List<EmployeeResponseDto> findResponseDtosByLastNameLike(String pattern);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.dto.response.EmployeeResponseDto(e.firstName, e.lastName, e.departmentCode, e.version) from Employee e where e.email = :email")
+    Optional<EmployeeResponseDto> findResponseDtoByEmail(String email);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.repository.projection.EmployeeRow(e.employeeId, e.firstName, e.lastName, e.email, e.departmentCode, e.version) from Employee e where e.employeeId > :employeeId order by e.employeeId")
+    List<EmployeeRow> findRowsAfter(Long employeeId, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    // Callers keep the list within IN_CLAUSE_CHUNK_SIZE
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.repository.projection.EmployeeRow(e.employeeId, e.firstName, e.lastName, e.email, e.departmentCode, e.version) from Employee e where e.email in :emails")
+    List<EmployeeRow> findRowsByEmailIn(Collection<String> emails);
+
+    boolean existsByEmail(String email);
+
+    @Transactional(readOnly = true)
+    @Query("select e.departmentCode from Employee e where e.email = :email")
+    Optional<String> findDepartmentCodeByEmail(String email);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.repository.projection.EmployeeVersionRow(e.employeeId, e.departmentCode, e.version) from Employee e where e.email = :email")
+    Optional<EmployeeVersionRow> findVersionRowByEmail(String email);
+
+    // Served from the leading column of idx_employees_department_last_first
+    @Transactional(readOnly = true)
+    @Query("select new com.bright.ems.dto.response.DepartmentStatsDto(e.departmentCode, count(e)) from Employee e where e.departmentCode is not null group by e.departmentCode")
+    List<DepartmentStatsDto> countByDepartmentCode();
+
+    // Single-statement writes keyed by email; they return the number of affected rows.
+    // A non-null version makes the write conditional on it (optimistic concurrency control),
+    // and every update bumps the version just like a managed entity flush would.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.firstName = :firstName, e.lastName = :lastName, e.departmentCode = :departmentCode, e.firstNameLower = :firstNameLower, e.lastNameLower = :lastNameLower, e.version = e.version + 1 where e.email = :email and (:version is null or e.version = :version)")
+    int updateByEmail(String email, String firstName, String lastName, String departmentCode, String firstNameLower, String lastNameLower, Long version);
+
+    // Null arguments leave the column unchanged
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.firstName = coalesce(:firstName, e.firstName), e.lastName = coalesce(:lastName, e.lastName), e.departmentCode = coalesce(:departmentCode, e.departmentCode), e.firstNameLower = coalesce(:firstNameLower, e.firstNameLower), e.lastNameLower = coalesce(:lastNameLower, e.lastNameLower), e.version = e.version + 1 where e.email = :email and (:version is null or e.version = :version)")
+    int patchByEmail(String email, String firstName, String lastName, String departmentCode, String firstNameLower, String lastNameLower, Long version);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.email = :email and (:version is null or e.version = :version)")
+    int deleteByEmail(String email, Long version);
 }
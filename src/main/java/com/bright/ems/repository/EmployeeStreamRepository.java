@@ -0,0 +1,96 @@
+package com.bright.ems.repository;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.repository.projection.EmployeeRow;
+import com.bright.ems.routing.PrimaryReads;
+import com.bright.ems.sharding.ShardRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access for reads that must not materialise the whole table,
+ * either as managed entities or as one big list. With sharding the table is walked one shard after
+ * the other, each in a read-only transaction of its own pool.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmployeeStreamRepository {
+
+    private static final String SELECT_ALL =
+            "select first_name, last_name, department_code from employees order by employee_id";
+    private static final String SELECT_ALL_ROWS =
+            "select employee_id, first_name, last_name, email, department_code, version from employees order by employee_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Optional<ShardRoutingDataSource> shardRoutingDataSource;
+
+    /**
+     * Walks the employees table through a forward-only cursor, handing each row to the consumer
+     * as soon as it is read. Must be called inside a transaction so drivers such as PostgreSQL
+     * honour the fetch size instead of buffering the full result.
+     *
+     * @param fetchSize Number of rows the driver fetches per round trip
+     * @param consumer  Receives one DTO per row, in employeeId order within each shard
+     */
+    public void streamAll(int fetchSize, Consumer<EmployeeResponseDto> consumer) {
+        stream(SELECT_ALL, fetchSize, resultSet -> consumer.accept(toResponseDto(resultSet)));
+    }
+
+    /**
+     * Like {@link #streamAll(int, Consumer)} but with the key and version columns, for loading copies of the table.
+     * Always reads the primary, since the copies then apply every change committed after the load.
+     *
+     * @param fetchSize Number of rows the driver fetches per round trip
+     * @param consumer  Receives one row at a time, in employeeId order within each shard
+     */
+    public void streamRows(int fetchSize, Consumer<EmployeeRow> consumer) {
+        PrimaryReads.run(() -> stream(SELECT_ALL_ROWS, fetchSize, resultSet -> consumer.accept(toRow(resultSet))));
+    }
+
+    private void stream(String sql, int fetchSize, RowCallbackHandler rowCallbackHandler) {
+        PreparedStatementCreator preparedStatementCreator = connection -> {
+            PreparedStatement preparedStatement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(fetchSize);
+            return preparedStatement;
+        };
+        if (shardRoutingDataSource.isEmpty()) {
+            jdbcTemplate.query(preparedStatementCreator, rowCallbackHandler);
+            return;
+        }
+        for (DataSource shardDataSource : shardRoutingDataSource.get().shardDataSources()) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(shardDataSource));
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> new JdbcTemplate(shardDataSource).query(preparedStatementCreator, rowCallbackHandler));
+        }
+    }
+
+    private static EmployeeResponseDto toResponseDto(ResultSet resultSet) throws SQLException {
+        return new EmployeeResponseDto(
+                resultSet.getString("first_name"),
+                resultSet.getString("last_name"),
+                resultSet.getString("department_code"));
+    }
+
+    private static EmployeeRow toRow(ResultSet resultSet) throws SQLException {
+        return new EmployeeRow(
+                resultSet.getLong("employee_id"),
+                resultSet.getString("first_name"),
+                resultSet.getString("last_name"),
+                resultSet.getString("email"),
+                resultSet.getString("department_code"),
+                resultSet.getObject("version", Long.class));
+    }
+}
@@ -0,0 +1,20 @@
+package com.bright.ems.repository.projection;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+
+/**
+ * Read-only projection of an employees row, for read paths that need the key columns
+ * next to the response fields without loading a managed {@link com.bright.ems.model.Employee}.
+ */
+public record EmployeeRow(
+        Long employeeId,
+        String firstName,
+        String lastName,
+        String email,
+        String departmentCode,
+        Long version
+) {
+    public EmployeeResponseDto toResponseDto() {
+        return new EmployeeResponseDto(firstName, lastName, departmentCode, version);
+    }
+}
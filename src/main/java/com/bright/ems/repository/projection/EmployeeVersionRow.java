@@ -0,0 +1,12 @@
+package com.bright.ems.repository.projection;
+
+/**
+ * Key, department and version of an employees row, read ahead of a write so that the write can be
+ * made conditional on the version and its event can say which row it changed.
+ */
+public record EmployeeVersionRow(
+        Long employeeId,
+        String departmentCode,
+        Long version
+) {
+}
@@ -0,0 +1,51 @@
+package com.bright.ems.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread's reads as needing the primary, read by {@link ReplicaDataSource} when a
+ * read-only transaction runs its first statement. Set for requests that must see their client's own
+ * writes, and by loaders whose result has to match the events that follow it.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static boolean pinned() {
+        return PINNED.get() != null;
+    }
+
+    /**
+     * @return Whether the thread was pinned already, to pass to {@link #restore(boolean)}
+     */
+    public static boolean pin() {
+        boolean previous = pinned();
+        PINNED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(boolean previous) {
+        if (!previous) {
+            PINNED.remove();
+        }
+    }
+
+    public static <T> T call(Supplier<T> work) {
+        boolean previous = pin();
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.bright.ems.routing;
+
+/**
+ * Keeps the current thread's reads on one database for a while, read by {@link ReplicaDataSource}:
+ * the first read-only connection is routed as usual and every later one goes to the same replica,
+ * or to the primary once a read has gone there. Replicas only move forward, so no read in the scope
+ * sees an older state than the reads before it. Set for responses built from several reads that
+ * must agree, such as a collection ETag and the rows under it.
+ */
+public final class ReadAffinity {
+
+    /**
+     * Route of a scope whose reads have not taken a connection yet.
+     */
+    public static final String UNDECIDED = "undecided";
+
+    private static final ThreadLocal<String[]> ROUTE = new ThreadLocal<>();
+
+    private ReadAffinity() {
+    }
+
+    /**
+     * @return The database the thread's reads are kept on, {@link #UNDECIDED} before the first read of the scope, null outside one
+     */
+    public static String route() {
+        String[] route = ROUTE.get();
+        return route == null ? null : route[0];
+    }
+
+    /**
+     * @return Whether the thread was in a scope already, to pass to {@link #restore(boolean)}
+     */
+    public static boolean stick() {
+        if (ROUTE.get() != null) {
+            return true;
+        }
+        ROUTE.set(new String[]{UNDECIDED});
+        return false;
+    }
+
+    public static void restore(boolean previous) {
+        if (!previous) {
+            ROUTE.remove();
+        }
+    }
+
+    /**
+     * Keeps the scope's reads on the route from now on; the primary is kept once reached, as it is ahead of every replica.
+     */
+    static void keep(String route) {
+        String[] current = ROUTE.get();
+        if (current != null && !ReplicaDataSource.PRIMARY.equals(current[0])) {
+            current[0] = route;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bright.ems.routing;
+
+import com.bright.ems.config.ReadRoutingProperties;
+import com.bright.ems.event.EmployeeChangedEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Lets clients read their own writes while the replicas catch up. Every request that may write
+ * reads from the primary, except the POST endpoints listed as read-only (the batch lookup). With
+ * client stickiness it also gets a cookie holding the time until which that client's reads stay on
+ * the primary; with global stickiness every committed change sends all reads to the primary for
+ * the sticky window instead.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "EMS_PRIMARY_UNTIL";
+
+    private final ReadRoutingProperties readRoutingProperties;
+    private final ReplicaDataSource replicaDataSource;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public ReadYourWritesFilter(ReadRoutingProperties readRoutingProperties, ReplicaDataSource replicaDataSource) {
+        this.readRoutingProperties = readRoutingProperties;
+        this.replicaDataSource = replicaDataSource;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (readRoutingProperties.stickiness() == ReadRoutingProperties.Stickiness.GLOBAL) {
+            replicaDataSource.pinPrimaryFor(readRoutingProperties.stickyWindow());
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())
+                && !HttpMethod.OPTIONS.matches(request.getMethod()) && !readOnly(request);
+        boolean clientSticky = readRoutingProperties.stickiness() == ReadRoutingProperties.Stickiness.CLIENT;
+        if (write && clientSticky) {
+            long window = readRoutingProperties.stickyWindow().toMillis();
+            Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + window));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.ceilDiv(window, 1000));
+            response.addCookie(cookie);
+        }
+        if (!write && !(clientSticky && stickyCookie(request))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean previous = PrimaryReads.pin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryReads.restore(previous);
+        }
+    }
+
+    private boolean readOnly(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return readRoutingProperties.readOnlyPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private static boolean stickyCookie(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
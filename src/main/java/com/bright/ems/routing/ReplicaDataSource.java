@@ -0,0 +1,194 @@
+package com.bright.ems.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SequencedMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions: each comes from the next healthy replica in turn, or
+ * from the primary when the reads are pinned to it ({@link PrimaryReads}, or every read for a while
+ * after a write with global stickiness) or no replica can hand one out. A replica that fails to
+ * hand out a connection is skipped until {@link #checkHealth(Duration)} finds it answering again.
+ * A replica whose pool is merely exhausted stays in use: the read moves on to the next replica, and
+ * only a failure to connect or to validate takes a replica out.
+ * <p>
+ * Within a {@link ReadAffinity} scope the first connection is routed as above and later ones come
+ * from the same replica; if it cannot hand one out, they come from the primary for the rest of the
+ * scope.
+ * <p>
+ * Connections are counted in {@code ems.read-routing.connections}, tagged by route (the replica's
+ * name or primary) and by reason: balanced, sticky or fallback. {@code ems.read-routing.replica.healthy}
+ * is 1 for every replica currently in use.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter sticky;
+    private final Counter fallback;
+    private volatile long primaryUntil = System.nanoTime();
+
+    private record Replica(String name, DataSource dataSource, AtomicBoolean healthy, Counter balanced) {
+    }
+
+    /**
+     * @param replicas Replica pools by name, in the order they are used
+     */
+    public ReplicaDataSource(DataSource primary, SequencedMap<String, DataSource> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        List<Replica> namedReplicas = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            Replica replica = new Replica(entry.getKey(), entry.getValue(), new AtomicBoolean(true),
+                    connections(meterRegistry, entry.getKey(), "balanced"));
+            Gauge.builder("ems.read-routing.replica.healthy", replica.healthy(), healthy -> healthy.get() ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+            namedReplicas.add(replica);
+        }
+        this.replicas = List.copyOf(namedReplicas);
+        this.sticky = connections(meterRegistry, PRIMARY, "sticky");
+        this.fallback = connections(meterRegistry, PRIMARY, "fallback");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String route = ReadAffinity.route();
+        if (PrimaryReads.pinned() || System.nanoTime() - primaryUntil < 0 || PRIMARY.equals(route)) {
+            sticky.increment();
+            ReadAffinity.keep(PRIMARY);
+            return primary.getConnection();
+        }
+        Replica kept = replica(route);
+        if (kept != null) {
+            Connection connection = connect(kept);
+            if (connection != null) {
+                return connection;
+            }
+        } else {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                Connection connection = connect(replica);
+                if (connection != null) {
+                    ReadAffinity.keep(replica.name());
+                    return connection;
+                }
+            }
+        }
+        fallback.increment();
+        ReadAffinity.keep(PRIMARY);
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Replica connections use the configured credentials");
+    }
+
+    /**
+     * Sends every read to the primary for a while, e.g. until a write has reached the replicas.
+     */
+    public void pinPrimaryFor(Duration window) {
+        long until = System.nanoTime() + window.toNanos();
+        if (until - primaryUntil > 0) {
+            primaryUntil = until;
+        }
+    }
+
+    /**
+     * Asks every replica for a valid connection and takes it out of, or back into, use accordingly.
+     */
+    public void checkHealth(Duration timeout) {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection()) {
+                if (!connection.isValid(Math.max(1, (int) timeout.toSeconds()))) {
+                    markUnhealthy(replica, null);
+                } else if (replica.healthy().compareAndSet(false, true)) {
+                    log.info("Read replica {} is back in use", replica.name());
+                }
+            } catch (SQLException | RuntimeException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close read replica {}", replica.name(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return A connection of the replica, or null if it is out of use or cannot hand one out
+     */
+    private Connection connect(Replica replica) {
+        if (!replica.healthy().get()) {
+            return null;
+        }
+        try {
+            Connection connection = replica.dataSource().getConnection();
+            replica.balanced().increment();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            if (!poolExhausted(e)) {
+                markUnhealthy(replica, e);
+            }
+            return null;
+        }
+    }
+
+    private Replica replica(String name) {
+        for (Replica replica : replicas) {
+            if (replica.name().equals(name)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hikari reports a timeout waiting for a pooled connection as SQLTransientConnectionException, with
+     * the last connect failure as the cause if it could not open one; without a cause every connection
+     * was simply busy.
+     */
+    private static boolean poolExhausted(Exception e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    private void markUnhealthy(Replica replica, Exception cause) {
+        if (replica.healthy().compareAndSet(true, false)) {
+            log.warn("Read replica {} failed, reading elsewhere until it answers a health check", replica.name(), cause);
+        }
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String route, String reason) {
+        return Counter.builder("ems.read-routing.connections")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.bright.ems.routing;
+
+import com.bright.ems.config.ReadRoutingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Checks every read replica each ems.read-routing.health-check-interval, starting right after startup.
+ */
+@RequiredArgsConstructor
+public class ReplicaHealthChecker {
+
+    private final ReplicaDataSource replicaDataSource;
+    private final ReadRoutingProperties readRoutingProperties;
+
+    @Scheduled(fixedDelayString = "${ems.read-routing.health-check-interval:5s}")
+    public void checkReplicas() {
+        replicaDataSource.checkHealth(readRoutingProperties.healthCheckTimeout());
+    }
+}
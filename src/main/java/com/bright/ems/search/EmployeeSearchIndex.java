@@ -0,0 +1,124 @@
+package com.bright.ems.search;
+
+import com.bright.ems.config.PaginationProperties;
+import com.bright.ems.config.SearchProperties;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.repository.EmployeeStreamRepository;
+import com.bright.ems.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps a {@link TrigramIndex} of every employee for type-ahead search. The index is built once
+ * the application is ready and every committed {@link EmployeeChangedEvent} is applied to it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmployeeSearchIndex {
+
+    private static final int MINIMUM_QUERY_LENGTH = 2;
+
+    private final EmployeeStreamRepository employeeStreamRepository;
+    private final SearchProperties searchProperties;
+    private final PaginationProperties paginationProperties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TrigramIndex trigramIndex;
+    private volatile boolean ready;
+
+    /**
+     * Builds the index while holding the write lock, so a change committed after the load query
+     * started waits for the build and is then applied on top of it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        if (!searchProperties.enabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            TrigramIndex buildingIndex = new TrigramIndex();
+            trigramIndex = buildingIndex;
+            employeeStreamRepository.streamRows(paginationProperties.fetchSize(), employeeRow -> buildingIndex.put(
+                    employeeRow.employeeId(), employeeRow.email(), employeeRow.firstName(), employeeRow.lastName(),
+                    employeeRow.departmentCode(), employeeRow.version() == null ? 0L : employeeRow.version()));
+            ready = true;
+            log.info("Indexed {} employees for search in {} ms", buildingIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Could not build the employee search index", e);
+            trigramIndex = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed change. Changes seen before the build started are skipped, the build reads them from the table.
+     * Deletes leave a tombstone in the index, so an update that committed before a delete but arrives after it stays out.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (!searchProperties.enabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (trigramIndex == null) {
+                return;
+            }
+            if (event.type() == EmployeeChangedEvent.Type.DELETED) {
+                trigramIndex.remove(event.email(),
+                        event.employeeId() == null ? TrigramIndex.NO_ID : event.employeeId(),
+                        event.deletedVersion() == null ? 0L : event.deletedVersion());
+                return;
+            }
+            EmployeeResponseDto employee = event.employee();
+            trigramIndex.put(event.employeeId() == null ? TrigramIndex.NO_ID : event.employeeId(), event.email(), employee.firstName(), employee.lastName(), employee.departmentCode(),
+                    employee.version() == null ? 0L : employee.version());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param query  Free text of at least two characters
+     * @param limit  Requested number of hits, clamped to the configured limits
+     * @param cursor Opaque token from a previous page, or null for the first page
+     * @return The best hits after the cursor and the cursor of the next page, null when this is the last page
+     * @throws ResponseStatusException with 400 for a too short query, 503 while the index is not built
+     */
+    public EmployeePageResponseDto search(String query, Integer limit, String cursor) {
+        if (query == null || query.strip().length() < MINIMUM_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must have at least " + MINIMUM_QUERY_LENGTH + " characters");
+        }
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is not available");
+        }
+        int hitLimit = limit == null
+                ? searchProperties.defaultLimit()
+                : Math.clamp(limit, 1, searchProperties.maxLimit());
+        long afterKey = cursor == null ? TrigramIndex.FIRST_PAGE : CursorCodec.decode(cursor);
+        TrigramIndex.Hits hits;
+        lock.readLock().lock();
+        try {
+            hits = trigramIndex.search(query, hitLimit, afterKey);
+        } finally {
+            lock.readLock().unlock();
+        }
+        String nextCursor = hits.nextKey() == TrigramIndex.NO_NEXT_PAGE ? null : CursorCodec.encode(hits.nextKey());
+        return new EmployeePageResponseDto(hits.employees(), nextCursor);
+    }
+}
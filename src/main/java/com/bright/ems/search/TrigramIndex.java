@@ -0,0 +1,380 @@
+package com.bright.ems.search;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Inverted index from character trigrams to the employees whose first name, last name, email or
+ * department contain them. Every word is indexed with a leading space, so " jo" marks a word that
+ * starts with "jo". A query matches an employee sharing at least half of its trigrams, which
+ * tolerates a typo or two, and hits rank by the number of shared trigrams, with employees that
+ * have a field starting with every query word first.
+ * <p>
+ * Posting lists are sorted int arrays of document ids, so a query is a k-way merge over the lists
+ * of its trigrams and keeps only the best {@code limit + 1} hits in a heap of packed {@code long}
+ * rank keys. A rank key doubles as the keyset position of the next page. Not thread-safe,
+ * {@link EmployeeSearchIndex} guards it with a read-write lock.
+ * <p>
+ * Every put takes the next document id, so postings only ever grow at their end. A replaced or
+ * removed document is left in its postings as a dead id that searches skip; once dead documents
+ * outnumber the live ones (and there are at least {@value #COMPACT_MINIMUM} of them) the documents
+ * are renumbered and the postings rebuilt without them. A cursor handed out before a compaction
+ * may then repeat or skip a few hits of equal score.
+ * <p>
+ * A removal leaves a tombstone with the id and version of the employee it removed, like the replica
+ * does. Changes can arrive out of commit order, so a put of that employee at or below the removed
+ * version is refused instead of bringing it back into the results; a put with another id is a new
+ * employee with the same email and clears the tombstone. Tombstones go away with the next build.
+ */
+public class TrigramIndex {
+
+    /**
+     * Rank key to search from when there is no cursor; every real key is smaller.
+     */
+    public static final long FIRST_PAGE = Long.MAX_VALUE;
+
+    /**
+     * Next-page key of the last page.
+     */
+    public static final long NO_NEXT_PAGE = -1L;
+
+    /**
+     * Employee id of a put from an update, which does not know the id.
+     */
+    public static final long NO_ID = 0L;
+
+    private static final double MINIMUM_MATCH_RATIO = 0.5;
+    private static final int COMPACT_MINIMUM = 1024;
+
+    private final Map<String, Integer> documentIdsByEmail = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Tombstone> tombstones = new HashMap<>();
+    private Map<Long, Postings> postings = new HashMap<>();
+    private int deadDocuments;
+
+    /**
+     * @param employees Hits of one page, best first
+     * @param nextKey   Rank key to pass for the next page, or {@link #NO_NEXT_PAGE}
+     */
+    public record Hits(List<EmployeeResponseDto> employees, long nextKey) {
+    }
+
+    private record Tombstone(long employeeId, long version) {
+    }
+
+    private record Document(long employeeId, String email, String firstName, String lastName, String departmentCode, long version) {
+
+        private long[] trigrams() {
+            return TrigramIndex.trigrams(firstName, lastName, email, departmentCode);
+        }
+    }
+
+    /**
+     * Indexes the employee, replacing the document with the same email unless the indexed version is
+     * newer. Does nothing for an employee removed at this version or a later one.
+     *
+     * @param employeeId Id of the employee, or {@link #NO_ID} to keep the indexed one
+     */
+    public void put(long employeeId, String email, String firstName, String lastName, String departmentCode, long version) {
+        if (buried(employeeId, email, version)) {
+            return;
+        }
+        Integer previousId = documentIdsByEmail.get(email);
+        if (previousId != null) {
+            Document previous = documents.get(previousId);
+            if (version < previous.version()) {
+                return;
+            }
+            if (employeeId == NO_ID) {
+                employeeId = previous.employeeId();
+            }
+            kill(previousId);
+        }
+        Document document = new Document(employeeId, email, firstName, lastName, departmentCode, version);
+        int documentId = documents.size();
+        documents.add(document);
+        documentIdsByEmail.put(email, documentId);
+        addPostings(documentId, document);
+        compactIfSparse();
+    }
+
+    /**
+     * Removes the employee and leaves a tombstone for it. An indexed document of another employee with
+     * this email, or at a newer version, was put after the removal and is kept.
+     *
+     * @param employeeId Id of the removed employee, or {@link #NO_ID} if unknown
+     * @param version    Version of the removed row
+     */
+    public void remove(String email, long employeeId, long version) {
+        Integer documentId = documentIdsByEmail.get(email);
+        if (documentId != null) {
+            Document document = documents.get(documentId);
+            if (document.version() > version || !sameEmployee(document.employeeId(), employeeId)) {
+                return;
+            }
+        }
+        Tombstone tombstone = tombstones.get(email);
+        if (tombstone == null || version > tombstone.version() || !sameEmployee(tombstone.employeeId(), employeeId)) {
+            tombstones.put(email, new Tombstone(employeeId, version));
+        }
+        if (documentId != null) {
+            documentIdsByEmail.remove(email);
+            kill(documentId);
+            compactIfSparse();
+        }
+    }
+
+    public int size() {
+        return documentIdsByEmail.size();
+    }
+
+    /**
+     * @param query   Free text, matched case-insensitively against every indexed field
+     * @param limit   Maximum number of hits to return
+     * @param afterKey Rank key of the last hit already returned, or {@link #FIRST_PAGE}
+     * @return The next page of hits
+     */
+    public Hits search(String query, int limit, long afterKey) {
+        long[] queryTrigrams = trigrams(query);
+        List<Postings> lists = new ArrayList<>(queryTrigrams.length);
+        for (long trigram : queryTrigrams) {
+            Postings list = postings.get(trigram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        int minimumMatches = Math.max(1, (int) Math.ceil(queryTrigrams.length * MINIMUM_MATCH_RATIO));
+        if (lists.size() < minimumMatches) {
+            return new Hits(new ArrayList<>(), NO_NEXT_PAGE);
+        }
+        String[] words = words(query);
+        int[] positions = new int[lists.size()];
+        long[] heap = new long[limit + 1];
+        int heapSize = 0;
+        while (true) {
+            int documentId = Integer.MAX_VALUE;
+            for (int i = 0; i < positions.length; i++) {
+                Postings list = lists.get(i);
+                if (positions[i] < list.size) {
+                    documentId = Math.min(documentId, list.documentIds[positions[i]]);
+                }
+            }
+            if (documentId == Integer.MAX_VALUE) {
+                break;
+            }
+            int matches = 0;
+            for (int i = 0; i < positions.length; i++) {
+                Postings list = lists.get(i);
+                if (positions[i] < list.size && list.documentIds[positions[i]] == documentId) {
+                    positions[i]++;
+                    matches++;
+                }
+            }
+            Document document = documents.get(documentId);
+            if (matches < minimumMatches || document == null) {
+                continue;
+            }
+            int score = startsWithEveryWord(document, words) ? matches + queryTrigrams.length : matches;
+            long key = ((long) score << 32) | (Integer.MAX_VALUE - documentId);
+            if (key >= afterKey) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = key;
+                siftUp(heap, heapSize++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+        long[] keys = Arrays.copyOf(heap, heapSize);
+        Arrays.sort(keys);
+        int hitCount = Math.min(heapSize, limit);
+        List<EmployeeResponseDto> employees = new ArrayList<>(hitCount);
+        for (int i = 0; i < hitCount; i++) {
+            long key = keys[keys.length - 1 - i];
+            Document document = documents.get(Integer.MAX_VALUE - (int) key);
+            employees.add(new EmployeeResponseDto(document.firstName(), document.lastName(), document.departmentCode(), document.version()));
+        }
+        long nextKey = heapSize > limit ? keys[keys.length - hitCount] : NO_NEXT_PAGE;
+        return new Hits(employees, nextKey);
+    }
+
+    /**
+     * A put is buried by a tombstone of the same employee at its version or a later one. Any other put
+     * belongs to an employee created after the removal, so the tombstone is dropped.
+     */
+    private boolean buried(long employeeId, String email, long version) {
+        Tombstone tombstone = tombstones.get(email);
+        if (tombstone == null) {
+            return false;
+        }
+        if (sameEmployee(tombstone.employeeId(), employeeId) && version <= tombstone.version()) {
+            return true;
+        }
+        tombstones.remove(email);
+        return false;
+    }
+
+    private static boolean sameEmployee(long employeeId, long otherEmployeeId) {
+        return employeeId == NO_ID || otherEmployeeId == NO_ID || employeeId == otherEmployeeId;
+    }
+
+    private void addPostings(int documentId, Document document) {
+        for (long trigram : document.trigrams()) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(documentId);
+        }
+    }
+
+    private void kill(int documentId) {
+        documents.set(documentId, null);
+        deadDocuments++;
+    }
+
+    /**
+     * Renumbers the live documents in their current order and rebuilds the postings from them.
+     */
+    private void compactIfSparse() {
+        if (deadDocuments < COMPACT_MINIMUM || deadDocuments <= documents.size() - deadDocuments) {
+            return;
+        }
+        List<Document> liveDocuments = new ArrayList<>(documents.size() - deadDocuments);
+        for (Document document : documents) {
+            if (document != null) {
+                liveDocuments.add(document);
+            }
+        }
+        documents.clear();
+        postings = new HashMap<>();
+        deadDocuments = 0;
+        for (Document document : liveDocuments) {
+            int documentId = documents.size();
+            documents.add(document);
+            documentIdsByEmail.put(document.email(), documentId);
+            addPostings(documentId, document);
+        }
+    }
+
+    /**
+     * @return Live and dead documents, for tests
+     */
+    int documentSlots() {
+        return documents.size();
+    }
+
+    private static boolean startsWithEveryWord(Document document, String[] words) {
+        for (String word : words) {
+            if (!startsWith(document.firstName(), word) && !startsWith(document.lastName(), word)
+                    && !startsWith(document.email(), word) && !startsWith(document.departmentCode(), word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(String value, String word) {
+        return value != null && value.regionMatches(true, 0, word, 0, word.length());
+    }
+
+    /**
+     * Sorted, distinct trigrams of every word of the values, each word prefixed with a space and
+     * padded with spaces to at least three characters.
+     */
+    static long[] trigrams(String... values) {
+        long[] trigrams = new long[16];
+        int count = 0;
+        for (String value : values) {
+            for (String word : words(value)) {
+                String padded = word.length() < 2 ? " " + word + " " : " " + word;
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    if (count == trigrams.length) {
+                        trigrams = Arrays.copyOf(trigrams, count << 1);
+                    }
+                    trigrams[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+                }
+            }
+        }
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    /**
+     * Lower-cased runs of letters and digits.
+     */
+    private static String[] words(String value) {
+        if (value == null) {
+            return new String[0];
+        }
+        return Arrays.stream(value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, smallest, index);
+            index = smallest;
+        }
+    }
+
+    private static void swap(long[] heap, int i, int j) {
+        long value = heap[i];
+        heap[i] = heap[j];
+        heap[j] = value;
+    }
+
+    /**
+     * Sorted document ids containing one trigram, live or dead. Ids arrive in increasing order.
+     */
+    private static final class Postings {
+
+        private int[] documentIds = new int[4];
+        private int size;
+
+        private void add(int documentId) {
+            if (size > 0 && documentIds[size - 1] == documentId) {
+                return;
+            }
+            if (size == documentIds.length) {
+                documentIds = Arrays.copyOf(documentIds, size << 1);
+            }
+            documentIds[size++] = documentId;
+        }
+    }
+}
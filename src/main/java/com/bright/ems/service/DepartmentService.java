@@ -0,0 +1,10 @@
+package com.bright.ems.service;
+
+import com.bright.ems.dto.response.DepartmentStatsDto;
+
+import java.util.List;
+
+public interface DepartmentService {
+    List<DepartmentStatsDto> getDepartmentStats();
+    void reconcileHeadcounts();
+}
@@ -0,0 +1,10 @@
+package com.bright.ems.service;
+
+import com.bright.ems.dto.response.EmployeeChangesResponseDto;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface EmployeeChangeService {
+    CompletableFuture<EmployeeChangesResponseDto> getChanges(long since, Integer limit, Duration wait);
+}
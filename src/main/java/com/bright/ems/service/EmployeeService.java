@@ -1,19 +1,30 @@
 package com.bright.ems.service;
 
 import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.dto.response.EmployeeLookupResponseDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
 import com.bright.ems.dto.response.EmployeeResponseDto;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
     Optional<EmployeeResponseDto> createEmployee(EmployeeRequestDto employeeRequestDto);
+    List<BulkEmployeeResultDto> createEmployees(List<EmployeeRequestDto> employeeRequestDtos);
     List<EmployeeResponseDto> getAllEmployees();
+    EmployeePageResponseDto getEmployeePage(String cursor, Integer size);
+    void streamAllEmployees(Consumer<EmployeeResponseDto> consumer);
     List<EmployeeResponseDto> findByFirstName(String firstName);
     List<EmployeeResponseDto> findByLastName(String lastName);
     List<EmployeeResponseDto> findByDepartmentCode(String departmentCode);
+    List<EmployeeResponseDto> findByFirstNamePrefix(String prefix);
+    List<EmployeeResponseDto> findByLastNamePrefix(String prefix);
     Optional<EmployeeResponseDto> findByEmail(String email);
-    Optional<EmployeeResponseDto> updateEmployee(String email, EmployeeRequestDto employeeRequestDto);
-    Optional<EmployeeResponseDto> updateEmployeePartially(String email, EmployeeRequestDto employeeRequestDto);
-    void deleteEmployee(String email);
+    EmployeeLookupResponseDto lookupEmployees(List<String> emails);
+    EmployeePageResponseDto searchEmployees(String query, Integer limit, String cursor);
+    Optional<EmployeeResponseDto> updateEmployee(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion);
+    Optional<EmployeeResponseDto> updateEmployeePartially(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion);
+    void deleteEmployee(String email, Long expectedVersion);
 }
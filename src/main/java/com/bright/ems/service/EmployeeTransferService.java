@@ -0,0 +1,12 @@
+package com.bright.ems.service;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.ImportResultDto;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface EmployeeTransferService {
+    long exportEmployees(Consumer<EmployeeRequestDto> consumer);
+    ImportResultDto importEmployees(Iterator<EmployeeRequestDto> employeeRequestDtos);
+}
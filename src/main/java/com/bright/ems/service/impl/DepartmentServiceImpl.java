@@ -0,0 +1,126 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.dto.response.DepartmentStatsDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.repository.EmployeeRepository;
+import com.bright.ems.routing.PrimaryReads;
+import com.bright.ems.service.DepartmentService;
+import com.bright.ems.sharding.Shards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a headcount per department in {@link LongAdder}s, moved by every committed employee change,
+ * so the stats never scan the employees table. Writers only ever touch the striped cells of one or
+ * two adders and never take a lock. A GROUP BY over the table seeds the counters at startup and
+ * periodically corrects any drift left by changes racing the reconciliation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DepartmentServiceImpl implements DepartmentService {
+
+    private final EmployeeRepository employeeRepository;
+    private final Shards shards;
+    private final Map<String, LongAdder> headcounts = new ConcurrentHashMap<>();
+
+    /**
+     * @return Departments with at least one employee and their headcount, ordered by department code
+     */
+    @Override
+    public List<DepartmentStatsDto> getDepartmentStats() {
+        List<DepartmentStatsDto> departmentStatsDtos = new ArrayList<>(headcounts.size());
+        headcounts.forEach((departmentCode, headcount) -> {
+            long sum = headcount.sum();
+            if (sum > 0) {
+                departmentStatsDtos.add(new DepartmentStatsDto(departmentCode, sum));
+            }
+        });
+        departmentStatsDtos.sort(Comparator.comparing(DepartmentStatsDto::departmentCode));
+        return departmentStatsDtos;
+    }
+
+    /**
+     * Snapshots the counters, runs the GROUP BY and adds the difference between the table's counts
+     * and the snapshots to the counters. Measuring the drift against the snapshot instead of the live
+     * sum keeps the changes that land while the query runs; a change committed just before the query
+     * whose event arrives after the snapshot is counted twice until the next pass. With sharding every
+     * shard is counted and a department spread over several shards gets the sum. The counts are read
+     * from the primary, which the counters' events come from.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ems.departments.reconcile-interval:5m}", fixedDelayString = "${ems.departments.reconcile-interval:5m}")
+    @Transactional(readOnly = true)
+    public void reconcileHeadcounts() {
+        Map<String, Long> snapshots = new HashMap<>();
+        headcounts.forEach((departmentCode, headcount) -> snapshots.put(departmentCode, headcount.sum()));
+        Map<String, Long> actual = new HashMap<>();
+        for (List<DepartmentStatsDto> shardCounts : shards.onEvery(shard -> PrimaryReads.call(employeeRepository::countByDepartmentCode))) {
+            for (DepartmentStatsDto departmentStatsDto : shardCounts) {
+                actual.merge(departmentStatsDto.departmentCode(), departmentStatsDto.headcount(), Long::sum);
+            }
+        }
+        for (String departmentCode : snapshots.keySet()) {
+            actual.putIfAbsent(departmentCode, 0L);
+        }
+        int corrected = 0;
+        for (Map.Entry<String, Long> entry : actual.entrySet()) {
+            long drift = entry.getValue() - snapshots.getOrDefault(entry.getKey(), 0L);
+            if (drift != 0) {
+                headcount(entry.getKey()).add(drift);
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            log.info("Reconciled the headcount of {} departments", corrected);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        String departmentCode = event.employee() == null ? null : event.employee().departmentCode();
+        switch (event.type()) {
+            case CREATED -> increment(departmentCode);
+            case UPDATED -> {
+                if (!Objects.equals(event.previousDepartmentCode(), departmentCode)) {
+                    decrement(event.previousDepartmentCode());
+                    increment(departmentCode);
+                }
+            }
+            case DELETED -> decrement(event.previousDepartmentCode());
+        }
+    }
+
+    private void increment(String departmentCode) {
+        if (departmentCode != null) {
+            headcount(departmentCode).increment();
+        }
+    }
+
+    private void decrement(String departmentCode) {
+        if (departmentCode != null) {
+            headcount(departmentCode).decrement();
+        }
+    }
+
+    private LongAdder headcount(String departmentCode) {
+        LongAdder headcount = headcounts.get(departmentCode);
+        return headcount != null ? headcount : headcounts.computeIfAbsent(departmentCode, key -> new LongAdder());
+    }
+}
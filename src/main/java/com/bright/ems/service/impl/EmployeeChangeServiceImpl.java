@@ -0,0 +1,101 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.changes.EmployeeChangeLog;
+import com.bright.ems.config.ChangeFeedProperties;
+import com.bright.ems.dto.response.EmployeeChangeDto;
+import com.bright.ems.dto.response.EmployeeChangesResponseDto;
+import com.bright.ems.event.EmployeeChangesAppendedEvent;
+import com.bright.ems.service.EmployeeChangeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the change log to consumers that track their own offset. A request with nothing new to
+ * return parks as a waiter, holding neither a thread nor a connection, until the relay appends
+ * the next batch or the wait runs out.
+ */
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "ems.changes", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class EmployeeChangeServiceImpl implements EmployeeChangeService {
+
+    private final EmployeeChangeLog employeeChangeLog;
+    private final ChangeFeedProperties changeFeedProperties;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    private record Waiter(long since, int limit, CompletableFuture<EmployeeChangesResponseDto> result) {
+    }
+
+    /**
+     * @param since Offset of the last change the consumer has seen, 0 for the start of the log
+     * @param limit Maximum number of changes, defaults to ems.changes.default-limit
+     * @param wait  How long to wait for a change when there is none yet, capped at ems.changes.max-wait
+     * @return The changes after the offset, empty if none arrived within the wait
+     * @throws ResponseStatusException with 400 for a negative offset or a limit out of range,
+     *                                 410 if changes after the offset were already deleted or the offset is unknown
+     */
+    @Override
+    public CompletableFuture<EmployeeChangesResponseDto> getChanges(long since, Integer limit, Duration wait) {
+        int changesLimit = limit == null ? changeFeedProperties.defaultLimit() : limit;
+        if (since < 0 || changesLimit < 1 || changesLimit > changeFeedProperties.maxLimit()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must not be negative and limit must be between 1 and " + changeFeedProperties.maxLimit());
+        }
+        // An offset past the end comes from a log that has since been recreated
+        if (since < employeeChangeLog.firstOffset() - 1 || since > employeeChangeLog.lastOffset()) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Changes after offset " + since + " are no longer retained, reload the employees and follow from offset " + employeeChangeLog.lastOffset());
+        }
+        EmployeeChangesResponseDto changes = read(since, changesLimit);
+        if (!changes.changes().isEmpty() || wait == null || wait.isZero() || wait.isNegative()) {
+            return CompletableFuture.completedFuture(changes);
+        }
+        Waiter waiter = new Waiter(since, changesLimit, new CompletableFuture<>());
+        waiters.add(waiter);
+        // An append between the read above and registering the waiter would otherwise go unnoticed
+        if (employeeChangeLog.lastOffset() > since) {
+            complete(waiter);
+        }
+        long waitMillis = Math.min(wait.toMillis(), changeFeedProperties.maxWait().toMillis());
+        return waiter.result()
+                .completeOnTimeout(changes, waitMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((result, failure) -> waiters.remove(waiter));
+    }
+
+    @EventListener
+    public void onChangesAppended(EmployeeChangesAppendedEvent event) {
+        for (Waiter waiter : waiters) {
+            if (waiter.since() < event.lastOffset()) {
+                complete(waiter);
+            }
+        }
+    }
+
+    private void complete(Waiter waiter) {
+        if (waiter.result().isDone()) {
+            return;
+        }
+        try {
+            waiter.result().complete(read(waiter.since(), waiter.limit()));
+        } catch (RuntimeException e) {
+            waiter.result().completeExceptionally(e);
+        }
+    }
+
+    private EmployeeChangesResponseDto read(long since, int limit) {
+        List<EmployeeChangeDto> changes = employeeChangeLog.read(since, limit);
+        long nextOffset = changes.isEmpty() ? since : changes.getLast().offset();
+        return new EmployeeChangesResponseDto(changes, nextOffset);
+    }
+}
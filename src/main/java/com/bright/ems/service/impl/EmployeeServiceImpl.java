@@ -1,22 +1,68 @@
 package com.bright.ems.service.impl;
 
+import com.bright.ems.config.BulkProperties;
+import com.bright.ems.config.CacheConfig;
+import com.bright.ems.config.PaginationProperties;
 import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.dto.response.EmployeeLookupResponseDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
 import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
 import com.bright.ems.model.Employee;
+import com.bright.ems.replica.EmployeeReplica;
 import com.bright.ems.repository.EmployeeRepository;
+import com.bright.ems.repository.EmployeeStreamRepository;
+import com.bright.ems.repository.projection.EmployeeRow;
+import com.bright.ems.repository.projection.EmployeeVersionRow;
+import com.bright.ems.search.EmployeeSearchIndex;
 import com.bright.ems.service.EmployeeService;
+import com.bright.ems.singleflight.SingleFlight;
+import com.bright.ems.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final int CREATE_ATTEMPTS = 3;
+    private static final int UNCONDITIONAL_WRITE_ATTEMPTS = 3;
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeStreamRepository employeeStreamRepository;
+    private final PaginationProperties paginationProperties;
+    private final BulkProperties bulkProperties;
+    private final EmployeeReplica employeeReplica;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final SingleFlight singleFlight;
+    private final CacheManager cacheManager;
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * Creates a new Employee based on employeeRequestDto
@@ -27,6 +73,8 @@ public class EmployeeServiceImpl implements EmployeeService {
      * @throws 
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, key = "#employeeRequestDto.email()")
     public Optional<EmployeeResponseDto> createEmployee(EmployeeRequestDto employeeRequestDto) {
         if (employeeRepository.findByEmail(employeeRequestDto.email()).isPresent()) {
 //            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
@@ -34,21 +82,132 @@ public class EmployeeServiceImpl implements EmployeeService {
         }
         Employee newEmployee = new Employee(employeeRequestDto.firstName(), employeeRequestDto.lastName(), employeeRequestDto.email(), employeeRequestDto.departmentCode());
         Employee savedEmployee = employeeRepository.save(newEmployee);
-        EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto(savedEmployee.getFirstName(), savedEmployee.getLastName(), savedEmployee.getEmail());
+        EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto(savedEmployee.getFirstName(), savedEmployee.getLastName(), savedEmployee.getDepartmentCode(), savedEmployee.getVersion());
+        applicationEventPublisher.publishEvent(EmployeeChangedEvent.created(savedEmployee.getEmployeeId(), savedEmployee.getEmail(), employeeResponseDto));
         return Optional.of(employeeResponseDto);
     }
 
     /**
+     * Creates many employees in one transaction. Existing emails are found with chunked IN queries
+     * instead of one lookup per row, and new rows are inserted in JDBC batches. A row without an
+     * email, or with a blank one, is invalid. Only the inserted emails are evicted from the employee
+     * cache, after commit, to drop misses cached for them.
+     * <p>
+     * An email inserted by a concurrent request after the IN queries fails the whole transaction on
+     * the unique index. The batch is then rolled back and tried again, and the second attempt's IN
+     * queries see that email and report its row as a conflict.
+     *
+     * @param employeeRequestDtos The employees to create
+     * @return One result per request row, in request order
+     * @throws ResponseStatusException with 400 if more than the configured maximum number of rows is sent,
+     *                                 409 if concurrent creates still collide after {@value #CREATE_ATTEMPTS} attempts
+     */
+    @Override
+    public List<BulkEmployeeResultDto> createEmployees(List<EmployeeRequestDto> employeeRequestDtos) {
+        if (employeeRequestDtos.size() > bulkProperties.maxRows()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + bulkProperties.maxRows() + " employees per request");
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> insertNewEmployees(employeeRequestDtos));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == CREATE_ATTEMPTS) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Employees with these emails are being created concurrently", e);
+                }
+            }
+        }
+    }
+
+    private List<BulkEmployeeResultDto> insertNewEmployees(List<EmployeeRequestDto> employeeRequestDtos) {
+        List<String> emails = new ArrayList<>(employeeRequestDtos.size());
+        for (EmployeeRequestDto employeeRequestDto : employeeRequestDtos) {
+            if (hasEmail(employeeRequestDto)) {
+                emails.add(employeeRequestDto.email());
+            }
+        }
+        Set<String> takenEmails = new HashSet<>();
+        for (List<String> chunk : partition(emails, EmployeeRepository.IN_CLAUSE_CHUNK_SIZE)) {
+            takenEmails.addAll(employeeRepository.findExistingEmails(chunk));
+        }
+        List<BulkEmployeeResultDto> bulkEmployeeResultDtos = new ArrayList<>(employeeRequestDtos.size());
+        List<Employee> newEmployees = new ArrayList<>(employeeRequestDtos.size());
+        for (EmployeeRequestDto employeeRequestDto : employeeRequestDtos) {
+            BulkEmployeeResultDto.Status status;
+            if (!hasEmail(employeeRequestDto)) {
+                status = BulkEmployeeResultDto.Status.INVALID;
+            } else if (!takenEmails.add(employeeRequestDto.email())) {
+                // Either already stored or repeated earlier in this request
+                status = BulkEmployeeResultDto.Status.CONFLICT;
+            } else {
+                newEmployees.add(new Employee(employeeRequestDto.firstName(), employeeRequestDto.lastName(), employeeRequestDto.email(), employeeRequestDto.departmentCode()));
+                status = BulkEmployeeResultDto.Status.CREATED;
+            }
+            bulkEmployeeResultDtos.add(new BulkEmployeeResultDto(employeeRequestDto.email(), status));
+        }
+        employeeRepository.insertAll(newEmployees, bulkProperties.batchSize());
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL);
+        for (Employee newEmployee : newEmployees) {
+            if (cache != null) {
+                cache.evict(newEmployee.getEmail());
+            }
+            applicationEventPublisher.publishEvent(EmployeeChangedEvent.created(newEmployee.getEmployeeId(), newEmployee.getEmail(),
+                    new EmployeeResponseDto(newEmployee.getFirstName(), newEmployee.getLastName(), newEmployee.getDepartmentCode(), newEmployee.getVersion())));
+        }
+        return bulkEmployeeResultDtos;
+    }
+
+    private static boolean hasEmail(EmployeeRequestDto employeeRequestDto) {
+        return employeeRequestDto.email() != null && !employeeRequestDto.email().isBlank();
+    }
+
+    /**
+     * Served from the read replica when it is loaded. Not transactional, so that path does not take a
+     * connection; the repository query of the other path runs in its own read-only transaction.
+     *
      * @return
      */
     @Override
     public List<EmployeeResponseDto> getAllEmployees() {
-        List<Employee> employees = employeeRepository.findAll();
-        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>();
-        for (Employee employee : employees) {
-            employeeResponseDtos.add(new EmployeeResponseDto(employee.getFirstName(), employee.getLastName(), employee.getEmail()));
+        if (employeeReplica.isReady()) {
+            return employeeReplica.findAll();
+        }
+        return employeeRepository.findAllResponseDtos();
+    }
+
+    /**
+     * Returns one page of employees ordered by employeeId, using the last seen id as the seek key
+     * so that deep pages cost the same as the first one.
+     *
+     * @param cursor Opaque token from a previous page, or null for the first page
+     * @param size   Requested page size, clamped to the configured limits
+     * @return The page content and the cursor of the next page, null when this is the last page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePageResponseDto getEmployeePage(String cursor, Integer size) {
+        long afterId = cursor == null ? 0L : CursorCodec.decode(cursor);
+        int pageSize = size == null
+                ? paginationProperties.defaultSize()
+                : Math.clamp(size, 1, paginationProperties.maxSize());
+        List<EmployeeRow> employeeRows = employeeRepository.findRowsAfter(afterId, PageRequest.ofSize(pageSize));
+        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>(employeeRows.size());
+        for (EmployeeRow employeeRow : employeeRows) {
+            employeeResponseDtos.add(employeeRow.toResponseDto());
         }
-        return employeeResponseDtos;
+        String nextCursor = employeeRows.size() < pageSize ? null : CursorCodec.encode(employeeRows.getLast().employeeId());
+        return new EmployeePageResponseDto(employeeResponseDtos, nextCursor);
+    }
+
+    /**
+     * Streams every employee to the consumer straight from a JDBC cursor.
+     *
+     * @param consumer Receives each employee in employeeId order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllEmployees(Consumer<EmployeeResponseDto> consumer) {
+        employeeStreamRepository.streamAll(paginationProperties.fetchSize(), consumer);
     }
 
     /**
@@ -56,13 +215,9 @@ public class EmployeeServiceImpl implements EmployeeService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeResponseDto> findByFirstName(String firstName) {
-        List<Employee> employees = employeeRepository.findByFirstName(firstName);
-        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>();
-        for (Employee employee : employees) {
-            employeeResponseDtos.add(new EmployeeResponseDto(employee.getFirstName(), employee.getLastName(), employee.getEmail()));
-        }
-        return employeeResponseDtos;
+        return employeeRepository.findResponseDtosByFirstName(firstName);
     }
 
     /**
@@ -70,101 +225,281 @@ public class EmployeeServiceImpl implements EmployeeService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeResponseDto> findByLastName(String lastName) {
-        List<Employee> employees = employeeRepository.findByLastName(lastName);
-        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>();
-        for (Employee employee : employees) {
-            employeeResponseDtos.add(new EmployeeResponseDto(employee.getFirstName(), employee.getLastName(), employee.getEmail()));
-        }
-        return employeeResponseDtos;
+        return employeeRepository.findResponseDtosByLastName(lastName);
     }
 
     /**
+     * Served from the read replica when it is loaded. Otherwise concurrent calls for the same
+     * department share one query.
+     *
      * @param departmentCode
-     * @return
+     * @return Employees of the department ordered by last name and first name
      */
     @Override
     public List<EmployeeResponseDto> findByDepartmentCode(String departmentCode) {
-        List<Employee> employees = employeeRepository.findByDepartmentCode(departmentCode);
-        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>();
-        for (Employee employee : employees) {
-            employeeResponseDtos.add(new EmployeeResponseDto(employee.getFirstName(), employee.getLastName(), employee.getEmail()));
+        if (employeeReplica.isReady()) {
+            return employeeReplica.findByDepartmentCode(departmentCode);
         }
-        return employeeResponseDtos;
+        return singleFlight.execute("findByDepartmentCode", departmentCode,
+                () -> employeeRepository.findResponseDtosByDepartmentCode(departmentCode));
+    }
+
+    /**
+     * Case-insensitive prefix search on first names, served by the lower-cased first name index.
+     *
+     * @param prefix
+     * @return Matching employees ordered by first name
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeResponseDto> findByFirstNamePrefix(String prefix) {
+        return employeeRepository.findResponseDtosByFirstNameLike(Employee.toPrefixPattern(prefix));
+    }
+
+    /**
+     * Case-insensitive prefix search on last names, served by the lower-cased last name index.
+     *
+     * @param prefix
+     * @return Matching employees ordered by last name
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeResponseDto> findByLastNamePrefix(String prefix) {
+        return employeeRepository.findResponseDtosByLastNameLike(Employee.toPrefixPattern(prefix));
     }
 
     /**
+     * Looks an employee up by email through the employee cache. Misses are cached too. The load runs
+     * under the cache's per-key lock (sync = true), so an eviction issued by a concurrent write
+     * cannot be overtaken by a reader putting back the value it read before that write committed.
+     * Loads come from the read replica when it is loaded, otherwise concurrent loads of the same
+     * email share one query, which also covers the cache being disabled.
+     *
      * @param email
      * @return
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, key = "#email", sync = true)
     public Optional<EmployeeResponseDto> findByEmail(String email) {
-        Optional<Employee> optionalEmployee = employeeRepository.findByEmail(email);
-        if (optionalEmployee.isPresent()) {
-            Employee employee = optionalEmployee.get();
-            EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto(employee.getFirstName(), employee.getLastName(), employee.getEmail());
-            return Optional.of(employeeResponseDto);
+        if (employeeReplica.isReady()) {
+            return employeeReplica.findByEmail(email);
         }
-        return Optional.empty();
+        return singleFlight.execute("findByEmail", email, () -> employeeRepository.findResponseDtoByEmail(email));
     }
 
-
     /**
-     * @param email
-     * @param employeeRequestDto
-     * @return
+     * Looks many employees up by email in one call. Duplicates are dropped and the first occurrence
+     * keeps its place. Emails found in the employee cache, as hits or as cached misses, are answered
+     * from it; the rest are read with chunked IN queries. Rows read here are not put into the cache,
+     * since without findByEmail's per-key lock a concurrent write's eviction could be overwritten.
+     *
+     * @param emails Emails to look up, in the order the response should follow
+     * @return The found employees keyed by email and the emails without an employee
+     * @throws ResponseStatusException with 400 if the list is missing or longer than the configured maximum
      */
     @Override
-    public Optional<EmployeeResponseDto> updateEmployeePartially(String email, EmployeeRequestDto employeeRequestDto) {
-        Optional<Employee> existingEmployee = employeeRepository.findByEmail(email);
-        if (existingEmployee.isPresent()) {
-            Employee employee = existingEmployee.get();
-            if (employee.getFirstName() != null) {
-                employee.setFirstName(employeeRequestDto.firstName());
+    public EmployeeLookupResponseDto lookupEmployees(List<String> emails) {
+        if (emails == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "emails is required");
+        }
+        if (emails.size() > bulkProperties.maxLookupEmails()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + bulkProperties.maxLookupEmails() + " emails per lookup");
+        }
+        Set<String> distinctEmails = new LinkedHashSet<>(emails);
+        distinctEmails.remove(null);
+        Map<String, EmployeeResponseDto> found = new HashMap<>();
+        List<String> toQuery = new ArrayList<>();
+        boolean replicaReady = employeeReplica.isReady();
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL);
+        for (String email : distinctEmails) {
+            if (replicaReady) {
+                employeeReplica.findByEmail(email).ifPresent(employee -> found.put(email, employee));
+                continue;
             }
-            if (employee.getLastName() != null) {
-                employee.setLastName(employeeRequestDto.lastName());
+            Cache.ValueWrapper cached = cache == null ? null : cache.get(email);
+            if (cached == null) {
+                toQuery.add(email);
+            } else if (cached.get() instanceof EmployeeResponseDto employee) {
+                found.put(email, employee);
             }
-            if (employee.getDepartmentCode() != null) {
-                employee.setDepartmentCode(employeeRequestDto.departmentCode());
+        }
+        for (List<String> chunk : partition(toQuery, EmployeeRepository.IN_CLAUSE_CHUNK_SIZE)) {
+            for (EmployeeRow employeeRow : employeeRepository.findRowsByEmailIn(chunk)) {
+                found.put(employeeRow.email(), employeeRow.toResponseDto());
             }
-            //Save updated employee
-            Employee updatedEmployee = employeeRepository.save(employee);
-            //Convert to Dto and return
-            EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto(updatedEmployee.getFirstName(), updatedEmployee.getLastName(), updatedEmployee.getEmail());
-            return Optional.of(employeeResponseDto);
         }
-        return Optional.empty();
+        Map<String, EmployeeResponseDto> employees = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String email : distinctEmails) {
+            EmployeeResponseDto employee = found.get(email);
+            if (employee == null) {
+                missing.add(email);
+            } else {
+                employees.put(email, employee);
+            }
+        }
+        return new EmployeeLookupResponseDto(employees, missing);
+    }
+
+    /**
+     * Ranked, typo-tolerant search over first name, last name, email and department, answered
+     * from the in-memory trigram index without touching the database.
+     *
+     * @param query
+     * @param limit  Requested number of hits, clamped to the configured limits
+     * @param cursor Opaque token from a previous page, or null for the first page
+     * @return The best hits and the cursor of the next page, null when this is the last page
+     */
+    @Override
+    public EmployeePageResponseDto searchEmployees(String query, Integer limit, String cursor) {
+        return employeeSearchIndex.search(query, limit, cursor);
     }
 
     /**
+     * Updates only the fields that are non-null in the request, in a single UPDATE statement,
+     * then reads the merged row back through the DTO projection.
+     *
+     * @param email
      * @param employeeRequestDto
-     * @return
+     * @param expectedVersion Version the client last saw (If-Match), or null to update unconditionally
+     * @return The updated employee, or empty if no employee has this email
+     * @throws ResponseStatusException with 412 if the employee exists with a different version
      */
     @Override
-    public Optional<EmployeeResponseDto> updateEmployee(String email, EmployeeRequestDto employeeRequestDto) {
-        Optional<Employee> existingEmployee = employeeRepository.findByEmail(email);
-        if (existingEmployee.isPresent()) {
-            Employee employee = existingEmployee.get();
-            //Update the employee details
-            employee.setFirstName(employeeRequestDto.firstName());
-            employee.setLastName(employeeRequestDto.lastName());
-            employee.setDepartmentCode(employeeRequestDto.departmentCode());
-            //Save updated employee
-            Employee updatedEmployee = employeeRepository.save(employee);
-            //Convert to Dto and return
-            EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto(updatedEmployee.getFirstName(), updatedEmployee.getLastName(), updatedEmployee.getEmail());
-            return Optional.of(employeeResponseDto);
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, key = "#email")
+    public Optional<EmployeeResponseDto> updateEmployeePartially(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion) {
+        // Only a department in the request can move the employee, so only then is the old one read
+        String previousDepartmentCode = employeeRequestDto.departmentCode() == null ? null : currentDepartmentCode(email);
+        int updatedRows = employeeRepository.patchByEmail(email,
+                employeeRequestDto.firstName(), employeeRequestDto.lastName(), employeeRequestDto.departmentCode(),
+                Employee.toLowerCase(employeeRequestDto.firstName()), Employee.toLowerCase(employeeRequestDto.lastName()),
+                expectedVersion);
+        if (updatedRows == 0) {
+            return notUpdated(email, expectedVersion);
+        }
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeRepository.findResponseDtoByEmail(email);
+        if (employeeRequestDto.departmentCode() == null) {
+            previousDepartmentCode = employeeResponseDto.map(EmployeeResponseDto::departmentCode).orElse(null);
+        }
+        return updated(email, previousDepartmentCode, employeeResponseDto);
+    }
+
+    /**
+     * Reads the employee's department and version, then replaces its details with a single UPDATE
+     * conditioned on that version. The response is the request at the next version, so the row is
+     * not read back. An unconditional update that loses the row to a concurrent write reads it again
+     * and retries.
+     *
+     * @param email
+     * @param employeeRequestDto
+     * @param expectedVersion Version the client last saw (If-Match), or null to update unconditionally
+     * @return The updated employee, or empty if no employee has this email
+     * @throws ResponseStatusException with 412 if the employee exists with a different version,
+     *                                 409 if concurrent updates kept changing it for {@value #UNCONDITIONAL_WRITE_ATTEMPTS} attempts
+     */
+    @Override
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, key = "#email")
+    public Optional<EmployeeResponseDto> updateEmployee(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<EmployeeVersionRow> current = employeeRepository.findVersionRowByEmail(email);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            long version = current.get().version();
+            if (expectedVersion != null && expectedVersion != version) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Employee was modified concurrently");
+            }
+            int updatedRows = employeeRepository.updateByEmail(email,
+                    employeeRequestDto.firstName(), employeeRequestDto.lastName(), employeeRequestDto.departmentCode(),
+                    Employee.toLowerCase(employeeRequestDto.firstName()), Employee.toLowerCase(employeeRequestDto.lastName()),
+                    version);
+            if (updatedRows == 1) {
+                EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto(employeeRequestDto.firstName(), employeeRequestDto.lastName(),
+                        employeeRequestDto.departmentCode(), version + 1);
+                return updated(email, current.get().departmentCode(), Optional.of(employeeResponseDto));
+            }
+            // Updated or deleted since the read; the next read tells which
+            if (attempt == UNCONDITIONAL_WRITE_ATTEMPTS) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Employee is being modified concurrently");
+            }
         }
-        return Optional.empty();
     }
 
     /**
+     * Reads the employee's id, department and version, then deletes it with a single DELETE
+     * conditioned on that version, so the event names the exact row version it removed. An
+     * unconditional delete that loses the row to a concurrent update reads it again and retries.
+     *
      * @param email
+     * @param expectedVersion Version the client last saw (If-Match), or null to delete unconditionally
+     * @throws ResponseStatusException with 404 if no employee has this email, 412 if its version differs,
+     *                                 409 if concurrent updates kept changing it for {@value #UNCONDITIONAL_WRITE_ATTEMPTS} attempts
      */
     @Override
-    public void deleteEmployee(String email) {
-        Optional<Employee> existingEmployee = employeeRepository.findByEmail(email);
-        existingEmployee.ifPresent(employeeRepository::delete);
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, key = "#email")
+    public void deleteEmployee(String email, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            EmployeeVersionRow current = currentVersionRow(email, expectedVersion);
+            if (employeeRepository.deleteByEmail(email, current.version()) == 1) {
+                applicationEventPublisher.publishEvent(EmployeeChangedEvent.deleted(current.employeeId(), email, current.departmentCode(), current.version()));
+                return;
+            }
+            // Updated or deleted since the read; the next read tells which
+            if (attempt == UNCONDITIONAL_WRITE_ATTEMPTS) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Employee is being modified concurrently");
+            }
+        }
+    }
+
+    /**
+     * @throws ResponseStatusException with 404 if no employee has this email, 412 if it has another version than expected
+     */
+    private EmployeeVersionRow currentVersionRow(String email, Long expectedVersion) {
+        EmployeeVersionRow current = employeeRepository.findVersionRowByEmail(email)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found"));
+        if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Employee was modified concurrently");
+        }
+        return current;
+    }
+
+    private Optional<EmployeeResponseDto> updated(String email, String previousDepartmentCode, Optional<EmployeeResponseDto> employeeResponseDto) {
+        employeeResponseDto.ifPresent(updatedEmployee -> applicationEventPublisher.publishEvent(EmployeeChangedEvent.updated(email, previousDepartmentCode, updatedEmployee)));
+        return employeeResponseDto;
+    }
+
+    /**
+     * Department the employee is in before a PATCH that changes it, for the department headcounts:
+     * one extra SELECT on the unique email index, in the write's transaction. A concurrent move between
+     * this read and the write can skew a count until the next reconciliation. PUT and DELETE read the
+     * department together with the version they write on.
+     */
+    private String currentDepartmentCode(String email) {
+        return employeeRepository.findDepartmentCodeByEmail(email).orElse(null);
+    }
+
+    /**
+     * A conditional write that touched no row either lost the race on the version or had no row to touch.
+     * Nothing has been written when it refuses, so the writes that call it leave a caller's transaction
+     * usable (noRollbackFor), which lets a write-behind batch commit its other writes.
+     */
+    private Optional<EmployeeResponseDto> notUpdated(String email, Long expectedVersion) {
+        if (expectedVersion != null && employeeRepository.existsByEmail(email)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Employee was modified concurrently");
+        }
+        return Optional.empty();
+    }
+
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            chunks.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return chunks;
     }
 }
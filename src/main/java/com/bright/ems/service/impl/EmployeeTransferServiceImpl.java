@@ -0,0 +1,123 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.config.BulkProperties;
+import com.bright.ems.config.PaginationProperties;
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.dto.response.ImportResultDto;
+import com.bright.ems.repository.EmployeeStreamRepository;
+import com.bright.ems.service.EmployeeService;
+import com.bright.ems.service.EmployeeTransferService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmployeeTransferServiceImpl implements EmployeeTransferService {
+
+    private final EmployeeService employeeService;
+    private final EmployeeStreamRepository employeeStreamRepository;
+    private final PaginationProperties paginationProperties;
+    private final BulkProperties bulkProperties;
+
+    /**
+     * Streams every employee, email included, to the consumer straight from a JDBC cursor.
+     *
+     * @param consumer Receives each employee in employeeId order
+     * @return The number of exported employees
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportEmployees(Consumer<EmployeeRequestDto> consumer) {
+        long start = System.nanoTime();
+        long[] rows = new long[1];
+        employeeStreamRepository.streamRows(paginationProperties.fetchSize(), employeeRow -> {
+            consumer.accept(new EmployeeRequestDto(employeeRow.firstName(), employeeRow.lastName(), employeeRow.email(), employeeRow.departmentCode()));
+            rows[0]++;
+        });
+        long elapsedNanos = System.nanoTime() - start;
+        log.info("Exported {} employees in {} ms ({} rows/s)", rows[0], TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond(rows[0], elapsedNanos));
+        return rows[0];
+    }
+
+    /**
+     * Creates the employees in batches of the configured import batch size, each through the bulk
+     * create in its own transaction. The next batch is only read from the iterator once the previous
+     * one is committed, so a slow database slows down the upload instead of filling the heap.
+     * <p>
+     * A record the iterator rejects as malformed (400) ends the import: the records read before it
+     * are still committed, and the result names the failing record next to the counts, so the
+     * client can fix it and resend the upload from there.
+     *
+     * @param employeeRequestDtos Employees parsed lazily from the upload
+     * @return Row counts per outcome, the import throughput and the malformed record, if any
+     */
+    @Override
+    public ImportResultDto importEmployees(Iterator<EmployeeRequestDto> employeeRequestDtos) {
+        long start = System.nanoTime();
+        long[] counts = new long[BulkEmployeeResultDto.Status.values().length];
+        List<EmployeeRequestDto> batch = new ArrayList<>(bulkProperties.importBatchSize());
+        long read = 0;
+        ResponseStatusException malformed = null;
+        while (true) {
+            try {
+                if (!employeeRequestDtos.hasNext()) {
+                    break;
+                }
+                batch.add(employeeRequestDtos.next());
+                read++;
+            } catch (ResponseStatusException e) {
+                if (e.getStatusCode().value() != HttpStatus.BAD_REQUEST.value()) {
+                    throw e;
+                }
+                malformed = e;
+                break;
+            }
+            if (batch.size() == bulkProperties.importBatchSize()) {
+                createBatch(batch, counts);
+            }
+        }
+        createBatch(batch, counts);
+        long elapsedNanos = System.nanoTime() - start;
+        long rows = counts[BulkEmployeeResultDto.Status.CREATED.ordinal()]
+                + counts[BulkEmployeeResultDto.Status.CONFLICT.ordinal()]
+                + counts[BulkEmployeeResultDto.Status.INVALID.ordinal()];
+        log.info("Imported {} employees in {} ms ({} rows/s)", rows, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond(rows, elapsedNanos));
+        if (malformed != null) {
+            log.info("Import stopped at malformed record {}: {}", read + 1, malformed.getReason());
+        }
+        return new ImportResultDto(rows,
+                counts[BulkEmployeeResultDto.Status.CREATED.ordinal()],
+                counts[BulkEmployeeResultDto.Status.CONFLICT.ordinal()],
+                counts[BulkEmployeeResultDto.Status.INVALID.ordinal()],
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                rowsPerSecond(rows, elapsedNanos),
+                malformed == null ? null : read + 1,
+                malformed == null ? null : malformed.getReason());
+    }
+
+    private void createBatch(List<EmployeeRequestDto> batch, long[] counts) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (BulkEmployeeResultDto bulkEmployeeResultDto : employeeService.createEmployees(batch)) {
+            counts[bulkEmployeeResultDto.status().ordinal()]++;
+        }
+        batch.clear();
+    }
+
+    private static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos == 0 ? rows : rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+}
@@ -0,0 +1,428 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.config.BulkProperties;
+import com.bright.ems.config.PaginationProperties;
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.dto.response.EmployeeLookupResponseDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.model.Employee;
+import com.bright.ems.replica.EmployeeReplica;
+import com.bright.ems.repository.EmployeeRepository;
+import com.bright.ems.service.EmployeeService;
+import com.bright.ems.sharding.ShardRouter;
+import com.bright.ems.sharding.Shards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Spreads the employee service over the shards (ems.sharding.enabled=true). Every call runs the
+ * single-database {@link EmployeeServiceImpl} on the shard the {@link ShardRouter} picks for it, or
+ * on every shard in parallel when the arguments do not decide one, and merges the results.
+ * <p>
+ * Routed by email, point lookups and writes go to one shard and the unique email column of that
+ * shard keeps emails unique. Routed by department, department listings go to one shard; an email is
+ * found by asking every shard, and single and bulk creates check every shard and insert while
+ * holding the locks of their emails. The locks are local, so this only keeps emails unique within
+ * a single application instance; with several instances two of them can still store one email on
+ * two shards. Moving an employee to a department on another shard is refused with 409.
+ * <p>
+ * The read replica and the search index hold every shard, so calls they answer are not fanned out.
+ */
+@Service
+@Primary
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "ems.sharding", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedEmployeeServiceImpl implements EmployeeService {
+
+    private static final String SHARD_CURSOR_SEPARATOR = "~";
+    private static final int EMAIL_LOCK_STRIPES = 64;
+    private static final Comparator<String> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final EmployeeServiceImpl employeeService;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeReplica employeeReplica;
+    private final Shards shards;
+    private final ShardRouter shardRouter;
+    private final PaginationProperties paginationProperties;
+    private final BulkProperties bulkProperties;
+    private final ReentrantLock[] emailLocks = newLocks();
+
+    /**
+     * @return The created employee, or empty if any shard already has the email
+     */
+    @Override
+    public Optional<EmployeeResponseDto> createEmployee(EmployeeRequestDto employeeRequestDto) {
+        int shard = shardRouter.shardOf(employeeRequestDto.email(), employeeRequestDto.departmentCode());
+        if (shardRouter.shardOfEmail(employeeRequestDto.email()).isPresent()) {
+            return shards.on(shard, () -> employeeService.createEmployee(employeeRequestDto));
+        }
+        ReentrantLock emailLock = emailLock(employeeRequestDto.email());
+        emailLock.lock();
+        try {
+            if (shardOfExisting(employeeRequestDto.email()).isPresent()) {
+                return Optional.empty();
+            }
+            return shards.on(shard, () -> employeeService.createEmployee(employeeRequestDto));
+        } finally {
+            emailLock.unlock();
+        }
+    }
+
+    /**
+     * Creates each shard's rows through its bulk create, all shards in parallel. When the email does
+     * not pick the shard, emails repeated in the request or already stored on any shard are reported
+     * as conflicts up front, and the locks of the request's emails are held from that check until the
+     * inserts are done. They are taken in stripe order, so two bulk creates cannot deadlock.
+     *
+     * @return One result per request row, in request order
+     */
+    @Override
+    public List<BulkEmployeeResultDto> createEmployees(List<EmployeeRequestDto> employeeRequestDtos) {
+        if (employeeRequestDtos.size() > bulkProperties.maxRows()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + bulkProperties.maxRows() + " employees per request");
+        }
+        BulkEmployeeResultDto[] results = new BulkEmployeeResultDto[employeeRequestDtos.size()];
+        boolean checkAcrossShards = employeeRequestDtos.stream()
+                .anyMatch(employeeRequestDto -> shardRouter.shardOfEmail(employeeRequestDto.email()).isEmpty());
+        int[] stripes = checkAcrossShards ? emailStripes(employeeRequestDtos) : new int[0];
+        for (int stripe : stripes) {
+            emailLocks[stripe].lock();
+        }
+        try {
+            createOnShards(employeeRequestDtos, checkAcrossShards, results);
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                emailLocks[stripes[i]].unlock();
+            }
+        }
+        return List.of(results);
+    }
+
+    @Override
+    public List<EmployeeResponseDto> getAllEmployees() {
+        if (employeeReplica.isReady()) {
+            return employeeService.getAllEmployees();
+        }
+        return concat(shards.onEvery(shard -> employeeService.getAllEmployees()));
+    }
+
+    /**
+     * Pages through shard 0, then shard 1 and so on, so a page only touches the shards it draws rows
+     * from. The cursor carries the shard number in front of the shard's own cursor.
+     */
+    @Override
+    public EmployeePageResponseDto getEmployeePage(String cursor, Integer size) {
+        int pageSize = size == null
+                ? paginationProperties.defaultSize()
+                : Math.clamp(size, 1, paginationProperties.maxSize());
+        int shard = 0;
+        String shardCursor = null;
+        if (cursor != null) {
+            int separator = cursor.indexOf(SHARD_CURSOR_SEPARATOR);
+            try {
+                shard = Integer.parseInt(cursor.substring(0, Math.max(separator, 0)));
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+            }
+            if (separator < 0 || shard < 0 || shard >= shards.count()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            shardCursor = separator == cursor.length() - 1 ? null : cursor.substring(separator + 1);
+        }
+        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>(pageSize);
+        for (; shard < shards.count(); shard++, shardCursor = null) {
+            String currentCursor = shardCursor;
+            int remaining = pageSize - employeeResponseDtos.size();
+            EmployeePageResponseDto shardPage = shards.on(shard, () -> employeeService.getEmployeePage(currentCursor, remaining));
+            employeeResponseDtos.addAll(shardPage.content());
+            if (shardPage.nextCursor() != null) {
+                return new EmployeePageResponseDto(employeeResponseDtos, shard + SHARD_CURSOR_SEPARATOR + shardPage.nextCursor());
+            }
+        }
+        return new EmployeePageResponseDto(employeeResponseDtos, null);
+    }
+
+    /**
+     * Streams every shard in turn; the stream repository walks the shards by itself.
+     */
+    @Override
+    public void streamAllEmployees(Consumer<EmployeeResponseDto> consumer) {
+        employeeService.streamAllEmployees(consumer);
+    }
+
+    @Override
+    public List<EmployeeResponseDto> findByFirstName(String firstName) {
+        return concat(shards.onEvery(shard -> employeeService.findByFirstName(firstName)));
+    }
+
+    @Override
+    public List<EmployeeResponseDto> findByLastName(String lastName) {
+        return concat(shards.onEvery(shard -> employeeService.findByLastName(lastName)));
+    }
+
+    /**
+     * @return Employees of the department ordered by last name and first name
+     */
+    @Override
+    public List<EmployeeResponseDto> findByDepartmentCode(String departmentCode) {
+        if (employeeReplica.isReady()) {
+            return employeeService.findByDepartmentCode(departmentCode);
+        }
+        OptionalInt shard = shardRouter.shardOfDepartment(departmentCode);
+        if (shard.isPresent()) {
+            return shards.on(shard.getAsInt(), () -> employeeService.findByDepartmentCode(departmentCode));
+        }
+        return merge(shards.onEvery(each -> employeeService.findByDepartmentCode(departmentCode)),
+                Comparator.comparing(EmployeeResponseDto::lastName, NULLS_FIRST).thenComparing(EmployeeResponseDto::firstName, NULLS_FIRST));
+    }
+
+    @Override
+    public List<EmployeeResponseDto> findByFirstNamePrefix(String prefix) {
+        return merge(shards.onEvery(shard -> employeeService.findByFirstNamePrefix(prefix)),
+                Comparator.comparing(employee -> Employee.toLowerCase(employee.firstName()), NULLS_FIRST));
+    }
+
+    @Override
+    public List<EmployeeResponseDto> findByLastNamePrefix(String prefix) {
+        return merge(shards.onEvery(shard -> employeeService.findByLastNamePrefix(prefix)),
+                Comparator.comparing(employee -> Employee.toLowerCase(employee.lastName()), NULLS_FIRST));
+    }
+
+    @Override
+    public Optional<EmployeeResponseDto> findByEmail(String email) {
+        if (employeeReplica.isReady()) {
+            return employeeService.findByEmail(email);
+        }
+        OptionalInt shard = shardOfExisting(email);
+        if (shard.isEmpty()) {
+            return Optional.empty();
+        }
+        return shards.on(shard.getAsInt(), () -> employeeService.findByEmail(email));
+    }
+
+    /**
+     * Asks each shard only for its own emails when the email picks the shard, otherwise every shard for all of them.
+     */
+    @Override
+    public EmployeeLookupResponseDto lookupEmployees(List<String> emails) {
+        if (emails == null || emails.size() > bulkProperties.maxLookupEmails() || employeeReplica.isReady()) {
+            return employeeService.lookupEmployees(emails);
+        }
+        Set<String> distinctEmails = new LinkedHashSet<>(emails);
+        distinctEmails.remove(null);
+        Map<Integer, List<String>> emailsByShard = new HashMap<>();
+        for (String email : distinctEmails) {
+            OptionalInt shard = shardRouter.shardOfEmail(email);
+            if (shard.isEmpty()) {
+                emailsByShard.clear();
+                break;
+            }
+            emailsByShard.computeIfAbsent(shard.getAsInt(), key -> new ArrayList<>()).add(email);
+        }
+        List<String> allEmails = List.copyOf(distinctEmails);
+        List<EmployeeLookupResponseDto> shardLookups = shards.onEvery(shard -> {
+            List<String> shardEmails = emailsByShard.isEmpty() ? allEmails : emailsByShard.getOrDefault(shard, List.of());
+            return shardEmails.isEmpty() ? new EmployeeLookupResponseDto(Map.of(), List.of()) : employeeService.lookupEmployees(shardEmails);
+        });
+        Map<String, EmployeeResponseDto> found = new HashMap<>();
+        for (EmployeeLookupResponseDto shardLookup : shardLookups) {
+            found.putAll(shardLookup.employees());
+        }
+        Map<String, EmployeeResponseDto> employees = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String email : distinctEmails) {
+            EmployeeResponseDto employee = found.get(email);
+            if (employee == null) {
+                missing.add(email);
+            } else {
+                employees.put(email, employee);
+            }
+        }
+        return new EmployeeLookupResponseDto(employees, missing);
+    }
+
+    /**
+     * Answered by the in-memory index, which covers every shard.
+     */
+    @Override
+    public EmployeePageResponseDto searchEmployees(String query, Integer limit, String cursor) {
+        return employeeService.searchEmployees(query, limit, cursor);
+    }
+
+    /**
+     * @throws ResponseStatusException with 409 if the new department belongs on another shard
+     */
+    @Override
+    public Optional<EmployeeResponseDto> updateEmployee(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion) {
+        OptionalInt shard = shardOfExisting(email);
+        if (shard.isEmpty()) {
+            return Optional.empty();
+        }
+        checkStaysOnShard(email, employeeRequestDto.departmentCode(), shard.getAsInt());
+        return shards.on(shard.getAsInt(), () -> employeeService.updateEmployee(email, employeeRequestDto, expectedVersion));
+    }
+
+    /**
+     * @throws ResponseStatusException with 409 if the new department belongs on another shard
+     */
+    @Override
+    public Optional<EmployeeResponseDto> updateEmployeePartially(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion) {
+        OptionalInt shard = shardOfExisting(email);
+        if (shard.isEmpty()) {
+            return Optional.empty();
+        }
+        if (employeeRequestDto.departmentCode() != null) {
+            checkStaysOnShard(email, employeeRequestDto.departmentCode(), shard.getAsInt());
+        }
+        return shards.on(shard.getAsInt(), () -> employeeService.updateEmployeePartially(email, employeeRequestDto, expectedVersion));
+    }
+
+    @Override
+    public void deleteEmployee(String email, Long expectedVersion) {
+        OptionalInt shard = shardOfExisting(email);
+        if (shard.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found");
+        }
+        shards.on(shard.getAsInt(), () -> {
+            employeeService.deleteEmployee(email, expectedVersion);
+            return null;
+        });
+    }
+
+    /**
+     * The shard that holds the employee: the email's own shard when the email picks it, otherwise
+     * the first shard that has a row with the email.
+     */
+    private OptionalInt shardOfExisting(String email) {
+        OptionalInt shard = shardRouter.shardOfEmail(email);
+        if (shard.isPresent()) {
+            return shard;
+        }
+        int found = shards.onEvery(each -> employeeRepository.existsByEmail(email)).indexOf(Boolean.TRUE);
+        return found < 0 ? OptionalInt.empty() : OptionalInt.of(found);
+    }
+
+    private void checkStaysOnShard(String email, String departmentCode, int shard) {
+        if (shardRouter.shardOf(email, departmentCode) != shard) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Department " + departmentCode + " is on another shard; delete and re-create the employee to move it");
+        }
+    }
+
+    /**
+     * Fills in the results of the request: conflicts found up front, the rest from each shard's bulk create.
+     */
+    private void createOnShards(List<EmployeeRequestDto> employeeRequestDtos, boolean checkAcrossShards, BulkEmployeeResultDto[] results) {
+        Set<String> takenEmails = checkAcrossShards ? existingEmails(employeeRequestDtos) : Set.of();
+        Set<String> seenEmails = new HashSet<>();
+        Map<Integer, List<Integer>> rowsByShard = new HashMap<>();
+        for (int row = 0; row < employeeRequestDtos.size(); row++) {
+            EmployeeRequestDto employeeRequestDto = employeeRequestDtos.get(row);
+            String email = employeeRequestDto.email();
+            if (checkAcrossShards && email != null && !email.isBlank() && (takenEmails.contains(email) || !seenEmails.add(email))) {
+                results[row] = new BulkEmployeeResultDto(email, BulkEmployeeResultDto.Status.CONFLICT);
+                continue;
+            }
+            rowsByShard.computeIfAbsent(shardRouter.shardOf(email, employeeRequestDto.departmentCode()), shard -> new ArrayList<>()).add(row);
+        }
+        List<List<BulkEmployeeResultDto>> shardResults = shards.onEvery(shard -> {
+            List<Integer> rows = rowsByShard.get(shard);
+            if (rows == null) {
+                return List.of();
+            }
+            List<EmployeeRequestDto> shardRequestDtos = new ArrayList<>(rows.size());
+            for (int row : rows) {
+                shardRequestDtos.add(employeeRequestDtos.get(row));
+            }
+            return employeeService.createEmployees(shardRequestDtos);
+        });
+        for (Map.Entry<Integer, List<Integer>> entry : rowsByShard.entrySet()) {
+            List<BulkEmployeeResultDto> bulkEmployeeResultDtos = shardResults.get(entry.getKey());
+            for (int i = 0; i < entry.getValue().size(); i++) {
+                results[entry.getValue().get(i)] = bulkEmployeeResultDtos.get(i);
+            }
+        }
+    }
+
+    /**
+     * Emails of the request already stored on any shard, found with chunked IN queries on every shard.
+     */
+    private Set<String> existingEmails(List<EmployeeRequestDto> employeeRequestDtos) {
+        List<String> emails = new ArrayList<>(employeeRequestDtos.size());
+        for (EmployeeRequestDto employeeRequestDto : employeeRequestDtos) {
+            if (employeeRequestDto.email() != null) {
+                emails.add(employeeRequestDto.email());
+            }
+        }
+        Set<String> existingEmails = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += EmployeeRepository.IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = emails.subList(from, Math.min(from + EmployeeRepository.IN_CLAUSE_CHUNK_SIZE, emails.size()));
+            shards.onEvery(shard -> employeeRepository.findExistingEmails(chunk)).forEach(existingEmails::addAll);
+        }
+        return existingEmails;
+    }
+
+    private ReentrantLock emailLock(String email) {
+        return emailLocks[stripe(email)];
+    }
+
+    /**
+     * @return The distinct lock stripes of the request's emails, ascending
+     */
+    private static int[] emailStripes(List<EmployeeRequestDto> employeeRequestDtos) {
+        return employeeRequestDtos.stream()
+                .mapToInt(employeeRequestDto -> stripe(employeeRequestDto.email()))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private static int stripe(String email) {
+        return Math.floorMod(email == null ? 0 : email.hashCode(), EMAIL_LOCK_STRIPES);
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[EMAIL_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private static List<EmployeeResponseDto> concat(List<List<EmployeeResponseDto>> shardResults) {
+        List<EmployeeResponseDto> employeeResponseDtos = new ArrayList<>();
+        shardResults.forEach(employeeResponseDtos::addAll);
+        return employeeResponseDtos;
+    }
+
+    /**
+     * Concatenates lists that are each sorted and re-sorts them; the sort is stable, so equal keys keep shard order.
+     */
+    private static List<EmployeeResponseDto> merge(List<List<EmployeeResponseDto>> shardResults, Comparator<EmployeeResponseDto> order) {
+        List<EmployeeResponseDto> employeeResponseDtos = concat(shardResults);
+        employeeResponseDtos.sort(order);
+        return employeeResponseDtos;
+    }
+
+}
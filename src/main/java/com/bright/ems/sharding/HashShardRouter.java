@@ -0,0 +1,61 @@
+package com.bright.ems.sharding;
+
+import com.bright.ems.config.ShardingProperties;
+
+import java.util.OptionalInt;
+
+/**
+ * Places an employee by the hash of its email or of its department code, modulo the number of
+ * shards. String hash codes are fixed by the language, so the placement is the same on every run;
+ * changing the number of shards moves rows, which this router does not do.
+ */
+public class HashShardRouter implements ShardRouter {
+
+    private final ShardingProperties.ShardKey shardKey;
+    private final int shardCount;
+
+    public HashShardRouter(ShardingProperties.ShardKey shardKey, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardKey = shardKey;
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public OptionalInt shardOfEmail(String email) {
+        return shardKey == ShardingProperties.ShardKey.EMAIL ? OptionalInt.of(shardOf(email)) : OptionalInt.empty();
+    }
+
+    @Override
+    public OptionalInt shardOfDepartment(String departmentCode) {
+        return shardKey == ShardingProperties.ShardKey.DEPARTMENT_CODE ? OptionalInt.of(shardOf(departmentCode)) : OptionalInt.empty();
+    }
+
+    @Override
+    public int shardOf(String email, String departmentCode) {
+        return shardOf(shardKey == ShardingProperties.ShardKey.EMAIL ? email : departmentCode);
+    }
+
+    /**
+     * Spreads the string hash with the MurmurHash3 finalizer, so keys differing only in their last
+     * characters do not land on neighbouring shards in lockstep. Null keys go to shard 0.
+     */
+    private int shardOf(String key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shardCount);
+    }
+}
@@ -0,0 +1,36 @@
+package com.bright.ems.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread works on, read by {@link ShardRoutingDataSource} when a connection
+ * is taken, which for a transaction is when it begins.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return The current shard, or null outside {@link #call(int, Supplier)}
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.bright.ems.sharding;
+
+import java.util.OptionalInt;
+
+/**
+ * Decides which shard holds an employee. Declare a bean of this type to replace the default
+ * {@link HashShardRouter}; shards are numbered from 0 in the order of ems.sharding.shards.
+ */
+public interface ShardRouter {
+
+    int shardCount();
+
+    /**
+     * @return The shard of the employee with this email, or empty if the email alone does not decide it
+     */
+    OptionalInt shardOfEmail(String email);
+
+    /**
+     * @return The shard of every employee of the department, or empty if the department alone does not decide it
+     */
+    OptionalInt shardOfDepartment(String departmentCode);
+
+    /**
+     * @return The shard an employee with this email and department is stored on
+     */
+    int shardOf(String email, String departmentCode);
+}
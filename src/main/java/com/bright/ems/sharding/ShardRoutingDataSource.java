@@ -0,0 +1,50 @@
+package com.bright.ems.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard set in {@link ShardContext}, or of shard 0 when none is set.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shardDataSources;
+
+    public ShardRoutingDataSource(List<DataSource> shardDataSources) {
+        this.shardDataSources = List.copyOf(shardDataSources);
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            targetDataSources.put(shard, shardDataSources.get(shard));
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(shardDataSources.getFirst());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return The pool of every shard, indexed by shard number
+     */
+    public List<DataSource> shardDataSources() {
+        return shardDataSources;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void close() {
+        for (DataSource shardDataSource : shardDataSources) {
+            if (shardDataSource instanceof HikariDataSource hikariDataSource) {
+                hikariDataSource.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.bright.ems.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares every shard before the first query. Hibernate only manages the schema of the shard the
+ * entity manager factory starts on, so the schema of the other shards is generated from the same
+ * persistence unit and settings, with create-drop downgraded to update.
+ * <p>
+ * Hibernate's pooled id optimizer takes its blocks of ids from the sequence of whichever shard the
+ * current transaction is on and may spend them on any shard. Each shard's employees_seq is therefore
+ * restarted inside its own range of {@value #ID_RANGE} ids, above every id of that range already in
+ * use on any shard, so blocks from different shards never overlap. A sequence that is already past
+ * that point, e.g. because another instance has been drawing blocks from it, is left alone: it is
+ * only ever moved forward, never back onto ids that may have been handed out.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    static final long ID_RANGE = 1L << 40;
+
+    // Two blocks of Employee's allocationSize, so the first block after the restart starts above the highest id
+    private static final long RESTART_GAP = 100;
+
+    private final LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private final ShardRoutingDataSource shardRoutingDataSource;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<DataSource> shardDataSources = shardRoutingDataSource.shardDataSources();
+        Map<String, Object> settings = new HashMap<>(entityManagerFactory.getJpaPropertyMap());
+        Object ddlAuto = settings.getOrDefault(AvailableSettings.HBM2DDL_AUTO, "none");
+        if (!"none".equals(ddlAuto)) {
+            settings.put(AvailableSettings.HBM2DDL_AUTO, "validate".equals(ddlAuto) ? "validate" : "update");
+            for (int shard = 1; shard < shardDataSources.size(); shard++) {
+                settings.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, shardDataSources.get(shard));
+                new HibernatePersistenceProvider().generateSchema(entityManagerFactory.getPersistenceUnitInfo(), settings);
+            }
+        }
+        Dialect dialect = entityManagerFactory.getNativeEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        String nextValue = dialect.getSequenceSupport().getSequenceNextValString("employees_seq");
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            long from = shard * ID_RANGE;
+            long highestId = from;
+            for (DataSource shardDataSource : shardDataSources) {
+                Long shardHighestId = new JdbcTemplate(shardDataSource).queryForObject(
+                        "select max(employee_id) from employees where employee_id >= ? and employee_id < ?", Long.class, from, from + ID_RANGE);
+                if (shardHighestId != null) {
+                    highestId = Math.max(highestId, shardHighestId);
+                }
+            }
+            JdbcTemplate shardTemplate = new JdbcTemplate(shardDataSources.get(shard));
+            // Drawing a value spends one id, which costs a gap, not an overlap
+            Long current = shardTemplate.queryForObject(nextValue, Long.class);
+            long restart = highestId + RESTART_GAP;
+            if (current == null || current < restart) {
+                shardTemplate.execute("alter sequence employees_seq restart with " + restart);
+            }
+        }
+        log.info("Prepared {} employee shards", shardDataSources.size());
+    }
+}
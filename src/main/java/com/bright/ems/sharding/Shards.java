@@ -0,0 +1,87 @@
+package com.bright.ems.sharding;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs work on one shard or on all of them. Without sharding there is a single shard and the work
+ * runs inline, inside the caller's transaction if it has one. With sharding, work for one shard runs
+ * on the caller's thread and work for every shard runs in parallel on virtual threads, each with
+ * {@link ShardContext} set; the work must begin its own transaction so that it is bound to its shard.
+ */
+@Component
+public class Shards {
+
+    private final ShardRouter shardRouter;
+
+    public Shards(Optional<ShardRouter> shardRouter) {
+        this.shardRouter = shardRouter.orElse(null);
+    }
+
+    public boolean enabled() {
+        return shardRouter != null;
+    }
+
+    public int count() {
+        return shardRouter == null ? 1 : shardRouter.shardCount();
+    }
+
+    /**
+     * @throws IllegalStateException if called inside a transaction, whose connection belongs to another shard
+     */
+    public <T> T on(int shard, Supplier<T> work) {
+        if (shardRouter == null) {
+            return work.get();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard " + shard + " inside a transaction");
+        }
+        return ShardContext.call(shard, work);
+    }
+
+    /**
+     * @param work Called with each shard number
+     * @return The result of every shard, indexed by shard number
+     */
+    public <T> List<T> onEvery(IntFunction<T> work) {
+        if (shardRouter == null) {
+            return Collections.singletonList(work.apply(0));
+        }
+        List<Future<T>> futures = new ArrayList<>(shardRouter.shardCount());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                int current = shard;
+                futures.add(executor.submit(() -> ShardContext.call(current, () -> work.apply(current))));
+            }
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the shards", e);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,153 @@
+package com.bright.ems.singleflight;
+
+import com.bright.ems.config.SingleFlightProperties;
+import com.bright.ems.httpcache.EmployeeChangeCounter;
+import com.bright.ems.routing.PrimaryReads;
+import com.bright.ems.routing.ReadAffinity;
+import com.bright.ems.sharding.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical reads share one database query. The first caller for an operation and
+ * key runs the query on its own thread; callers arriving while it runs wait for its result, or its
+ * exception, instead of querying again. A flight is only joined by callers that see the same
+ * {@link EmployeeChangeCounter} count as its leader did, so a read that starts after a write has
+ * committed never gets rows queried before that write, and only by callers on the same shard. A
+ * caller pinned to the primary ({@link PrimaryReads}) never joins a flight that may read a replica,
+ * and a caller whose reads are kept on one database ({@link ReadAffinity}) only joins flights of
+ * callers kept on the same one.
+ * <p>
+ * A caller waits at most maxWait and then runs the query itself. If the leader fails because its
+ * thread was interrupted, the waiting callers query on their own rather than inherit that failure.
+ * Results are handed to every caller of a flight, so they must not be modified.
+ * <p>
+ * Outcomes are counted in {@code ems.single-flight.calls}, tagged by operation and by outcome:
+ * executed (led a query), shared (got a leader's result) or timed-out.
+ */
+@Component
+public class SingleFlight {
+
+    private final EmployeeChangeCounter employeeChangeCounter;
+    private final SingleFlightProperties singleFlightProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Flight, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final Map<String, Outcomes> outcomes = new ConcurrentHashMap<>();
+
+    public SingleFlight(EmployeeChangeCounter employeeChangeCounter, SingleFlightProperties singleFlightProperties, MeterRegistry meterRegistry) {
+        this.employeeChangeCounter = employeeChangeCounter;
+        this.singleFlightProperties = singleFlightProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private record Flight(String operation, Object key, Integer shard, boolean primary, String route, long changeCount) {
+    }
+
+    private record Outcomes(Counter executed, Counter shared, Counter timedOut) {
+    }
+
+    /**
+     * @param operation Name of the read, e.g. the repository method
+     * @param key       Argument identifying the result; flights with equal keys are shared
+     * @param query     Runs the read
+     * @return The result of this caller's query or of the one it joined
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String operation, Object key, Supplier<V> query) {
+        if (!singleFlightProperties.enabled()) {
+            return query.get();
+        }
+        Outcomes counters = outcomes(operation);
+        Flight flight = new Flight(operation, key, ShardContext.current(), PrimaryReads.pinned(), ReadAffinity.route(),
+                employeeChangeCounter.current());
+        CompletableFuture<Object> ours = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(flight, ours);
+        if (inFlight == null) {
+            counters.executed().increment();
+            return lead(flight, ours, query);
+        }
+        try {
+            V value = (V) inFlight.get(singleFlightProperties.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+            counters.shared().increment();
+            return value;
+        } catch (TimeoutException e) {
+            counters.timedOut().increment();
+            return query.get();
+        } catch (CancellationException e) {
+            counters.executed().increment();
+            return query.get();
+        } catch (ExecutionException e) {
+            counters.shared().increment();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for a shared lookup", e);
+        }
+    }
+
+    private <V> V lead(Flight flight, CompletableFuture<Object> ours, Supplier<V> query) {
+        try {
+            V value = query.get();
+            ours.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Our caller gave up; that is no reason for the others to fail
+                ours.cancel(false);
+            } else {
+                ours.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            flights.remove(flight, ours);
+        }
+    }
+
+    /**
+     * @return Callers blocked on an in-flight query of the operation and key, for tests
+     */
+    int waiting(String operation, Object key) {
+        int waiting = 0;
+        for (Map.Entry<Flight, CompletableFuture<Object>> entry : flights.entrySet()) {
+            if (entry.getKey().operation().equals(operation) && entry.getKey().key().equals(key)) {
+                waiting += entry.getValue().getNumberOfDependents();
+            }
+        }
+        return waiting;
+    }
+
+    private Outcomes outcomes(String operation) {
+        Outcomes counters = outcomes.get(operation);
+        if (counters == null) {
+            counters = outcomes.computeIfAbsent(operation, name -> new Outcomes(
+                    counter(name, "executed"), counter(name, "shared"), counter(name, "timed-out")));
+        }
+        return counters;
+    }
+
+    private Counter counter(String operation, String outcome) {
+        return Counter.builder("ems.single-flight.calls")
+                .description("Coalesced database reads by outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
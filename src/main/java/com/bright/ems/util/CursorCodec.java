@@ -0,0 +1,40 @@
+package com.bright.ems.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Encodes a keyset position into an opaque, URL-safe cursor token and back.
+ */
+public final class CursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    public static String encode(long position) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(position).array());
+    }
+
+    /**
+     * @param cursor A token previously produced by {@link #encode(long)}
+     * @return The decoded keyset position
+     * @throws ResponseStatusException with 400 if the token is malformed
+     */
+    public static long decode(String cursor) {
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                throw new IllegalArgumentException("Unexpected cursor length");
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.bright.ems.util;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the CSV written by {@link EmployeeCsvWriter} one record at a time, so an upload of any
+ * size is parsed with constant memory. Blank lines are skipped and empty fields read as null. A
+ * record is only read when it is asked for, so a malformed record never costs the one before it.
+ */
+public class EmployeeCsvReader implements Iterator<EmployeeRequestDto> {
+
+    private static final int FIELDS = 4;
+
+    private final Reader reader;
+    private long record;
+    private List<String> nextFields;
+    private boolean readAhead;
+
+    /**
+     * @param reader A buffered reader positioned at the header line
+     * @throws ResponseStatusException with 400 if the header is not {@link EmployeeCsvWriter#HEADER}
+     */
+    public EmployeeCsvReader(Reader reader) {
+        this.reader = reader;
+        List<String> header = readNonBlankRecord();
+        if (header == null || !EmployeeCsvWriter.HEADER.equals(String.join(",", header))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must be " + EmployeeCsvWriter.HEADER);
+        }
+    }
+
+    /**
+     * @throws ResponseStatusException with 400 if the next record is malformed
+     */
+    @Override
+    public boolean hasNext() {
+        if (!readAhead) {
+            nextFields = readNonBlankRecord();
+            readAhead = true;
+        }
+        return nextFields != null;
+    }
+
+    /**
+     * @throws ResponseStatusException with 400 if the record does not have exactly four fields
+     */
+    @Override
+    public EmployeeRequestDto next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<String> fields = nextFields;
+        readAhead = false;
+        if (fields.size() != FIELDS) {
+            throw malformed("expected " + FIELDS + " fields");
+        }
+        return new EmployeeRequestDto(fields.get(1), fields.get(2), fields.get(0), fields.get(3));
+    }
+
+    private List<String> readNonBlankRecord() {
+        try {
+            List<String> fields = readRecord();
+            while (fields != null && fields.size() == 1 && fields.getFirst() == null) {
+                fields = readRecord();
+            }
+            return fields;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        record++;
+        List<String> fields = new ArrayList<>(FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw malformed("unterminated quoted field");
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(toValue(field));
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(toValue(field));
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private ResponseStatusException malformed(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed CSV record " + record + ": " + reason);
+    }
+
+    private static String toValue(StringBuilder field) {
+        return field.isEmpty() ? null : field.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.bright.ems.util;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes employees as RFC 4180 CSV, one record per employee after a header line.
+ * Fields containing a comma, quote or line break are quoted; null fields are left empty.
+ */
+public class EmployeeCsvWriter implements Closeable {
+
+    public static final String HEADER = "email,firstName,lastName,departmentCode";
+
+    private final Writer writer;
+
+    public EmployeeCsvWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    public void write(EmployeeRequestDto employeeRequestDto) throws IOException {
+        writeField(employeeRequestDto.email());
+        writer.write(',');
+        writeField(employeeRequestDto.firstName());
+        writer.write(',');
+        writeField(employeeRequestDto.lastName());
+        writer.write(',');
+        writeField(employeeRequestDto.departmentCode());
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,46 @@
+package com.bright.ems.util;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The employee's version as a strong ETag, and If-Match headers as the version a write is
+ * conditional on. Shared by the servlet and the reactive employee controllers.
+ */
+public final class EmployeeETags {
+
+    private EmployeeETags() {
+    }
+
+    public static ResponseEntity<EmployeeResponseDto> withETag(EmployeeResponseDto employeeResponseDto, HttpStatus status) {
+        ResponseEntity.BodyBuilder bodyBuilder = ResponseEntity.status(status);
+        if (employeeResponseDto.version() != null) {
+            bodyBuilder.eTag(Long.toString(employeeResponseDto.version()));
+        }
+        return bodyBuilder.body(employeeResponseDto);
+    }
+
+    /**
+     * Turns an If-Match header into the version the write is conditional on.
+     *
+     * @param ifMatch The header value, may be null
+     * @return The required version, or null when the header is absent or "*"
+     * @throws ResponseStatusException with 412 for tags that can never match one of our strong ETags
+     */
+    public static Long toExpectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+            try {
+                return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through to 412
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current version");
+    }
+}
@@ -0,0 +1,56 @@
+package com.bright.ems.util;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Iterator;
+
+/**
+ * Reads NDJSON one employee per line through Jackson's {@link MappingIterator}, reporting a line that
+ * is not valid JSON or does not map to an employee as 400, like {@link EmployeeCsvReader} does for CSV.
+ * Other read failures, e.g. a dropped connection, are passed on unchanged.
+ */
+public class EmployeeNdjsonReader implements Iterator<EmployeeRequestDto> {
+
+    private final MappingIterator<EmployeeRequestDto> mappingIterator;
+
+    public EmployeeNdjsonReader(MappingIterator<EmployeeRequestDto> mappingIterator) {
+        this.mappingIterator = mappingIterator;
+    }
+
+    /**
+     * @throws ResponseStatusException with 400 if the next line is malformed
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            return mappingIterator.hasNext();
+        } catch (RuntimeException e) {
+            throw malformedOrRethrow(e);
+        }
+    }
+
+    /**
+     * @throws ResponseStatusException with 400 if the line is malformed
+     */
+    @Override
+    public EmployeeRequestDto next() {
+        try {
+            return mappingIterator.next();
+        } catch (RuntimeException e) {
+            throw malformedOrRethrow(e);
+        }
+    }
+
+    // MappingIterator wraps mapping and parse errors, both JsonProcessingExceptions, in unchecked exceptions
+    private RuntimeException malformedOrRethrow(RuntimeException e) {
+        if (!(e.getCause() instanceof JsonProcessingException jsonProcessingException)) {
+            return e;
+        }
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed NDJSON line "
+                + mappingIterator.getCurrentLocation().getLineNr() + ": " + jsonProcessingException.getOriginalMessage(), e);
+    }
+}
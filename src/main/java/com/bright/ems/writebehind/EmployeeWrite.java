@@ -0,0 +1,90 @@
+package com.bright.ems.writebehind;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A queued employee write and the callers waiting for it. Coalescing folds later writes for the
+ * same email into an earlier one, which then completes every caller with its outcome. A write is
+ * accepted once any of its callers has been answered 202, so no client will see its outcome.
+ */
+final class EmployeeWrite {
+
+    enum Kind {
+        CREATE, UPDATE, DELETE
+    }
+
+    private final Kind kind;
+    private final String email;
+    private EmployeeRequestDto employeeRequestDto;
+    private final Long expectedVersion;
+    private boolean accepted;
+    private final List<CompletableFuture<Optional<EmployeeResponseDto>>> results = new ArrayList<>(1);
+
+    EmployeeWrite(Kind kind, String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion, boolean accepted) {
+        this.kind = kind;
+        this.email = email;
+        this.employeeRequestDto = employeeRequestDto;
+        this.expectedVersion = expectedVersion;
+        this.accepted = accepted;
+        this.results.add(new CompletableFuture<>());
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    String email() {
+        return email;
+    }
+
+    EmployeeRequestDto employeeRequestDto() {
+        return employeeRequestDto;
+    }
+
+    Long expectedVersion() {
+        return expectedVersion;
+    }
+
+    boolean accepted() {
+        return accepted;
+    }
+
+    CompletableFuture<Optional<EmployeeResponseDto>> result() {
+        return results.getFirst();
+    }
+
+    /**
+     * Last write wins: an unconditional replace (PUT) of an email supersedes a pending unconditional
+     * replace of the same email, so only the later one is written and both callers get its outcome.
+     * Creates, deletes and conditional writes depend on the state before them and are never folded.
+     *
+     * @return true if the later write was folded into this one
+     */
+    boolean absorb(EmployeeWrite later) {
+        if (kind != Kind.UPDATE || later.kind != Kind.UPDATE || expectedVersion != null || later.expectedVersion != null) {
+            return false;
+        }
+        employeeRequestDto = later.employeeRequestDto;
+        accepted |= later.accepted;
+        results.addAll(later.results);
+        return true;
+    }
+
+    void complete(Optional<EmployeeResponseDto> employeeResponseDto) {
+        for (CompletableFuture<Optional<EmployeeResponseDto>> result : results) {
+            result.complete(employeeResponseDto);
+        }
+    }
+
+    void fail(Throwable throwable) {
+        for (CompletableFuture<Optional<EmployeeResponseDto>> result : results) {
+            result.completeExceptionally(throwable);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.bright.ems.writebehind;
+
+import com.bright.ems.config.WriteBehindProperties;
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.service.EmployeeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in write-behind pipeline (ems.write-behind.enabled=true). Callers put creates, updates and
+ * deletes on a bounded queue and get a future; a single writer thread drains up to maxBatchSize
+ * writes or whatever arrived within maxDelay, folds superseded replaces of the same email, and
+ * applies the batch through {@link EmployeeService} inside one transaction. The service methods
+ * join that transaction, so cache updates and change events still follow the commit, and a batch
+ * costs one commit instead of one per write.
+ * <p>
+ * A write refused with a {@link ResponseStatusException} (404, 412) has written nothing and leaves
+ * the transaction usable, so it fails alone and the rest of the batch commits. If any other failure
+ * reaches the batch, it is rolled back and its writes are retried one per transaction, so only the
+ * failing write reports an error. A failed write whose caller was already answered 202 has nobody
+ * to report to, so it is logged at WARN and counted in ems.write-behind.failed instead.
+ * <p>
+ * The queue runs in {@link #PHASE}, below the web server, so it starts before the first request and
+ * stops only after the server has finished the requests still waiting for their writes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ems.write-behind", name = "enabled", havingValue = "true")
+public class EmployeeWriteBehindQueue implements SmartLifecycle {
+
+    // The web server starts and stops in SMART_LIFECYCLE_PHASE - 1024
+    public static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final EmployeeService employeeService;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindProperties writeBehindProperties;
+    private final BlockingQueue<EmployeeWrite> queue;
+    private final LongAdder commits = new LongAdder();
+    private final Map<EmployeeWrite.Kind, Counter> acceptedFailures = new EnumMap<>(EmployeeWrite.Kind.class);
+    private volatile boolean running;
+    private Thread writer;
+
+    public EmployeeWriteBehindQueue(EmployeeService employeeService, PlatformTransactionManager transactionManager, WriteBehindProperties writeBehindProperties, MeterRegistry meterRegistry) {
+        this.employeeService = employeeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeBehindProperties = writeBehindProperties;
+        this.queue = new ArrayBlockingQueue<>(writeBehindProperties.queueCapacity());
+        for (EmployeeWrite.Kind kind : EmployeeWrite.Kind.values()) {
+            acceptedFailures.put(kind, Counter.builder("ems.write-behind.failed")
+                    .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @param accepted Whether the caller answers 202 without waiting for the outcome
+     */
+    public CompletableFuture<Optional<EmployeeResponseDto>> create(EmployeeRequestDto employeeRequestDto, boolean accepted) {
+        return enqueue(new EmployeeWrite(EmployeeWrite.Kind.CREATE, employeeRequestDto.email(), employeeRequestDto, null, accepted));
+    }
+
+    /**
+     * @param accepted Whether the caller answers 202 without waiting for the outcome
+     */
+    public CompletableFuture<Optional<EmployeeResponseDto>> update(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion, boolean accepted) {
+        return enqueue(new EmployeeWrite(EmployeeWrite.Kind.UPDATE, email, employeeRequestDto, expectedVersion, accepted));
+    }
+
+    /**
+     * @param accepted Whether the caller answers 202 without waiting for the outcome
+     * @return A future completed with an empty result once the delete is committed
+     */
+    public CompletableFuture<Optional<EmployeeResponseDto>> delete(String email, Long expectedVersion, boolean accepted) {
+        return enqueue(new EmployeeWrite(EmployeeWrite.Kind.DELETE, email, null, expectedVersion, accepted));
+    }
+
+    /**
+     * Waits up to the await timeout for a queued write, rethrowing its failure (e.g. a 412 or 404
+     * ResponseStatusException) as is.
+     *
+     * @throws ResponseStatusException with 503 if the write is not committed within the await timeout
+     */
+    public <T> T await(CompletableFuture<T> queuedWrite) {
+        try {
+            return queuedWrite.get(writeBehindProperties.awaitTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write was not committed in time", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the write", e);
+        }
+    }
+
+    /**
+     * @return Number of transactions committed by the writer thread
+     */
+    public long commits() {
+        return commits.sum();
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("employee-write-behind").daemon().start(this::drain);
+    }
+
+    /**
+     * Stops taking writes and lets the writer commit what is already queued.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * @throws ResponseStatusException with 503 if the queue stays full for the offer timeout
+     */
+    private CompletableFuture<Optional<EmployeeResponseDto>> enqueue(EmployeeWrite employeeWrite) {
+        if (!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write queue is shutting down");
+        }
+        try {
+            if (!queue.offer(employeeWrite, writeBehindProperties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while queueing the write", e);
+        }
+        return employeeWrite.result();
+    }
+
+    private void drain() {
+        int maxBatchSize = writeBehindProperties.maxBatchSize();
+        List<EmployeeWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                EmployeeWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + writeBehindProperties.maxDelay().toNanos();
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    EmployeeWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Treated as a stop request; what is queued is still committed
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                commit(coalesce(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    private static List<EmployeeWrite> coalesce(List<EmployeeWrite> batch) {
+        Map<String, List<EmployeeWrite>> writesByEmail = new LinkedHashMap<>();
+        for (EmployeeWrite employeeWrite : batch) {
+            List<EmployeeWrite> writes = writesByEmail.computeIfAbsent(employeeWrite.email(), email -> new ArrayList<>(1));
+            if (writes.isEmpty() || !writes.getLast().absorb(employeeWrite)) {
+                writes.add(employeeWrite);
+            }
+        }
+        List<EmployeeWrite> coalesced = new ArrayList<>(batch.size());
+        writesByEmail.values().forEach(coalesced::addAll);
+        return coalesced;
+    }
+
+    private void commit(List<EmployeeWrite> writes) {
+        try {
+            List<Optional<EmployeeResponseDto>> results = new ArrayList<>(writes.size());
+            List<ResponseStatusException> refusals = new ArrayList<>(writes.size());
+            transactionTemplate.executeWithoutResult(status -> {
+                for (EmployeeWrite employeeWrite : writes) {
+                    try {
+                        results.add(apply(employeeWrite));
+                        refusals.add(null);
+                    } catch (ResponseStatusException e) {
+                        if (status.isRollbackOnly()) {
+                            throw e;
+                        }
+                        results.add(null);
+                        refusals.add(e);
+                    }
+                }
+            });
+            commits.increment();
+            for (int i = 0; i < writes.size(); i++) {
+                if (refusals.get(i) == null) {
+                    writes.get(i).complete(results.get(i));
+                } else {
+                    fail(writes.get(i), refusals.get(i));
+                }
+            }
+        } catch (RuntimeException batchFailure) {
+            log.debug("Write-behind batch of {} failed, retrying its writes one by one", writes.size(), batchFailure);
+            for (EmployeeWrite employeeWrite : writes) {
+                try {
+                    Optional<EmployeeResponseDto> result = transactionTemplate.execute(status -> apply(employeeWrite));
+                    commits.increment();
+                    employeeWrite.complete(result);
+                } catch (RuntimeException e) {
+                    fail(employeeWrite, e);
+                }
+            }
+        }
+    }
+
+    private void fail(EmployeeWrite employeeWrite, RuntimeException e) {
+        if (employeeWrite.accepted()) {
+            log.warn("Write-behind {} of {} failed after it was accepted", employeeWrite.kind(), employeeWrite.email(), e);
+            acceptedFailures.get(employeeWrite.kind()).increment();
+        } else {
+            log.debug("Write-behind {} of {} failed", employeeWrite.kind(), employeeWrite.email(), e);
+        }
+        employeeWrite.fail(e);
+    }
+
+    private Optional<EmployeeResponseDto> apply(EmployeeWrite employeeWrite) {
+        return switch (employeeWrite.kind()) {
+            case CREATE -> employeeService.createEmployee(employeeWrite.employeeRequestDto());
+            case UPDATE -> employeeService.updateEmployee(employeeWrite.email(), employeeWrite.employeeRequestDto(), employeeWrite.expectedVersion());
+            case DELETE -> {
+                employeeService.deleteEmployee(employeeWrite.email(), employeeWrite.expectedVersion());
+                yield Optional.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.bright.ems.controller;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.service.ReactiveEmployeeService;
+import com.bright.ems.util.EmployeeETags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The /api/v1/employees contract of {@link EmployeeController} on WebFlux, active with the reactive
+ * profile. List endpoints return a {@link Flux} that WebFlux writes element by element, as a JSON
+ * array or as NDJSON on /stream, pulling rows from R2DBC only as fast as the client reads them.
+ * Bulk create, export/import and the write-behind queue stay on the servlet profile.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/employees")
+@RequiredArgsConstructor
+public class ReactiveEmployeeController {
+
+    private final ReactiveEmployeeService reactiveEmployeeService;
+
+    @GetMapping
+    public Flux<EmployeeResponseDto> getAllEmployees() {
+        return reactiveEmployeeService.getAllEmployees();
+    }
+
+    @GetMapping("/page")
+    public Mono<ResponseEntity<EmployeePageResponseDto>> getEmployeePage(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size,
+                                                                         ServerHttpRequest request) {
+        return reactiveEmployeeService.getEmployeePage(cursor, size)
+                .map(employeePageResponseDto -> withNextLink(employeePageResponseDto, request));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<EmployeePageResponseDto>> searchEmployees(@RequestParam String q, @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+                                                                         ServerHttpRequest request) {
+        return reactiveEmployeeService.searchEmployees(q, limit, cursor)
+                .map(employeePageResponseDto -> withNextLink(employeePageResponseDto, request));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeResponseDto> streamAllEmployees() {
+        return reactiveEmployeeService.getAllEmployees();
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<EmployeeResponseDto>> createEmployee(@RequestBody EmployeeRequestDto employeeRequestDto) {
+        return reactiveEmployeeService.createEmployee(employeeRequestDto)
+                .map(employeeResponseDto -> EmployeeETags.withETag(employeeResponseDto, HttpStatus.CREATED))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+    }
+
+    /**
+     * The response carries the employee's version as a strong ETag. A matching If-None-Match is answered
+     * with 304 and no body by WebFlux's ResponseEntity handling.
+     */
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<EmployeeResponseDto>> getEmployeeByEmail(@PathVariable String email) {
+        return reactiveEmployeeService.findByEmail(email)
+                .map(employeeResponseDto -> EmployeeETags.withETag(employeeResponseDto, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/{firstName}")
+    public Mono<ResponseEntity<EmployeeResponseDto>> getEmployeeByFirstName(@PathVariable String firstName) {
+        return reactiveEmployeeService.findByFirstName(firstName)
+                .next()
+                .map(employeeResponseDto -> new ResponseEntity<>(employeeResponseDto, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/department/{departmentCode}")
+    public Flux<EmployeeResponseDto> getEmployeesByDepartmentCode(@PathVariable String departmentCode) {
+        return reactiveEmployeeService.findByDepartmentCode(departmentCode);
+    }
+
+    @GetMapping(value = "/names", params = "firstName")
+    public Flux<EmployeeResponseDto> getEmployeesByFirstNamePrefix(@RequestParam("firstName") String prefix) {
+        return reactiveEmployeeService.findByFirstNamePrefix(prefix);
+    }
+
+    @GetMapping(value = "/names", params = {"lastName", "!firstName"})
+    public Flux<EmployeeResponseDto> getEmployeesByLastNamePrefix(@RequestParam("lastName") String prefix) {
+        return reactiveEmployeeService.findByLastNamePrefix(prefix);
+    }
+
+    @PutMapping("/{email}")
+    public Mono<ResponseEntity<EmployeeResponseDto>> updateEmployee(@PathVariable String email, @RequestBody EmployeeRequestDto employeeRequestDto,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> reactiveEmployeeService.updateEmployee(email, employeeRequestDto, EmployeeETags.toExpectedVersion(ifMatch)))
+                .map(employeeResponseDto -> EmployeeETags.withETag(employeeResponseDto, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PatchMapping("/{email}")
+    public Mono<ResponseEntity<EmployeeResponseDto>> updateEmployeePartially(@PathVariable String email, @RequestBody EmployeeRequestDto employeeRequestDto,
+                                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> reactiveEmployeeService.updateEmployeePartially(email, employeeRequestDto, EmployeeETags.toExpectedVersion(ifMatch)))
+                .map(employeeResponseDto -> EmployeeETags.withETag(employeeResponseDto, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @DeleteMapping("/{email}")
+    public Mono<ResponseEntity<Void>> deleteEmployee(@PathVariable String email,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> reactiveEmployeeService.deleteEmployee(email, EmployeeETags.toExpectedVersion(ifMatch)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    /**
+     * Points a Link rel="next" header at the current request with the next page's cursor.
+     */
+    private static ResponseEntity<EmployeePageResponseDto> withNextLink(EmployeePageResponseDto employeePageResponseDto, ServerHttpRequest request) {
+        if (employeePageResponseDto.nextCursor() == null) {
+            return new ResponseEntity<>(employeePageResponseDto, HttpStatus.OK);
+        }
+        String next = UriComponentsBuilder.fromUri(request.getURI())
+                .replaceQueryParam("cursor", employeePageResponseDto.nextCursor())
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(employeePageResponseDto);
+    }
+}
@@ -0,0 +1,194 @@
+package com.bright.ems.repository;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.model.Employee;
+import com.bright.ems.repository.projection.EmployeeRow;
+import com.bright.ems.repository.projection.EmployeeVersionRow;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the employees table over R2DBC, for the reactive profile. The SQL mirrors
+ * the JPQL of {@link EmployeeRepository}, including the version bump and the optional version
+ * condition of every write. Rows are read as the driver delivers them, so a subscriber's demand
+ * limits how far ahead of it the result is fetched.
+ * <p>
+ * New ids come straight from employees_seq. Hibernate's pooled optimizer only uses ids at or below
+ * the values it has drawn from the sequence, so both can insert into the same table.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveEmployeeRepository {
+
+    private static final String RESPONSE_COLUMNS = "select first_name, last_name, department_code, version from employees";
+
+    private final DatabaseClient databaseClient;
+    private final String nextIdSql;
+
+    public ReactiveEmployeeRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        this.nextIdSql = "PostgreSQL".equals(databaseClient.getConnectionFactory().getMetadata().getName())
+                ? "select nextval('employees_seq')"
+                : "select next value for employees_seq";
+    }
+
+    public Flux<EmployeeResponseDto> findAll() {
+        return databaseClient.sql(RESPONSE_COLUMNS + " order by employee_id")
+                .map(ReactiveEmployeeRepository::toResponseDto)
+                .all();
+    }
+
+    public Flux<EmployeeRow> findRowsAfter(long employeeId, int limit) {
+        return databaseClient.sql("select employee_id, first_name, last_name, email, department_code, version from employees where employee_id > :employeeId order by employee_id limit :limit")
+                .bind("employeeId", employeeId)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toRow)
+                .all();
+    }
+
+    public Flux<EmployeeResponseDto> findByFirstName(String firstName) {
+        return databaseClient.sql(RESPONSE_COLUMNS + " where first_name = :firstName")
+                .bind("firstName", firstName)
+                .map(ReactiveEmployeeRepository::toResponseDto)
+                .all();
+    }
+
+    public Flux<EmployeeResponseDto> findByDepartmentCode(String departmentCode) {
+        return databaseClient.sql(RESPONSE_COLUMNS + " where department_code = :departmentCode order by last_name, first_name")
+                .bind("departmentCode", departmentCode)
+                .map(ReactiveEmployeeRepository::toResponseDto)
+                .all();
+    }
+
+    public Flux<EmployeeResponseDto> findByFirstNamePrefix(String prefix) {
+        return databaseClient.sql(RESPONSE_COLUMNS + " where first_name_lower like :pattern escape '!' order by first_name_lower")
+                .bind("pattern", Employee.toPrefixPattern(prefix))
+                .map(ReactiveEmployeeRepository::toResponseDto)
+                .all();
+    }
+
+    public Flux<EmployeeResponseDto> findByLastNamePrefix(String prefix) {
+        return databaseClient.sql(RESPONSE_COLUMNS + " where last_name_lower like :pattern escape '!' order by last_name_lower")
+                .bind("pattern", Employee.toPrefixPattern(prefix))
+                .map(ReactiveEmployeeRepository::toResponseDto)
+                .all();
+    }
+
+    public Mono<EmployeeResponseDto> findByEmail(String email) {
+        return databaseClient.sql(RESPONSE_COLUMNS + " where email = :email")
+                .bind("email", email)
+                .map(ReactiveEmployeeRepository::toResponseDto)
+                .one();
+    }
+
+    public Mono<String> findDepartmentCodeByEmail(String email) {
+        return databaseClient.sql("select department_code from employees where email = :email")
+                .bind("email", email)
+                .map(row -> row.get("department_code", String.class))
+                .one();
+    }
+
+    public Mono<EmployeeVersionRow> findVersionRowByEmail(String email) {
+        return databaseClient.sql("select employee_id, department_code, version from employees where email = :email")
+                .bind("email", email)
+                .map(row -> new EmployeeVersionRow(row.get("employee_id", Long.class), row.get("department_code", String.class), row.get("version", Long.class)))
+                .one();
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select 1 from employees where email = :email")
+                .bind("email", email)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * @return The new employee's id
+     */
+    public Mono<Long> insert(EmployeeRequestDto employeeRequestDto) {
+        return databaseClient.sql(nextIdSql)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(employeeId -> bindNames(databaseClient.sql("insert into employees (employee_id, first_name, last_name, email, department_code, first_name_lower, last_name_lower, version) values (:employeeId, :firstName, :lastName, :email, :departmentCode, :firstNameLower, :lastNameLower, 0)")
+                        .bind("employeeId", employeeId)
+                        .bind("email", employeeRequestDto.email()), employeeRequestDto)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(employeeId));
+    }
+
+    /**
+     * @return The number of updated rows
+     */
+    public Mono<Long> updateByEmail(String email, EmployeeRequestDto employeeRequestDto, Long version) {
+        String sql = "update employees set first_name = :firstName, last_name = :lastName, department_code = :departmentCode, first_name_lower = :firstNameLower, last_name_lower = :lastNameLower, version = version + 1 where email = :email";
+        return bindVersion(bindNames(databaseClient.sql(version == null ? sql : sql + " and version = :version")
+                .bind("email", email), employeeRequestDto), version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Null fields of the request leave the column unchanged.
+     *
+     * @return The number of updated rows
+     */
+    public Mono<Long> patchByEmail(String email, EmployeeRequestDto employeeRequestDto, Long version) {
+        String sql = "update employees set first_name = coalesce(:firstName, first_name), last_name = coalesce(:lastName, last_name), department_code = coalesce(:departmentCode, department_code), first_name_lower = coalesce(:firstNameLower, first_name_lower), last_name_lower = coalesce(:lastNameLower, last_name_lower), version = version + 1 where email = :email";
+        return bindVersion(bindNames(databaseClient.sql(version == null ? sql : sql + " and version = :version")
+                .bind("email", email), employeeRequestDto), version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @return The number of deleted rows
+     */
+    public Mono<Long> deleteByEmail(String email, Long version) {
+        String sql = "delete from employees where email = :email";
+        return bindVersion(databaseClient.sql(version == null ? sql : sql + " and version = :version")
+                .bind("email", email), version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNames(DatabaseClient.GenericExecuteSpec spec, EmployeeRequestDto employeeRequestDto) {
+        spec = bindNullable(spec, "firstName", employeeRequestDto.firstName());
+        spec = bindNullable(spec, "lastName", employeeRequestDto.lastName());
+        spec = bindNullable(spec, "departmentCode", employeeRequestDto.departmentCode());
+        spec = bindNullable(spec, "firstNameLower", Employee.toLowerCase(employeeRequestDto.firstName()));
+        return bindNullable(spec, "lastNameLower", Employee.toLowerCase(employeeRequestDto.lastName()));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindVersion(DatabaseClient.GenericExecuteSpec spec, Long version) {
+        return version == null ? spec : spec.bind("version", version);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    private static EmployeeResponseDto toResponseDto(Readable row) {
+        return new EmployeeResponseDto(
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("department_code", String.class),
+                row.get("version", Long.class));
+    }
+
+    private static EmployeeRow toRow(Readable row) {
+        return new EmployeeRow(
+                row.get("employee_id", Long.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                row.get("department_code", String.class),
+                row.get("version", Long.class));
+    }
+}
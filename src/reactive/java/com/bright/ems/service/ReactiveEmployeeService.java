@@ -0,0 +1,22 @@
+package com.bright.ems.service;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeService {
+    Mono<EmployeeResponseDto> createEmployee(EmployeeRequestDto employeeRequestDto);
+    Flux<EmployeeResponseDto> getAllEmployees();
+    Mono<EmployeePageResponseDto> getEmployeePage(String cursor, Integer size);
+    Flux<EmployeeResponseDto> findByFirstName(String firstName);
+    Flux<EmployeeResponseDto> findByDepartmentCode(String departmentCode);
+    Flux<EmployeeResponseDto> findByFirstNamePrefix(String prefix);
+    Flux<EmployeeResponseDto> findByLastNamePrefix(String prefix);
+    Mono<EmployeeResponseDto> findByEmail(String email);
+    Mono<EmployeePageResponseDto> searchEmployees(String query, Integer limit, String cursor);
+    Mono<EmployeeResponseDto> updateEmployee(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion);
+    Mono<EmployeeResponseDto> updateEmployeePartially(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion);
+    Mono<Void> deleteEmployee(String email, Long expectedVersion);
+}
@@ -0,0 +1,242 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.config.PaginationProperties;
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.repository.ReactiveEmployeeRepository;
+import com.bright.ems.repository.projection.EmployeeRow;
+import com.bright.ems.search.EmployeeSearchIndex;
+import com.bright.ems.service.ReactiveEmployeeService;
+import com.bright.ems.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link EmployeeServiceImpl} with the same rules: creates of a taken email
+ * come back empty, writes honour the expected version, and every write publishes an
+ * {@link EmployeeChangedEvent} for the department counters and the search index. Each write is a
+ * single auto-committed statement, so no reactive transaction manager is involved. Reads go to the
+ * database; the employee cache and the read replica belong to the servlet profile.
+ * <p>
+ * Event listeners run synchronously on the publishing thread and may block on locks, so events are
+ * published on {@link Schedulers#boundedElastic()} rather than on the Netty event loop.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private static final int UNCONDITIONAL_WRITE_ATTEMPTS = 3;
+
+    private final ReactiveEmployeeRepository reactiveEmployeeRepository;
+    private final PaginationProperties paginationProperties;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * @return The created employee, or empty if the email is missing or already taken
+     */
+    @Override
+    public Mono<EmployeeResponseDto> createEmployee(EmployeeRequestDto employeeRequestDto) {
+        if (employeeRequestDto.email() == null) {
+            return Mono.empty();
+        }
+        return reactiveEmployeeRepository.existsByEmail(employeeRequestDto.email())
+                .filter(exists -> !exists)
+                .flatMap(free -> reactiveEmployeeRepository.insert(employeeRequestDto))
+                // Lost a race for the email against a concurrent create
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty())
+                .flatMap(employeeId -> {
+                    EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto(employeeRequestDto.firstName(), employeeRequestDto.lastName(), employeeRequestDto.departmentCode(), 0L);
+                    return publish(EmployeeChangedEvent.created(employeeId, employeeRequestDto.email(), employeeResponseDto))
+                            .thenReturn(employeeResponseDto);
+                });
+    }
+
+    /**
+     * Streams every employee in employeeId order, fetching rows as the subscriber requests them.
+     */
+    @Override
+    public Flux<EmployeeResponseDto> getAllEmployees() {
+        return reactiveEmployeeRepository.findAll();
+    }
+
+    /**
+     * Same keyset paging and cursors as {@link EmployeeServiceImpl#getEmployeePage(String, Integer)}.
+     */
+    @Override
+    public Mono<EmployeePageResponseDto> getEmployeePage(String cursor, Integer size) {
+        long afterId = cursor == null ? 0L : CursorCodec.decode(cursor);
+        int pageSize = size == null
+                ? paginationProperties.defaultSize()
+                : Math.clamp(size, 1, paginationProperties.maxSize());
+        return reactiveEmployeeRepository.findRowsAfter(afterId, pageSize)
+                .collectList()
+                .map(employeeRows -> {
+                    List<EmployeeResponseDto> employeeResponseDtos = employeeRows.stream().map(EmployeeRow::toResponseDto).toList();
+                    String nextCursor = employeeRows.size() < pageSize ? null : CursorCodec.encode(employeeRows.getLast().employeeId());
+                    return new EmployeePageResponseDto(employeeResponseDtos, nextCursor);
+                });
+    }
+
+    @Override
+    public Flux<EmployeeResponseDto> findByFirstName(String firstName) {
+        return reactiveEmployeeRepository.findByFirstName(firstName);
+    }
+
+    @Override
+    public Flux<EmployeeResponseDto> findByDepartmentCode(String departmentCode) {
+        return reactiveEmployeeRepository.findByDepartmentCode(departmentCode);
+    }
+
+    @Override
+    public Flux<EmployeeResponseDto> findByFirstNamePrefix(String prefix) {
+        return reactiveEmployeeRepository.findByFirstNamePrefix(prefix);
+    }
+
+    @Override
+    public Flux<EmployeeResponseDto> findByLastNamePrefix(String prefix) {
+        return reactiveEmployeeRepository.findByLastNamePrefix(prefix);
+    }
+
+    @Override
+    public Mono<EmployeeResponseDto> findByEmail(String email) {
+        return reactiveEmployeeRepository.findByEmail(email);
+    }
+
+    /**
+     * Answered from the in-memory trigram index, which never blocks on I/O.
+     */
+    @Override
+    public Mono<EmployeePageResponseDto> searchEmployees(String query, Integer limit, String cursor) {
+        return Mono.fromCallable(() -> employeeSearchIndex.search(query, limit, cursor));
+    }
+
+    /**
+     * Reads the employee's department and version and updates it on that version, like the servlet
+     * service, so the response is the request at the next version without reading the row back.
+     *
+     * @return The updated employee, or empty if no employee has this email
+     * @throws ResponseStatusException with 412 if the employee exists with a different version,
+     *                                 409 if concurrent updates kept changing it
+     */
+    @Override
+    public Mono<EmployeeResponseDto> updateEmployee(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion) {
+        return updateEmployee(email, employeeRequestDto, expectedVersion, 1);
+    }
+
+    private Mono<EmployeeResponseDto> updateEmployee(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion, int attempt) {
+        return reactiveEmployeeRepository.findVersionRowByEmail(email)
+                .flatMap(current -> {
+                    if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Employee was modified concurrently"));
+                    }
+                    return reactiveEmployeeRepository.updateByEmail(email, employeeRequestDto, current.version()).flatMap(updatedRows -> {
+                        if (updatedRows == 1) {
+                            EmployeeResponseDto updatedEmployee = new EmployeeResponseDto(employeeRequestDto.firstName(), employeeRequestDto.lastName(),
+                                    employeeRequestDto.departmentCode(), current.version() + 1);
+                            return publish(EmployeeChangedEvent.updated(email, current.departmentCode(), updatedEmployee)).thenReturn(updatedEmployee);
+                        }
+                        // Updated or deleted since the read; the next read tells which
+                        if (attempt == UNCONDITIONAL_WRITE_ATTEMPTS) {
+                            return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Employee is being modified concurrently"));
+                        }
+                        return updateEmployee(email, employeeRequestDto, expectedVersion, attempt + 1);
+                    });
+                });
+    }
+
+    /**
+     * @return The updated employee, or empty if no employee has this email
+     * @throws ResponseStatusException with 412 if the employee exists with a different version
+     */
+    @Override
+    public Mono<EmployeeResponseDto> updateEmployeePartially(String email, EmployeeRequestDto employeeRequestDto, Long expectedVersion) {
+        return currentDepartmentCode(email).flatMap(previousDepartmentCode -> reactiveEmployeeRepository.patchByEmail(email, employeeRequestDto, expectedVersion)
+                .flatMap(updatedRows -> updatedRows == 0
+                        ? notUpdated(email, expectedVersion)
+                        : updated(email, previousDepartmentCode.orElse(null))));
+    }
+
+    /**
+     * Reads the employee's id, department and version and deletes it on that version, like the
+     * servlet service, so the event names the row version it removed.
+     *
+     * @throws ResponseStatusException with 404 if no employee has this email, 412 if its version differs,
+     *                                 409 if concurrent updates kept changing it
+     */
+    @Override
+    public Mono<Void> deleteEmployee(String email, Long expectedVersion) {
+        return deleteEmployee(email, expectedVersion, 1);
+    }
+
+    private Mono<Void> deleteEmployee(String email, Long expectedVersion, int attempt) {
+        return reactiveEmployeeRepository.findVersionRowByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found")))
+                .flatMap(current -> {
+                    if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Employee was modified concurrently"));
+                    }
+                    return reactiveEmployeeRepository.deleteByEmail(email, current.version()).flatMap(deletedRows -> {
+                        if (deletedRows == 1) {
+                            return publish(EmployeeChangedEvent.deleted(current.employeeId(), email, current.departmentCode(), current.version()));
+                        }
+                        // Updated or deleted since the read; the next read tells which
+                        if (attempt == UNCONDITIONAL_WRITE_ATTEMPTS) {
+                            return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Employee is being modified concurrently"));
+                        }
+                        return deleteEmployee(email, expectedVersion, attempt + 1);
+                    });
+                });
+    }
+
+    /**
+     * Reads the row back after an update and publishes it.
+     */
+    private Mono<EmployeeResponseDto> updated(String email, String previousDepartmentCode) {
+        return reactiveEmployeeRepository.findByEmail(email)
+                .flatMap(updatedEmployee -> publish(EmployeeChangedEvent.updated(email, previousDepartmentCode, updatedEmployee))
+                        .thenReturn(updatedEmployee));
+    }
+
+    private Mono<Void> publish(EmployeeChangedEvent event) {
+        return Mono.fromRunnable(() -> applicationEventPublisher.publishEvent(event))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * Department the employee is in before a write, for the department headcounts.
+     */
+    private Mono<Optional<String>> currentDepartmentCode(String email) {
+        return reactiveEmployeeRepository.findDepartmentCodeByEmail(email)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    /**
+     * A conditional write that touched no row either lost the race on the version or had no row to touch.
+     */
+    private Mono<EmployeeResponseDto> notUpdated(String email, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return reactiveEmployeeRepository.existsByEmail(email)
+                .flatMap(exists -> exists
+                        ? Mono.<EmployeeResponseDto>error(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Employee was modified concurrently"))
+                        : Mono.<EmployeeResponseDto>empty());
+    }
+}
@@ -0,0 +1,81 @@
+package com.bright.ems.controller;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.service.ReactiveEmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(ReactiveEmployeeController.class)
+@ActiveProfiles("reactive")
+class ReactiveEmployeeControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveEmployeeService reactiveEmployeeService;
+
+    @Test
+    @DisplayName("Test for streaming all employees as a JSON array")
+    void whenGetAllEmployees_thenReturnResponses() {
+        //Given
+        Mockito.when(reactiveEmployeeService.getAllEmployees()).thenReturn(Flux.just(
+                new EmployeeResponseDto("John", "Smith", "Compro"),
+                new EmployeeResponseDto("Jane", "Smith", "MBA")));
+        //When
+        webTestClient.get().uri("/api/v1/employees")
+                .exchange()
+                //Then
+                .expectStatus().isOk()
+                .expectBodyList(EmployeeResponseDto.class)
+                .hasSize(2)
+                .contains(new EmployeeResponseDto("Jane", "Smith", "MBA"));
+    }
+
+    @Test
+    @DisplayName("Test for get employee by email with its version as ETag")
+    void givenEmail_whenGetEmployeeByEmail_thenReturnResponseWithETag() {
+        //Given
+        Mockito.when(reactiveEmployeeService.findByEmail("john.smith@gmail.com"))
+                .thenReturn(Mono.just(new EmployeeResponseDto("John", "Smith", "Compro", 3L)));
+        Mockito.when(reactiveEmployeeService.findByEmail("nobody@gmail.com")).thenReturn(Mono.empty());
+        //When
+        webTestClient.get().uri("/api/v1/employees/email/john.smith@gmail.com")
+                .exchange()
+                //Then
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody().jsonPath("$.firstName").isEqualTo("John");
+        webTestClient.get().uri("/api/v1/employees/email/nobody@gmail.com")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Test for update employee with a stale If-Match")
+    void givenStaleIfMatch_whenUpdateEmployee_thenReturnPreconditionFailed() {
+        //Given
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "MBA");
+        Mockito.when(reactiveEmployeeService.updateEmployee("john.smith@gmail.com", employeeRequestDto, 2L))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED)));
+        //When
+        webTestClient.put().uri("/api/v1/employees/john.smith@gmail.com")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .bodyValue(employeeRequestDto)
+                .exchange()
+                //Then
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+}
@@ -0,0 +1,140 @@
+package com.bright.ems.admission;
+
+import com.bright.ems.config.AdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionFilterTest {
+
+    private static final String EXPORT = "/api/v1/employees/export";
+    private static final String EMPLOYEES = "/api/v1/employees";
+    private static final String CHANGES = "/api/v1/employees/changes";
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionFilter admissionFilter;
+
+    @BeforeEach
+    void setUp() {
+        // One bulk request and ten reads at a time, one request per second per client with no burst on top
+        AdmissionProperties admissionProperties = new AdmissionProperties(true, 200, 50, 1, 10, 1, 2.0, 100,
+                List.of(EXPORT), List.of(CHANGES), 1, 1, "X-Client-Id", 100, Duration.ofMillis(1500));
+        meterRegistry = new SimpleMeterRegistry();
+        admissionFilter = new AdmissionFilter(new AdmissionControl(admissionProperties, meterRegistry), admissionProperties);
+    }
+
+    @Test
+    @DisplayName("Test for rejecting a client over its rate with 429, telling clients apart by header or address")
+    void givenClientOverRate_whenRequest_thenTooManyRequests() throws ServletException, IOException {
+        // Given: A client named by the header that has used its one request
+        assertEquals(HttpStatus.OK.value(), send("GET", EMPLOYEES, "client-a", "10.0.0.1", new MockFilterChain()).getStatus());
+        // When: It sends another, from a new address, next to a second named client and an unnamed one
+        MockHttpServletResponse sameClient = send("GET", EMPLOYEES, "client-a", "10.0.0.2", new MockFilterChain());
+        MockHttpServletResponse otherClient = send("GET", EMPLOYEES, "client-b", "10.0.0.1", new MockFilterChain());
+        MockHttpServletResponse unnamedClient = send("GET", EMPLOYEES, null, "10.0.0.1", new MockFilterChain());
+        // Then: Only the named client over its rate waits, about a second, and the rejection is counted
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), sameClient.getStatus());
+        assertEquals("1", sameClient.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK.value(), otherClient.getStatus());
+        assertEquals(HttpStatus.OK.value(), unnamedClient.getStatus());
+        assertEquals(1.0, meterRegistry.get("ems.admission.rejected").tag("group", "read").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test for rejecting a request over its group's limit with 503 while other groups are admitted")
+    void givenBulkSlotTaken_whenRequests_thenOnlyBulkRejected() throws ServletException, IOException {
+        // Given: An export holding the only bulk slot
+        MockHttpServletRequest export = request("GET", EXPORT, "client-a", "10.0.0.1");
+        admissionFilter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        // When: Another export, a read and a write arrive
+        MockHttpServletResponse secondExport = send("GET", EXPORT, "client-b", "10.0.0.1", new MockFilterChain());
+        MockHttpServletResponse read = send("GET", EMPLOYEES, "client-c", "10.0.0.1", new MockFilterChain());
+        MockHttpServletResponse write = send("POST", EMPLOYEES, "client-d", "10.0.0.1", new MockFilterChain());
+        // Then: Only the export is rejected, with the configured Retry-After rounded up to whole seconds
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), secondExport.getStatus());
+        assertEquals("2", secondExport.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK.value(), read.getStatus());
+        assertEquals(HttpStatus.OK.value(), write.getStatus());
+        assertEquals(1.0, meterRegistry.get("ems.admission.rejected").tag("group", "bulk").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test for holding an async request's slot until it completes")
+    void givenAsyncExport_whenCompleted_thenSlotReleased() throws ServletException, IOException {
+        // Given: An export that went async, as a StreamingResponseBody does
+        MockHttpServletRequest export = request("GET", EXPORT, "client-a", "10.0.0.1");
+        admissionFilter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        // When: A second export arrives before and after the first one completes, followed by a late timeout
+        MockHttpServletResponse beforeCompletion = send("GET", EXPORT, "client-b", "10.0.0.1", new MockFilterChain());
+        MockAsyncContext asyncContext = (MockAsyncContext) export.getAsyncContext();
+        asyncContext.complete();
+        asyncContext.getListeners().getFirst().onTimeout(null);
+        MockHttpServletResponse afterCompletion = send("GET", EXPORT, "client-c", "10.0.0.1", new MockFilterChain());
+        // Then: The slot was held while the stream ran and freed by its completion, once
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), beforeCompletion.getStatus());
+        assertEquals(HttpStatus.OK.value(), afterCompletion.getStatus());
+        assertEquals(0.0, meterRegistry.get("ems.admission.in-flight").tag("group", "bulk").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Test for admitting ordinary reads while more long polls are parked than the read limit allows")
+    void givenParkedLongPolls_whenRead_thenAdmitted() throws ServletException, IOException {
+        // Given: Twenty long polls parked, twice the read limit
+        for (int i = 0; i < 20; i++) {
+            MockHttpServletRequest longPoll = request("GET", CHANGES, "poller-" + i, "10.0.0.1");
+            admissionFilter.doFilter(longPoll, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+            assertTrue(longPoll.isAsyncStarted());
+        }
+        // When: Ordinary reads arrive
+        MockHttpServletResponse read = send("GET", EMPLOYEES, "client-a", "10.0.0.1", new MockFilterChain());
+        MockHttpServletResponse secondRead = send("GET", EMPLOYEES, "client-b", "10.0.0.1", new MockFilterChain());
+        // Then: They are admitted and the long polls took no read slot
+        assertEquals(HttpStatus.OK.value(), read.getStatus());
+        assertEquals(HttpStatus.OK.value(), secondRead.getStatus());
+        assertEquals(0.0, meterRegistry.get("ems.admission.in-flight").tag("group", "read").gauge().value());
+        assertTrue(meterRegistry.find("ems.admission.in-flight").tag("group", "long_poll").gauges().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test for still rate limiting long polls")
+    void givenClientOverRate_whenLongPoll_thenTooManyRequests() throws ServletException, IOException {
+        // Given: A client that has used its one request on a long poll
+        assertEquals(HttpStatus.OK.value(), send("GET", CHANGES, "client-a", "10.0.0.1", new MockFilterChain()).getStatus());
+        // When: It polls again right away
+        MockHttpServletResponse secondPoll = send("GET", CHANGES, "client-a", "10.0.0.1", new MockFilterChain());
+        // Then: The poll is rejected by the rate limit
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), secondPoll.getStatus());
+        assertEquals(1.0, meterRegistry.get("ems.admission.rejected").tag("group", "long_poll").tag("reason", "rate").counter().count());
+    }
+
+    private MockHttpServletResponse send(String method, String path, String client, String remoteAddress, FilterChain chain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        admissionFilter.doFilter(request(method, path, client, remoteAddress), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String client, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddress);
+        request.setAsyncSupported(true);
+        if (client != null) {
+            request.addHeader("X-Client-Id", client);
+        }
+        return request;
+    }
+}
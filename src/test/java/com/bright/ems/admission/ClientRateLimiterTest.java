@@ -0,0 +1,40 @@
+package com.bright.ems.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    @Test
+    @DisplayName("Test for admitting a burst and then asking the client to wait")
+    void givenBurst_whenExceeded_thenWait() {
+        // Given: One request per second with a burst of three
+        ClientRateLimiter clientRateLimiter = new ClientRateLimiter(1, 3, 100);
+        // When: A client sends four requests at once
+        long first = clientRateLimiter.tryAcquire("10.0.0.1");
+        long second = clientRateLimiter.tryAcquire("10.0.0.1");
+        long third = clientRateLimiter.tryAcquire("10.0.0.1");
+        long fourth = clientRateLimiter.tryAcquire("10.0.0.1");
+        // Then: The burst is admitted and the fourth has to wait for the next token, about a second
+        assertEquals(0, first + second + third);
+        assertTrue(fourth > TimeUnit.MILLISECONDS.toNanos(900) && fourth <= TimeUnit.SECONDS.toNanos(1), "Wait: " + fourth);
+    }
+
+    @Test
+    @DisplayName("Test for limiting each client on its own")
+    void givenExhaustedClient_whenOtherClient_thenAdmitted() {
+        // Given: A client that used up its single-request burst
+        ClientRateLimiter clientRateLimiter = new ClientRateLimiter(1, 1, 100);
+        assertEquals(0, clientRateLimiter.tryAcquire("10.0.0.1"));
+        // When: It and another client send a request
+        long sameClient = clientRateLimiter.tryAcquire("10.0.0.1");
+        long otherClient = clientRateLimiter.tryAcquire("10.0.0.2");
+        // Then: Only the other client is admitted
+        assertTrue(sameClient > 0);
+        assertEquals(0, otherClient);
+    }
+}
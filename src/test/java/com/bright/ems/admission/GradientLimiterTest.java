@@ -0,0 +1,76 @@
+package com.bright.ems.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimiterTest {
+
+    @Test
+    @DisplayName("Test for rejecting requests over the limit until one is released")
+    void givenFullLimit_whenTryAcquire_thenRejectUntilRelease() {
+        // Given: A limit of two, both in use
+        GradientLimiter limiter = new GradientLimiter(2, 1, 10, 2.0, 100);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        // When: A third request arrives before and after a release
+        boolean beforeRelease = limiter.tryAcquire();
+        limiter.release();
+        boolean afterRelease = limiter.tryAcquire();
+        // Then: Only the one after the release is admitted
+        assertFalse(beforeRelease);
+        assertTrue(afterRelease);
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Test for growing the limit at steady latency and shrinking it when latency rises")
+    void givenLatency_whenWindowsClose_thenLimitFollows() {
+        // Given: A limiter kept busy at its limit
+        GradientLimiter limiter = new GradientLimiter(10, 1, 100, 2.0, 10);
+        // When: Requests keep taking 1 ms, then take 10 ms for a few windows
+        saturate(limiter, TimeUnit.MILLISECONDS.toNanos(1), 20);
+        int grown = limiter.limit();
+        saturate(limiter, TimeUnit.MILLISECONDS.toNanos(10), 5);
+        int shrunk = limiter.limit();
+        // Then: The limit grew while latency was steady and fell back when it rose
+        assertTrue(grown > 10, "Limit did not grow: " + grown);
+        assertTrue(shrunk < grown, "Limit did not shrink: " + shrunk);
+        assertTrue(shrunk >= 1);
+    }
+
+    @Test
+    @DisplayName("Test for not growing the limit while most of it is unused")
+    void givenLightLoad_whenWindowsClose_thenLimitUnchanged() {
+        // Given: A limiter of ten that only ever runs one request at a time
+        GradientLimiter limiter = new GradientLimiter(10, 1, 100, 2.0, 10);
+        // When: Many fast requests complete
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        // Then: The limit stays where it was
+        assertEquals(10, limiter.limit());
+    }
+
+    /**
+     * Keeps the limiter at its limit for the given number of windows, every request taking rttNanos.
+     */
+    private static void saturate(GradientLimiter limiter, long rttNanos, int windows) {
+        while (limiter.tryAcquire()) {
+            // fill up to the limit
+        }
+        for (int i = 0; i < windows * 10; i++) {
+            limiter.release(rttNanos);
+            while (limiter.tryAcquire()) {
+                // refill, the limit may have grown
+            }
+        }
+        while (limiter.inFlight() > 0) {
+            limiter.release();
+        }
+    }
+}
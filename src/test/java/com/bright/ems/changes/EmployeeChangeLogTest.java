@@ -0,0 +1,73 @@
+package com.bright.ems.changes;
+
+import com.bright.ems.dto.response.EmployeeChangeDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeChangeLogTest {
+
+    private static final Instant CHANGED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Test for reading changes after an offset")
+    void givenAppendedChanges_whenRead_thenReturnChangesAfterOffset() {
+        try (EmployeeChangeLog employeeChangeLog = new EmployeeChangeLog(directory, 1 << 20, 4)) {
+            // Given: A create, an update and a delete of one employee, with a non-ASCII name
+            employeeChangeLog.append(EmployeeChangedEvent.Type.CREATED, "zoe@example.com", new EmployeeResponseDto("Zoë", "Smith", "Compro", 0L), 0L, CHANGED_AT);
+            employeeChangeLog.append(EmployeeChangedEvent.Type.UPDATED, "zoe@example.com", new EmployeeResponseDto("Zoë", "Ångström", "MBA", 1L), 1L, CHANGED_AT);
+            long lastOffset = employeeChangeLog.append(EmployeeChangedEvent.Type.DELETED, "zoe@example.com", null, 1L, CHANGED_AT);
+            // When: Reading from the start and after the first change
+            List<EmployeeChangeDto> all = employeeChangeLog.read(0, 10);
+            List<EmployeeChangeDto> afterFirst = employeeChangeLog.read(1, 1);
+            // Then: Offsets start at 1 and every field comes back
+            assertEquals(3, lastOffset);
+            assertEquals(List.of(
+                    new EmployeeChangeDto(1, EmployeeChangedEvent.Type.CREATED, "zoe@example.com", new EmployeeResponseDto("Zoë", "Smith", "Compro", 0L), 0L, CHANGED_AT),
+                    new EmployeeChangeDto(2, EmployeeChangedEvent.Type.UPDATED, "zoe@example.com", new EmployeeResponseDto("Zoë", "Ångström", "MBA", 1L), 1L, CHANGED_AT),
+                    new EmployeeChangeDto(3, EmployeeChangedEvent.Type.DELETED, "zoe@example.com", null, 1L, CHANGED_AT)), all);
+            assertEquals(List.of(all.get(1)), afterFirst);
+            assertTrue(employeeChangeLog.read(3, 10).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Test for rolling segments, deleting the oldest and reopening the log")
+    void givenFullSegments_whenAppendAndReopen_thenKeepNewestSegmentsAndOffsets() {
+        // Given: Segments of 16KB, of which two are kept
+        try (EmployeeChangeLog employeeChangeLog = new EmployeeChangeLog(directory, 16384, 2)) {
+            // When: Appending enough changes for several segments
+            for (int i = 0; i < 500; i++) {
+                employeeChangeLog.append(EmployeeChangedEvent.Type.CREATED, "employee" + i + "@example.com", new EmployeeResponseDto("First" + i, "Last" + i, "D" + (i % 10), 0L), 0L, CHANGED_AT);
+            }
+            employeeChangeLog.force();
+            // Then: Only the newest changes are left and a read from the start begins at the oldest of them
+            long firstOffset = employeeChangeLog.firstOffset();
+            assertTrue(firstOffset > 1);
+            assertEquals(firstOffset, employeeChangeLog.read(0, 1).getFirst().offset());
+            assertEquals(500, employeeChangeLog.lastOffset());
+        }
+        // When: Reopening the log and appending to it
+        try (EmployeeChangeLog employeeChangeLog = new EmployeeChangeLog(directory, 16384, 2)) {
+            long offset = employeeChangeLog.append(EmployeeChangedEvent.Type.DELETED, "employee0@example.com", null, 0L, CHANGED_AT);
+            List<EmployeeChangeDto> changes = employeeChangeLog.read(299, 1000);
+            // Then: Offsets continue where they stopped and a read seeks past the sparse index positions
+            assertEquals(501, offset);
+            assertEquals(300, changes.getFirst().offset());
+            assertEquals("employee299@example.com", changes.getFirst().email());
+            assertEquals(202, changes.size());
+            assertEquals(501, changes.getLast().offset());
+        }
+    }
+}
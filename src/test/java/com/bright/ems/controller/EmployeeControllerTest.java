@@ -1,9 +1,14 @@
 package com.bright.ems.controller;
 
+import com.bright.ems.dto.request.EmployeeLookupRequestDto;
 import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeLookupResponseDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
 import com.bright.ems.dto.response.EmployeeResponseDto;
 import com.bright.ems.service.EmployeeService;
-import com.google.gson.Gson;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -20,11 +25,15 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @WebMvcTest(EmployeeController.class)
 class EmployeeControllerTest {
 
+    // Absent fields are left out, so expected bodies only constrain what the test sets
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -47,12 +56,34 @@ class EmployeeControllerTest {
         )
                 //then
                 .andExpectAll(
-                        MockMvcResultMatchers.content().json(new Gson().toJson(employeeResponseDtos)),
+                        MockMvcResultMatchers.content().json(toJson(employeeResponseDtos)),
                         MockMvcResultMatchers.status().isOk()
                 )
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("Test for get a page of employees with a next link")
+    void givenCursor_whenGetPage_thenReturnPageWithNextLink() throws Exception {
+        //Given
+        EmployeePageResponseDto employeePageResponseDto = new EmployeePageResponseDto(
+                List.of(new EmployeeResponseDto("John", "Smith", "Compro")),
+                "AAAAAAAAAAI"
+        );
+        Mockito.when(employeeService.getEmployeePage("AAAAAAAAAAE", 1)).thenReturn(employeePageResponseDto);
+        //When
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/v1/employees/page")
+                        .param("cursor", "AAAAAAAAAAE")
+                        .param("size", "1")
+        )
+                .andDo(MockMvcResultHandlers.print())
+                //Then
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Link", "<http://localhost/api/v1/employees/page?size=1&cursor=AAAAAAAAAAI>; rel=\"next\""))
+                .andExpect(MockMvcResultMatchers.content().json(toJson(employeePageResponseDto)));
+    }
+
     @Test
     void givenEmployeeRequest_whenCreate_thenReturnSavedResponse() throws Exception {
         //Given
@@ -64,11 +95,11 @@ class EmployeeControllerTest {
         mockMvc.perform(
                 MockMvcRequestBuilders.post("/api/v1/employees")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(new Gson().toJson(employeeRequestDto))
+                        .content(toJson(employeeRequestDto))
         )
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isCreated())
-                .andExpect(MockMvcResultMatchers.content().json(new Gson().toJson(employeeResponseDto)));
+                .andExpect(MockMvcResultMatchers.content().json(toJson(employeeResponseDto)));
     }
 
     @Test
@@ -81,7 +112,7 @@ class EmployeeControllerTest {
         mockMvc.perform(
                 MockMvcRequestBuilders.post("/api/v1/employees")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(new Gson().toJson(employeeRequestDto))
+                .content(toJson(employeeRequestDto))
         )
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
@@ -101,7 +132,7 @@ class EmployeeControllerTest {
                 .andDo(MockMvcResultHandlers.print())
                 //Then
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.content().json(new Gson().toJson(employeeResponseDto)));
+                .andExpect(MockMvcResultMatchers.content().json(toJson(employeeResponseDto)));
     }
 
     @Test
@@ -125,7 +156,7 @@ class EmployeeControllerTest {
     void givenExistingEmail_whenDelete_thenReturnNoContent() throws Exception {
         //Given
         String email = "john.smith@gmail.com";
-        Mockito.doNothing().when(employeeService).deleteEmployee(email);
+        Mockito.doNothing().when(employeeService).deleteEmployee(email, null);
         mockMvc.perform(
                 MockMvcRequestBuilders.delete("/api/v1/employees/{email}", email)
         )
@@ -136,7 +167,7 @@ class EmployeeControllerTest {
     @Test
     void givenNonExistingEmail_whenDelete_thenReturnNotFound() throws Exception {
         String email = "john.smith@gmail.com";
-        Mockito.doThrow(new ResponseStatusException(HttpStatus.NOT_FOUND)).when(employeeService).deleteEmployee(email);
+        Mockito.doThrow(new ResponseStatusException(HttpStatus.NOT_FOUND)).when(employeeService).deleteEmployee(email, null);
         mockMvc.perform(
                 MockMvcRequestBuilders.delete("/api/v1/employees/{email}", email)
         )
@@ -151,13 +182,81 @@ class EmployeeControllerTest {
         EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro");
         EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto("John", "Smith", "Compro");
 
-        Mockito.when(employeeService.updateEmployee(email, employeeRequestDto)).thenReturn(Optional.of(employeeResponseDto));
+        Mockito.when(employeeService.updateEmployee(email, employeeRequestDto, null)).thenReturn(Optional.of(employeeResponseDto));
         mockMvc.perform(
                 MockMvcRequestBuilders.put("/api/v1/employees/{email}", email)
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(new Gson().toJson(employeeRequestDto))
+                .content(toJson(employeeRequestDto))
         )
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test for ETag on get by email and 304 on a matching If-None-Match")
+    void givenCurrentETag_whenGetByEmail_thenReturnNotModified() throws Exception {
+        //Given
+        String email = "john.smith@gmail.com";
+        EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto("John", "Smith", "Compro", 3L);
+        Mockito.when(employeeService.findByEmail(email)).thenReturn(Optional.of(employeeResponseDto));
+        //When
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/v1/employees/email/{email}", email)
+        )
+                //Then
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""));
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/v1/employees/email/{email}", email)
+                        .header("If-None-Match", "\"3\"")
+        )
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    @DisplayName("Test for update with a stale If-Match")
+    void givenStaleIfMatch_whenUpdate_thenReturnPreconditionFailed() throws Exception {
+        //Given
+        String email = "john.smith@gmail.com";
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("John", "Smith", email, "Compro");
+        Mockito.when(employeeService.updateEmployee(email, employeeRequestDto, 2L))
+                .thenThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED));
+        //When
+        mockMvc.perform(
+                MockMvcRequestBuilders.put("/api/v1/employees/{email}", email)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(employeeRequestDto))
+        )
+                .andDo(MockMvcResultHandlers.print())
+                //Then
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Test for batch lookup by email")
+    void givenEmails_whenLookup_thenReturnFoundAndMissing() throws Exception {
+        //Given
+        List<String> emails = List.of("john.smith@gmail.com", "nobody@gmail.com");
+        EmployeeLookupResponseDto employeeLookupResponseDto = new EmployeeLookupResponseDto(
+                Map.of("john.smith@gmail.com", new EmployeeResponseDto("John", "Smith", "Compro")),
+                List.of("nobody@gmail.com"));
+        Mockito.when(employeeService.lookupEmployees(emails)).thenReturn(employeeLookupResponseDto);
+        //When
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/v1/employees/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(new EmployeeLookupRequestDto(emails)))
+        )
+                .andDo(MockMvcResultHandlers.print())
+                //Then
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json(toJson(employeeLookupResponseDto)));
+    }
+
+    private static String toJson(Object value) throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsString(value);
+    }
+}
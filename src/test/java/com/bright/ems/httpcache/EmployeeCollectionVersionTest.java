@@ -0,0 +1,86 @@
+package com.bright.ems.httpcache;
+
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.replica.EmployeeReplica;
+import com.bright.ems.repository.EmployeeChangeCountRepository;
+import com.bright.ems.sharding.Shards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeCollectionVersionTest {
+
+    @Mock
+    private EmployeeChangeCountRepository employeeChangeCountRepository;
+
+    @Mock
+    private EmployeeReplica employeeReplica;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final EmployeeChangeCounter employeeChangeCounter = new EmployeeChangeCounter();
+    private EmployeeCollectionVersion employeeCollectionVersion;
+
+    @BeforeEach
+    void setUp() {
+        employeeCollectionVersion = new EmployeeCollectionVersion(employeeChangeCountRepository, employeeChangeCounter,
+                employeeReplica, new Shards(Optional.empty()), transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Test for counting a transaction once, just before it commits")
+    void givenSeveralChangesInTransaction_whenCommit_thenOneIncrement() {
+        // Given: A transaction that changes three employees
+        Mockito.when(employeeChangeCountRepository.increment(ArgumentMatchers.anyInt())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        employeeCollectionVersion.onEmployeeChanged(EmployeeChangedEvent.deleted(1L, "john.smith@gmail.com", "D1", 0L));
+        employeeCollectionVersion.onEmployeeChanged(EmployeeChangedEvent.deleted(1L, "jane.smith@gmail.com", "D1", 0L));
+        employeeCollectionVersion.onEmployeeChanged(EmployeeChangedEvent.deleted(1L, "jack.smith@gmail.com", "D2", 0L));
+        Mockito.verify(employeeChangeCountRepository, Mockito.never()).increment(ArgumentMatchers.anyInt());
+        // When: The transaction commits
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        // Then: One slot was bumped and the transaction's marker is gone
+        Mockito.verify(employeeChangeCountRepository).increment(ArgumentMatchers.intThat(slot -> slot >= 0 && slot < EmployeeCollectionVersion.SLOTS));
+        assertFalse(TransactionSynchronizationManager.hasResource(employeeCollectionVersion));
+    }
+
+    @Test
+    @DisplayName("Test for adding the local change count while the in-memory replica serves the lists")
+    void givenReadyReplica_whenCurrent_thenLocalCountAppended() {
+        // Given: Committed changes in the database
+        Mockito.when(employeeChangeCountRepository.total()).thenReturn(42L);
+        // When: Taking the version without and with the in-memory replica
+        String withoutReplica = employeeCollectionVersion.current();
+        Mockito.when(employeeReplica.isReady()).thenReturn(true);
+        String withReplica = employeeCollectionVersion.current();
+        // Then: Only the replica's version carries this instance's count
+        assertEquals("42", withoutReplica);
+        assertEquals("42." + employeeChangeCounter.current(), withReplica);
+    }
+}
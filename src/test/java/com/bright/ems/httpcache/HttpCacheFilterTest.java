@@ -0,0 +1,100 @@
+package com.bright.ems.httpcache;
+
+import com.bright.ems.config.HttpCacheProperties;
+import com.bright.ems.routing.PrimaryReads;
+import com.bright.ems.routing.ReadAffinity;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCacheFilterTest {
+
+    private final AtomicLong committedChanges = new AtomicLong();
+    private HttpCacheFilter httpCacheFilter;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeCollectionVersion employeeCollectionVersion = Mockito.mock(EmployeeCollectionVersion.class);
+        Mockito.when(employeeCollectionVersion.current()).thenAnswer(invocation -> String.valueOf(committedChanges.get()));
+        httpCacheFilter = new HttpCacheFilter(employeeCollectionVersion, new HttpCacheProperties(
+                List.of("/api/v1/employees", "/api/v1/employees/department/*"), "no-cache",
+                Map.of("/api/v1/employees/email/*", "private, max-age=5")));
+    }
+
+    @Test
+    @DisplayName("Test for answering an unchanged list with 304 until an employee changes")
+    void givenCurrentETag_whenGetList_thenNotModifiedUntilChange() throws ServletException, IOException {
+        // Given: The ETag of a first, full response
+        MockHttpServletResponse first = get("/api/v1/employees/department/D1", null);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+        // When: Revalidating before and after a committed change
+        MockHttpServletResponse unchanged = get("/api/v1/employees/department/D1", eTag);
+        committedChanges.incrementAndGet();
+        MockHttpServletResponse changed = get("/api/v1/employees/department/D1", eTag);
+        // Then: Only the revalidation before the change is a 304, and every response carries the policy
+        assertTrue(eTag.startsWith("W/\""));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), unchanged.getStatus());
+        assertEquals(HttpStatus.OK.value(), changed.getStatus());
+        assertNotEquals(eTag, changed.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-cache", unchanged.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    @DisplayName("Test for applying a per-endpoint policy without a collection ETag")
+    void givenEndpointPolicy_whenGetEmployee_thenCacheControlWithoutETag() throws ServletException, IOException {
+        // When: Getting a single employee and an unconfigured endpoint
+        MockHttpServletResponse byEmail = get("/api/v1/employees/email/john.smith@gmail.com", null);
+        MockHttpServletResponse byFirstName = get("/api/v1/employees/John", null);
+        // Then: Only the configured endpoint gets a Cache-Control, neither gets the collection ETag
+        assertEquals("private, max-age=5", byEmail.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertNull(byEmail.getHeader(HttpHeaders.ETAG));
+        assertNull(byFirstName.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    @DisplayName("Test for keeping the reads of a tagged list on one database without pinning them to the primary")
+    void givenCollectionPath_whenGetList_thenReadsKeptTogether() throws ServletException, IOException {
+        // When: Getting a list and a single employee, noting how the controller would read
+        AtomicReference<String> listRoute = new AtomicReference<>();
+        AtomicBoolean listPinned = new AtomicBoolean();
+        AtomicReference<String> employeeRoute = new AtomicReference<>();
+        httpCacheFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/employees"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    listRoute.set(ReadAffinity.route());
+                    listPinned.set(PrimaryReads.pinned());
+                });
+        httpCacheFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/employees/email/john.smith@gmail.com"), new MockHttpServletResponse(),
+                (request, response) -> employeeRoute.set(ReadAffinity.route()));
+        // Then: Only the list keeps its reads together, free to use a replica, and only for the request
+        assertNotNull(listRoute.get());
+        assertFalse(listPinned.get());
+        assertNull(employeeRoute.get());
+        assertNull(ReadAffinity.route());
+    }
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        httpCacheFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bright.ems.json;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeJsonCodecTest {
+
+    private final EmployeeJsonCodec employeeJsonCodec = new EmployeeJsonCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Test for writing the same JSON as Jackson databinding")
+    void givenEmployees_whenWrite_thenMatchJackson() throws IOException {
+        // Given: Employees with a quote, a non-ASCII name, a null department and a version
+        EmployeePageResponseDto employeePageResponseDto = new EmployeePageResponseDto(List.of(
+                new EmployeeResponseDto("John \"Jack\"", "Smith", "Compro", 3L),
+                new EmployeeResponseDto("Zoë", "Müller", null)), "abc");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // When: Writing the page with the codec
+        employeeJsonCodec.writePage(employeePageResponseDto, outputStream);
+        // Then: The bytes are the ones Jackson writes, without the version
+        assertEquals(objectMapper.writeValueAsString(employeePageResponseDto), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test for reading request bodies and ignoring unknown fields")
+    void givenRequestJson_whenRead_thenBuildEmployeeRequests() throws IOException {
+        // Given: A bulk body with an unknown nested field, a missing field and a null
+        String json = """
+                [{"firstName":"John","lastName":"Smith","email":"john.smith@gmail.com","departmentCode":"Compro","extra":{"a":[1,2]}},
+                 {"firstName":"Mary","email":"mary.johnson@gmail.com","departmentCode":null}]""";
+        // When: Reading it with the codec
+        List<EmployeeRequestDto> employeeRequestDtos = employeeJsonCodec.readEmployeeRequests(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        // Then: Both employees are read the way Jackson reads them
+        assertEquals(List.of(
+                new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro"),
+                new EmployeeRequestDto("Mary", null, "mary.johnson@gmail.com", null)), employeeRequestDtos);
+    }
+
+    @Test
+    @DisplayName("Test for rejecting a body that is not an employee object")
+    void givenMalformedJson_whenRead_thenThrowParseException() {
+        // Given: A field holding an object where a string is expected, and an array where an object is expected
+        byte[] nestedField = "{\"firstName\":{\"x\":1}}".getBytes(StandardCharsets.UTF_8);
+        byte[] array = "[\"John\"]".getBytes(StandardCharsets.UTF_8);
+        // When: Reading each of them
+        JsonParseException nestedFieldException = assertThrows(JsonParseException.class, () -> employeeJsonCodec.readEmployeeRequest(new ByteArrayInputStream(nestedField)));
+        JsonParseException arrayException = assertThrows(JsonParseException.class, () -> employeeJsonCodec.readEmployeeRequest(new ByteArrayInputStream(array)));
+        // Then: Both fail with a parse error naming what was expected
+        assertTrue(nestedFieldException.getOriginalMessage().contains("firstName"));
+        assertTrue(arrayException.getOriginalMessage().contains("employee object"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.bright.ems.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodTimingInterceptorTest {
+
+    interface Greeter {
+        String greet(String name);
+    }
+
+    @Test
+    @DisplayName("Test for timing successful and failed calls per method")
+    void givenAdvisedCalls_whenInvoked_thenRecordTimerPerOutcome() {
+        // Given: A proxy timed into a simple registry
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory((Greeter) name -> {
+            if (name == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+            }
+            return "Hello " + name;
+        });
+        proxyFactory.addInterface(Greeter.class);
+        proxyFactory.addAdvice(new MethodTimingInterceptor(
+                new StaticListableBeanFactory(Map.<String, Object>of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class),
+                "ems.test", "Greeter"));
+        Greeter greeter = (Greeter) proxyFactory.getProxy();
+        // When: Calling it twice successfully and once with a failure
+        greeter.greet("John");
+        greeter.greet("Jane");
+        assertThrows(ResponseStatusException.class, () -> greeter.greet(null));
+        // Then: Each outcome has its own timer and the meters are registered once
+        Timer success = meterRegistry.get("ems.test").tags("component", "Greeter", "method", "greet", "outcome", "success").timer();
+        Timer error = meterRegistry.get("ems.test").tags("component", "Greeter", "method", "greet", "outcome", "error").timer();
+        assertEquals(2, success.count());
+        assertEquals(1, error.count());
+        assertEquals(2, meterRegistry.get("ems.test").timers().size());
+    }
+}
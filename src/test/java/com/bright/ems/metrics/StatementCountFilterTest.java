@@ -0,0 +1,70 @@
+package com.bright.ems.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCountFilterTest {
+
+    private final StatementCountingInspector statementCountingInspector = new StatementCountingInspector();
+
+    @Test
+    @DisplayName("Test for counting the statements of a plain request")
+    void givenStatementsOnRequestThread_whenRequestEnds_thenRecorded() throws Exception {
+        // Given: A request issuing two statements on its thread
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StatementCountFilter statementCountFilter = new StatementCountFilter(meterRegistry);
+        // When: The request passes the filter
+        statementCountFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+            statementCountingInspector.inspect("select 1");
+            statementCountingInspector.inspect("select 2");
+        });
+        // Then: Both are recorded for the request and the thread no longer counts
+        DistributionSummary statements = meterRegistry.get("ems.http.jdbc.statements").summary();
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+        assertNull(StatementCountingInspector.current());
+    }
+
+    @Test
+    @DisplayName("Test for counting the statements of a streamed response when it completes")
+    void givenAsyncRequest_whenTaskIssuesStatements_thenRecordedOnComplete() throws Exception {
+        // Given: An async request that hands its streaming to a decorated executor task
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StatementCountFilter statementCountFilter = new StatementCountFilter(meterRegistry);
+        StatementCountingTaskDecorator statementCountingTaskDecorator = new StatementCountingTaskDecorator();
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest();
+        mockRequest.setAsyncSupported(true);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            // When: The request thread issues one statement and the task two more
+            statementCountFilter.doFilter(mockRequest, new MockHttpServletResponse(), (request, response) -> {
+                request.startAsync();
+                statementCountingInspector.inspect("select 1");
+                executorService.execute(statementCountingTaskDecorator.decorate(() -> {
+                    statementCountingInspector.inspect("select 2");
+                    statementCountingInspector.inspect("select 3");
+                }));
+            });
+            executorService.shutdown();
+            assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+            DistributionSummary statements = meterRegistry.get("ems.http.jdbc.statements").summary();
+            assertEquals(0, statements.count());
+            mockRequest.getAsyncContext().complete();
+            // Then: The request is recorded once, on completion, with all three statements
+            assertEquals(1, statements.count());
+            assertEquals(3, statements.totalAmount());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.bright.ems.replica;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeReplicaStoreTest {
+
+    private final EmployeeReplicaStore employeeReplicaStore = new EmployeeReplicaStore(16);
+
+    @AfterEach
+    void tearDown() {
+        employeeReplicaStore.close();
+    }
+
+    @Test
+    @DisplayName("Test for finding employees by email and department after growing the columns")
+    void givenManyEmployees_whenFind_thenReturnStoredValues() {
+        // Given: More employees than the initial capacity, one with a non-ASCII name
+        for (int i = 0; i < 1000; i++) {
+            employeeReplicaStore.upsert(i + 1, "employee" + i + "@example.com", "First" + i, "Last" + (999 - i), "D" + (i % 10), 0L);
+        }
+        employeeReplicaStore.upsert(1001, "zoë@example.com", "Zoë", "Ångström", "D0", 0L);
+        // When: Looking employees up
+        EmployeeResponseDto employee = employeeReplicaStore.findByEmail("employee42@example.com");
+        EmployeeResponseDto zoe = employeeReplicaStore.findByEmail("zoë@example.com");
+        List<EmployeeResponseDto> department = employeeReplicaStore.findByDepartmentCode("D0");
+        // Then: The stored values come back and the department is ordered by last name
+        assertEquals(new EmployeeResponseDto("First42", "Last957", "D2", 0L), employee);
+        assertEquals("Ångström", zoe.lastName());
+        assertNull(employeeReplicaStore.findByEmail("missing@example.com"));
+        assertEquals(101, department.size());
+        assertEquals("Last109", department.getFirst().lastName());
+        assertEquals("Ångström", department.getLast().lastName());
+        assertEquals(1001, employeeReplicaStore.size());
+    }
+
+    @Test
+    @DisplayName("Test for applying updates and deletes")
+    void givenStoredEmployee_whenUpdateAndDelete_thenReflectChanges() {
+        // Given: A stored employee
+        employeeReplicaStore.upsert(1, "john.smith@gmail.com", "John", "Smith", "Compro", 0L);
+        // When: Moving it to another department, replaying a stale version, then deleting it
+        employeeReplicaStore.upsert(EmployeeReplicaStore.NO_ID, "john.smith@gmail.com", "Johnathan", "Smith", "MBA", 1L);
+        employeeReplicaStore.upsert(EmployeeReplicaStore.NO_ID, "john.smith@gmail.com", "Jo", "Smith", "Compro", 0L);
+        EmployeeResponseDto updated = employeeReplicaStore.findByEmail("john.smith@gmail.com");
+        List<EmployeeResponseDto> compro = employeeReplicaStore.findByDepartmentCode("Compro");
+        boolean deleted = employeeReplicaStore.delete("john.smith@gmail.com", 1, 1L);
+        // Then: The newest version wins and the delete removes it from every index
+        assertEquals(new EmployeeResponseDto("Johnathan", "Smith", "MBA", 1L), updated);
+        assertTrue(compro.isEmpty());
+        assertTrue(deleted);
+        assertNull(employeeReplicaStore.findByEmail("john.smith@gmail.com"));
+        assertTrue(employeeReplicaStore.findByDepartmentCode("MBA").isEmpty());
+        assertTrue(employeeReplicaStore.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test for keeping a department in name order across inserts, renames and moves after the load")
+    void givenSortedDepartments_whenChanged_thenOrderKept() {
+        // Given: A loaded department, the first stored value an empty name, sorted once
+        employeeReplicaStore.upsert(1, "c@example.com", "", "Cole", "Compro", 0L);
+        employeeReplicaStore.upsert(2, "a@example.com", "Ann", "Adams", "Compro", 0L);
+        employeeReplicaStore.upsert(3, "e@example.com", "Eve", "Evans", "MBA", 0L);
+        employeeReplicaStore.sortDepartments();
+        // When: Inserting, renaming and moving employees
+        employeeReplicaStore.upsert(4, "b@example.com", "Bob", "Brown", "Compro", 0L);
+        employeeReplicaStore.upsert(EmployeeReplicaStore.NO_ID, "a@example.com", "Ann", "Zane", "Compro", 1L);
+        employeeReplicaStore.upsert(EmployeeReplicaStore.NO_ID, "e@example.com", "Eve", "Baker", "Compro", 1L);
+        employeeReplicaStore.upsert(5, "n@example.com", "Nobody", null, "Compro", 0L);
+        List<EmployeeResponseDto> compro = employeeReplicaStore.findByDepartmentCode("Compro");
+        // Then: The department is listed by last name, a missing one first
+        assertEquals(List.of("Nobody", "Eve", "Bob", "", "Ann"), compro.stream().map(EmployeeResponseDto::firstName).toList());
+        assertTrue(employeeReplicaStore.findByDepartmentCode("MBA").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test for refusing a late create or update of a deleted employee")
+    void givenDeleteBeforeItsCreate_whenCreateAndUpdateArrive_thenStayDeleted() {
+        // Given: A delete applied before the employee's own create and update
+        boolean deleted = employeeReplicaStore.delete("john.smith@gmail.com", 1, 1L);
+        // When: The create and the update of that employee arrive afterwards
+        employeeReplicaStore.upsert(1, "john.smith@gmail.com", "John", "Smith", "Compro", 0L);
+        employeeReplicaStore.upsert(EmployeeReplicaStore.NO_ID, "john.smith@gmail.com", "John", "Smyth", "Compro", 1L);
+        // Then: Neither brings it back
+        assertFalse(deleted);
+        assertNull(employeeReplicaStore.findByEmail("john.smith@gmail.com"));
+        assertEquals(0, employeeReplicaStore.size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.bright.ems.replica;
+
+import com.bright.ems.config.ReplicaProperties;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.repository.EmployeeStreamRepository;
+import com.bright.ems.repository.projection.EmployeeRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeReplicaTest {
+
+    private EmployeeReplica employeeReplica;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeStreamRepository employeeStreamRepository = Mockito.mock(EmployeeStreamRepository.class);
+        Mockito.doAnswer(invocation -> {
+            Consumer<EmployeeRow> consumer = invocation.getArgument(1);
+            consumer.accept(new EmployeeRow(1L, "John", "Smith", "john.smith@gmail.com", "Compro", 3L));
+            return null;
+        }).when(employeeStreamRepository).streamRows(Mockito.anyInt(), Mockito.any());
+        employeeReplica = new EmployeeReplica(employeeStreamRepository, new ReplicaProperties(true, 1000, 16));
+        employeeReplica.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeReplica.close();
+    }
+
+    @Test
+    @DisplayName("Test for not letting an update that committed before a delete bring the employee back")
+    void givenDelete_whenOlderUpdateArrivesLate_thenEmployeeStaysDeleted() {
+        // Given: An update to version 4 that committed first, and the delete of version 4 after it
+        EmployeeChangedEvent update = EmployeeChangedEvent.updated("john.smith@gmail.com", "Compro",
+                new EmployeeResponseDto("John", "Smyth", "MBA", 4L));
+        EmployeeChangedEvent delete = EmployeeChangedEvent.deleted(1L, "john.smith@gmail.com", "MBA", 4L);
+        // When: The delete's listener runs before the update's
+        employeeReplica.onEmployeeChanged(delete);
+        employeeReplica.onEmployeeChanged(update);
+        // Then: No read serves the deleted employee
+        assertEquals(Optional.empty(), employeeReplica.findByEmail("john.smith@gmail.com"));
+        assertTrue(employeeReplica.findByDepartmentCode("MBA").isEmpty());
+        assertTrue(employeeReplica.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test for creating an employee again with the email of a deleted one")
+    void givenDelete_whenEmailCreatedAgain_thenNewEmployeeServed() {
+        // Given: A deleted employee
+        employeeReplica.onEmployeeChanged(EmployeeChangedEvent.deleted(1L, "john.smith@gmail.com", "Compro", 3L));
+        // When: A new employee is created with the same email
+        employeeReplica.onEmployeeChanged(EmployeeChangedEvent.created(2L, "john.smith@gmail.com",
+                new EmployeeResponseDto("Johnny", "Smith", "MBA", 0L)));
+        // Then: The new employee is served
+        assertEquals(List.of(new EmployeeResponseDto("Johnny", "Smith", "MBA", 0L)), employeeReplica.findAll());
+    }
+}
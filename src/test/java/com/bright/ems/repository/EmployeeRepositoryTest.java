@@ -1,5 +1,7 @@
 package com.bright.ems.repository;
 
+import com.bright.ems.dto.response.DepartmentStatsDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
 import com.bright.ems.model.Employee;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +28,9 @@ class EmployeeRepositoryTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     private Employee employee;
 
     @BeforeEach
@@ -152,4 +158,84 @@ class EmployeeRepositoryTest {
         assertEquals("Johny", updatedEmployee.getFirstName());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Test for projecting Employees of a department straight into response DTOs")
+    void givenEmployees_whenFindResponseDtosByDepartmentCode_thenReturnDtos() {
+        // Given: Employees in two departments are saved
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@gmail.com")
+                .departmentCode("MBA")
+                .build());
+
+        // When: Querying the department through the closed projection
+        List<EmployeeResponseDto> employeeResponseDtos = employeeRepository.findResponseDtosByDepartmentCode("Compro");
+
+        // Then: Only the matching employee is returned, already mapped to its DTO
+        Assertions.assertThat(employeeResponseDtos)
+                .containsExactly(new EmployeeResponseDto("John", "Smith", "Compro", 0L));
+    }
+
+    @Test
+    @DisplayName("Test for department listing using the composite department index")
+    void givenDepartmentQuery_whenExplained_thenUsesCompositeIndex() {
+        // When: Asking H2 for the plan of the department listing
+        String plan = explain("select first_name, last_name, department_code from employees where department_code = 'Compro' order by last_name, first_name");
+
+        // Then: The composite index is used, so a dropped index fails the build
+        Assertions.assertThat(plan).containsIgnoringCase("idx_employees_department_last_first");
+    }
+
+    @Test
+    @DisplayName("Test for case-insensitive prefix search using the lower-cased name index")
+    void givenLastNamePrefixQuery_whenExplained_thenUsesLowerCaseIndex() {
+        // When: Asking H2 for the plan of a last name prefix search
+        String plan = explain("select first_name, last_name, department_code from employees where last_name_lower like 'smi%'");
+
+        // Then: The prefix is answered by a range scan of the lower-cased index
+        Assertions.assertThat(plan).containsIgnoringCase("idx_employees_last_name_lower");
+    }
+
+    @Test
+    @DisplayName("Test for case-insensitive prefix search on last names")
+    void givenEmployees_whenFindByLastNamePrefix_thenMatchIgnoringCase() {
+        // Given: An employee is saved in the repository
+        employeeRepository.save(employee);
+
+        // When: Searching with a lower-cased prefix
+        List<EmployeeResponseDto> employeeResponseDtos = employeeRepository.findResponseDtosByLastNameLike("smi%");
+
+        // Then: The employee is found regardless of the stored case
+        Assertions.assertThat(employeeResponseDtos)
+                .containsExactly(new EmployeeResponseDto("John", "Smith", "Compro", 0L));
+    }
+
+    private String explain(String sql) {
+        return testEntityManager.getEntityManager()
+                .createNativeQuery("explain " + sql)
+                .getSingleResult()
+                .toString();
+    }
+
+
+    @Test
+    @DisplayName("Test for counting employees per department")
+    void givenEmployeesInDepartments_whenCountByDepartmentCode_thenReturnHeadcounts() {
+        // Given: Two employees in Compro, one in MBA and one without a department
+        testEntityManager.persist(employee);
+        testEntityManager.persist(new Employee("Jane", "Smith", "jane.smith@gmail.com", "Compro"));
+        testEntityManager.persist(new Employee("Mary", "Jones", "mary.jones@gmail.com", "MBA"));
+        testEntityManager.persist(new Employee("Peter", "Parker", "peter.parker@gmail.com", null));
+        testEntityManager.flush();
+
+        // When: Counting per department
+        List<DepartmentStatsDto> departmentStatsDtos = employeeRepository.countByDepartmentCode();
+
+        // Then: Every department has its headcount and employees without one are left out
+        Assertions.assertThat(departmentStatsDtos).containsExactlyInAnyOrder(
+                new DepartmentStatsDto("Compro", 2L),
+                new DepartmentStatsDto("MBA", 1L));
+    }
+}
@@ -0,0 +1,70 @@
+package com.bright.ems.routing;
+
+import com.bright.ems.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The replica is the primary's own in-memory database, so the reads succeed either way and only the
+ * routing counter tells which pool served them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-routing;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "ems.read-routing.enabled=true",
+        "ems.read-routing.replicas[0].url=jdbc:h2:mem:read-routing;DB_CLOSE_DELAY=-1",
+        "ems.read-routing.replicas[0].username=sa",
+        "ems.replica.enabled=false"
+})
+class ReadRoutingTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Test for reading all employees from the replica")
+    void givenNoInMemoryReplica_whenGetAllEmployees_thenReplicaRoute() {
+        assertReplicaRoute(() -> employeeService.getAllEmployees());
+    }
+
+    @Test
+    @DisplayName("Test for reading a department from the replica")
+    void givenNoInMemoryReplica_whenFindByDepartmentCode_thenReplicaRoute() {
+        assertReplicaRoute(() -> employeeService.findByDepartmentCode("ROUTING"));
+    }
+
+    @Test
+    @DisplayName("Test for reading an email from the replica")
+    void givenNoInMemoryReplica_whenFindByEmail_thenReplicaRoute() {
+        assertReplicaRoute(() -> employeeService.findByEmail("find.by.email@routing.test"));
+    }
+
+    @Test
+    @DisplayName("Test for looking emails up on the replica")
+    void givenNoInMemoryReplica_whenLookupEmployees_thenReplicaRoute() {
+        assertReplicaRoute(() -> employeeService.lookupEmployees(List.of("lookup@routing.test")));
+    }
+
+    private void assertReplicaRoute(Runnable read) {
+        // Given: The connections taken so far
+        double replicaBefore = connections("replica-0");
+        // When: Reading outside any transaction of the caller
+        read.run();
+        // Then: The query took a replica connection
+        assertEquals(replicaBefore + 1, connections("replica-0"));
+    }
+
+    private double connections(String route) {
+        return meterRegistry.get("ems.read-routing.connections").tag("route", route).counter().count();
+    }
+}
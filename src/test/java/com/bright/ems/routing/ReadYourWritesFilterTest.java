@@ -0,0 +1,75 @@
+package com.bright.ems.routing;
+
+import com.bright.ems.config.ReadRoutingProperties;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter readYourWritesFilter = new ReadYourWritesFilter(new ReadRoutingProperties(true, List.of(), 10,
+            Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(1), ReadRoutingProperties.Stickiness.CLIENT, Duration.ofSeconds(2),
+            List.of("/api/v1/employees/lookup")),
+            Mockito.mock(ReplicaDataSource.class));
+
+    @Test
+    @DisplayName("Test that a client reads from the primary after its own write")
+    void givenWrite_whenNextRead_thenPinnedToPrimary() throws ServletException, IOException {
+        // Given: A client that has not written yet
+        AtomicBoolean pinnedBefore = new AtomicBoolean();
+        filter("GET", null, pinnedBefore);
+        // When: It creates an employee and then lists the employees with the cookie it got
+        AtomicBoolean pinnedWrite = new AtomicBoolean();
+        MockHttpServletResponse written = filter("POST", null, pinnedWrite);
+        AtomicBoolean pinnedRead = new AtomicBoolean();
+        filter("GET", written.getCookie(ReadYourWritesFilter.COOKIE), pinnedRead);
+        // Then: Only the requests from the write onwards read from the primary, and nothing stays pinned
+        assertFalse(pinnedBefore.get());
+        assertTrue(pinnedWrite.get());
+        assertTrue(pinnedRead.get());
+        assertEquals(2, written.getCookie(ReadYourWritesFilter.COOKIE).getMaxAge());
+        assertFalse(PrimaryReads.pinned());
+    }
+
+    @Test
+    @DisplayName("Test that an expired cookie no longer pins reads")
+    void givenExpiredCookie_whenRead_thenReplica() throws ServletException, IOException {
+        AtomicBoolean pinned = new AtomicBoolean(true);
+        filter("GET", new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1)), pinned);
+        assertFalse(pinned.get());
+    }
+
+    @Test
+    @DisplayName("Test that a batch lookup reads from the replicas and sets no cookie")
+    void givenLookup_whenPosted_thenNotPinned() throws ServletException, IOException {
+        AtomicBoolean pinned = new AtomicBoolean(true);
+        MockHttpServletResponse response = filter("POST", "/api/v1/employees/lookup", null, pinned);
+        assertFalse(pinned.get());
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE));
+    }
+
+    private MockHttpServletResponse filter(String method, Cookie cookie, AtomicBoolean pinned) throws ServletException, IOException {
+        return filter(method, "/api/v1/employees", cookie, pinned);
+    }
+
+    private MockHttpServletResponse filter(String method, String path, Cookie cookie, AtomicBoolean pinned) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        readYourWritesFilter.doFilter(request, response, (filteredRequest, filteredResponse) -> pinned.set(PrimaryReads.pinned()));
+        return response;
+    }
+}
@@ -0,0 +1,153 @@
+package com.bright.ems.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.net.ConnectException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.SequencedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaDataSourceTest {
+
+    private final Connection primaryConnection = Mockito.mock(Connection.class);
+    private final Connection firstConnection = Mockito.mock(Connection.class);
+    private final Connection secondConnection = Mockito.mock(Connection.class);
+    private final DataSource first = Mockito.mock(DataSource.class);
+    private final DataSource second = Mockito.mock(DataSource.class);
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaDataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource primary = Mockito.mock(DataSource.class);
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(first.getConnection()).thenReturn(firstConnection);
+        Mockito.when(second.getConnection()).thenReturn(secondConnection);
+        SequencedMap<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", first);
+        replicas.put("replica-1", second);
+        meterRegistry = new SimpleMeterRegistry();
+        replicaDataSource = new ReplicaDataSource(primary, replicas, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Test for spreading reads over the replicas in turn")
+    void givenHealthyReplicas_whenGetConnection_thenRoundRobin() throws SQLException {
+        // When: Taking four connections
+        // Then: They alternate between the replicas and each is counted under its route
+        assertSame(firstConnection, replicaDataSource.getConnection());
+        assertSame(secondConnection, replicaDataSource.getConnection());
+        assertSame(firstConnection, replicaDataSource.getConnection());
+        assertSame(secondConnection, replicaDataSource.getConnection());
+        assertEquals(2.0, meterRegistry.get("ems.read-routing.connections").tag("route", "replica-0").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test for reading from the primary while pinned to it")
+    void givenPinnedReads_whenGetConnection_thenPrimary() throws SQLException {
+        // When: Taking a connection while pinned, and after a global pin
+        Connection pinned = PrimaryReads.call(() -> {
+            try {
+                return replicaDataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        replicaDataSource.pinPrimaryFor(Duration.ofMinutes(1));
+        // Then: Both come from the primary and are counted as sticky
+        assertSame(primaryConnection, pinned);
+        assertSame(primaryConnection, replicaDataSource.getConnection());
+        assertFalse(PrimaryReads.pinned());
+        assertEquals(2.0, meterRegistry.get("ems.read-routing.connections").tag("reason", "sticky").counter().count());
+        Mockito.verifyNoInteractions(first, second);
+    }
+
+    @Test
+    @DisplayName("Test for skipping a failed replica until it passes a health check")
+    void givenFailingReplica_whenGetConnection_thenSkippedUntilHealthy() throws SQLException {
+        // Given: The first replica refuses connections
+        Mockito.when(first.getConnection()).thenThrow(new SQLTransientConnectionException("down", new ConnectException("Connection refused")));
+        // When: Taking connections before and after it recovers and is checked
+        Connection failedOver = replicaDataSource.getConnection();
+        Connection skipping = replicaDataSource.getConnection();
+        Mockito.reset(first);
+        Mockito.when(first.getConnection()).thenReturn(firstConnection);
+        Mockito.when(firstConnection.isValid(Mockito.anyInt())).thenReturn(true);
+        Mockito.when(secondConnection.isValid(Mockito.anyInt())).thenReturn(true);
+        replicaDataSource.checkHealth(Duration.ofSeconds(1));
+        Connection recovered = replicaDataSource.getConnection();
+        // Then: The second replica covers for the first until the check puts it back in turn
+        assertSame(secondConnection, failedOver);
+        assertSame(secondConnection, skipping);
+        assertSame(firstConnection, recovered);
+        assertEquals(1.0, meterRegistry.get("ems.read-routing.replica.healthy").tag("replica", "replica-0").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Test for keeping the reads of a scope on the replica of its first read")
+    void givenReadAffinity_whenGetConnections_thenSameReplicaThenPrimary() throws SQLException {
+        // Given: A scope whose first read went to the first replica
+        boolean previous = ReadAffinity.stick();
+        try {
+            Connection firstRead = replicaDataSource.getConnection();
+            // When: Taking more connections, and again after that replica stops answering
+            Connection secondRead = replicaDataSource.getConnection();
+            Mockito.when(first.getConnection()).thenThrow(new SQLTransientConnectionException("down", new ConnectException("Connection refused")));
+            Connection afterFailure = replicaDataSource.getConnection();
+            Mockito.reset(first);
+            Mockito.when(first.getConnection()).thenReturn(firstConnection);
+            Connection afterRecovery = replicaDataSource.getConnection();
+            // Then: The reads stay on the first replica and, once it failed, on the primary, never on the second replica
+            assertSame(firstConnection, firstRead);
+            assertSame(firstConnection, secondRead);
+            assertSame(primaryConnection, afterFailure);
+            assertSame(primaryConnection, afterRecovery);
+            Mockito.verifyNoInteractions(second);
+        } finally {
+            ReadAffinity.restore(previous);
+        }
+        // Then: Outside the scope the reads are spread again
+        assertNull(ReadAffinity.route());
+        assertSame(secondConnection, replicaDataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Test for falling back to the primary when no replica is healthy")
+    void givenNoHealthyReplica_whenGetConnection_thenPrimary() throws SQLException {
+        // Given: Both replicas refuse connections
+        Mockito.when(first.getConnection()).thenThrow(new SQLTransientConnectionException("down", new ConnectException("Connection refused")));
+        Mockito.when(second.getConnection()).thenThrow(new SQLTransientConnectionException("down", new ConnectException("Connection refused")));
+        // When: Taking a connection
+        Connection connection = replicaDataSource.getConnection();
+        // Then: The read goes to the primary and both replicas are out of use
+        assertSame(primaryConnection, connection);
+        assertEquals(1.0, meterRegistry.get("ems.read-routing.connections").tag("reason", "fallback").counter().count());
+        assertEquals(0.0, meterRegistry.get("ems.read-routing.replica.healthy").tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Test for keeping a replica whose pool is exhausted in use")
+    void givenExhaustedPool_whenGetConnection_thenReplicaStaysHealthy() throws SQLException {
+        // Given: Every connection of the first replica's pool is busy
+        Mockito.when(first.getConnection())
+                .thenThrow(new SQLTransientConnectionException("replica-0 - Connection is not available, request timed out after 1000ms"))
+                .thenReturn(firstConnection);
+        // When: Taking two connections
+        Connection overflow = replicaDataSource.getConnection();
+        Connection next = replicaDataSource.getConnection();
+        // Then: The read moves on to the second replica and the first one stays in turn
+        assertSame(secondConnection, overflow);
+        assertSame(firstConnection, next);
+        assertEquals(1.0, meterRegistry.get("ems.read-routing.replica.healthy").tag("replica", "replica-0").gauge().value());
+    }
+}
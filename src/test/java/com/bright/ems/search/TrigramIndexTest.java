@@ -0,0 +1,111 @@
+package com.bright.ems.search;
+
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex trigramIndex;
+
+    @BeforeEach
+    void setUp() {
+        trigramIndex = new TrigramIndex();
+        trigramIndex.put(1L, "john.smith@gmail.com", "John", "Smith", "Compro", 0L);
+        trigramIndex.put(2L, "johanna.jones@gmail.com", "Johanna", "Jones", "MBA", 0L);
+        trigramIndex.put(3L, "mary.johnson@gmail.com", "Mary", "Johnson", "Compro", 0L);
+        trigramIndex.put(4L, "peter.parker@gmail.com", "Peter", "Parker", "MBA", 0L);
+    }
+
+    @Test
+    @DisplayName("Test for ranking prefix matches and tolerating a typo")
+    void givenQuery_whenSearch_thenRankPrefixMatchesFirst() {
+        // Given: An index of four employees
+        // When: Searching for a prefix and for a misspelled last name
+        TrigramIndex.Hits prefixHits = trigramIndex.search("john", 10, TrigramIndex.FIRST_PAGE);
+        TrigramIndex.Hits typoHits = trigramIndex.search("parkr", 10, TrigramIndex.FIRST_PAGE);
+        // Then: Every "john" prefix ranks above the partial match and the typo still finds Parker
+        assertEquals(List.of("John", "Mary", "Johanna"), prefixHits.employees().stream().map(EmployeeResponseDto::firstName).toList());
+        assertEquals("Parker", typoHits.employees().getFirst().lastName());
+        assertEquals(TrigramIndex.NO_NEXT_PAGE, prefixHits.nextKey());
+    }
+
+    @Test
+    @DisplayName("Test for paging through hits with the next key")
+    void givenLimit_whenSearchTwice_thenSecondPageContinuesAfterFirst() {
+        // Given: A query that matches three employees
+        // When: Reading them one page of two hits at a time
+        TrigramIndex.Hits firstPage = trigramIndex.search("john", 2, TrigramIndex.FIRST_PAGE);
+        TrigramIndex.Hits secondPage = trigramIndex.search("john", 2, firstPage.nextKey());
+        // Then: The pages do not overlap and the last one has no next key
+        assertEquals(2, firstPage.employees().size());
+        assertEquals(List.of("Johanna"), secondPage.employees().stream().map(EmployeeResponseDto::firstName).toList());
+        assertEquals(TrigramIndex.NO_NEXT_PAGE, secondPage.nextKey());
+    }
+
+    @Test
+    @DisplayName("Test for keeping the index in step with updates and deletes")
+    void givenUpdateAndDelete_whenSearch_thenReflectChanges() {
+        // Given: John renamed and Peter deleted
+        trigramIndex.put(TrigramIndex.NO_ID, "john.smith@gmail.com", "Jack", "Smith", "Compro", 1L);
+        trigramIndex.remove("peter.parker@gmail.com", 4L, 0L);
+        // When: Searching the old and new values
+        TrigramIndex.Hits jack = trigramIndex.search("jack", 10, TrigramIndex.FIRST_PAGE);
+        TrigramIndex.Hits peter = trigramIndex.search("parker", 10, TrigramIndex.FIRST_PAGE);
+        // Then: Only the current values are found
+        assertEquals("Smith", jack.employees().getFirst().lastName());
+        assertTrue(peter.employees().isEmpty());
+        assertEquals(3, trigramIndex.size());
+    }
+
+    @Test
+    @DisplayName("Test for compacting the documents once most of them are removed")
+    void givenMostDocumentsRemoved_whenSearch_thenCompactedAndStillFound() {
+        // Given: Two thousand more employees, each updated once out of order
+        for (int i = 0; i < 2000; i++) {
+            trigramIndex.put(i + 100L, "employee" + i + "@example.com", "First" + i, "Last" + i, "D" + (i % 10), 0L);
+        }
+        for (int i = 1999; i >= 0; i--) {
+            trigramIndex.put(TrigramIndex.NO_ID, "employee" + i + "@example.com", "First" + i, "Surname" + i, "D" + (i % 10), 1L);
+        }
+        // When: Removing three quarters of them
+        for (int i = 0; i < 1500; i++) {
+            trigramIndex.remove("employee" + i + "@example.com", i + 100L, 1L);
+        }
+        TrigramIndex.Hits hits = trigramIndex.search("surname1999", 1, TrigramIndex.FIRST_PAGE);
+        // Then: The dead documents are gone and the live ones are still found under their new values
+        assertEquals(504, trigramIndex.size());
+        assertTrue(trigramIndex.documentSlots() < 2 * trigramIndex.size() + 1024);
+        assertEquals("First1999", hits.employees().getFirst().firstName());
+        assertTrue(trigramIndex.search("last1999", 10, TrigramIndex.FIRST_PAGE).employees().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test for not letting an update that committed before a delete bring the employee back")
+    void givenRemove_whenOlderPutArrivesLate_thenEmployeeStaysRemoved() {
+        // Given: Peter updated to version 1 in a commit before the delete of version 1
+        trigramIndex.remove("peter.parker@gmail.com", 4L, 1L);
+        // When: The update arrives after the delete
+        trigramIndex.put(TrigramIndex.NO_ID, "peter.parker@gmail.com", "Peter", "Parker", "Compro", 1L);
+        // Then: Peter stays out of the results
+        assertTrue(trigramIndex.search("parker", 10, TrigramIndex.FIRST_PAGE).employees().isEmpty());
+        assertEquals(3, trigramIndex.size());
+    }
+
+    @Test
+    @DisplayName("Test for indexing a new employee with the email of a removed one")
+    void givenRemove_whenEmailCreatedAgain_thenNewEmployeeFound() {
+        // Given: Peter removed at version 0
+        trigramIndex.remove("peter.parker@gmail.com", 4L, 0L);
+        // When: A new employee is created with the same email
+        trigramIndex.put(5L, "peter.parker@gmail.com", "Peter", "Parker", "Compro", 0L);
+        // Then: The new employee is found
+        assertEquals(List.of(new EmployeeResponseDto("Peter", "Parker", "Compro", 0L)),
+                trigramIndex.search("parker", 10, TrigramIndex.FIRST_PAGE).employees());
+    }
+}
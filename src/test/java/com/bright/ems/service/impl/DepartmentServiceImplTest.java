@@ -0,0 +1,79 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.dto.response.DepartmentStatsDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.repository.EmployeeRepository;
+import com.bright.ems.sharding.Shards;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentServiceImplTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Spy
+    private Shards shards = new Shards(Optional.empty());
+
+    @InjectMocks
+    private DepartmentServiceImpl departmentService;
+
+    @Test
+    @DisplayName("Test for moving headcounts with employee changes")
+    void givenReconciledCounts_whenEmployeesChange_thenStatsFollow() {
+        // Given: Headcounts seeded from the table
+        Mockito.when(employeeRepository.countByDepartmentCode()).thenReturn(List.of(
+                new DepartmentStatsDto("Compro", 2L),
+                new DepartmentStatsDto("MBA", 1L)));
+        departmentService.reconcileHeadcounts();
+        // When: One employee joins MBA, one moves from Compro to MBA and the other Compro employee leaves
+        departmentService.onEmployeeChanged(EmployeeChangedEvent.created(4L, "jane.doe@gmail.com", new EmployeeResponseDto("Jane", "Doe", "MBA", 0L)));
+        departmentService.onEmployeeChanged(EmployeeChangedEvent.updated("john.smith@gmail.com", "Compro", new EmployeeResponseDto("John", "Smith", "MBA", 1L)));
+        departmentService.onEmployeeChanged(EmployeeChangedEvent.deleted(1L, "jane.smith@gmail.com", "Compro", 0L));
+        // Then: Compro is empty and no longer listed
+        assertEquals(List.of(new DepartmentStatsDto("MBA", 3L)), departmentService.getDepartmentStats());
+    }
+
+    @Test
+    @DisplayName("Test for correcting drifted headcounts")
+    void givenDriftedCounts_whenReconcile_thenMatchTable() {
+        // Given: A counter that missed a delete
+        Mockito.when(employeeRepository.countByDepartmentCode()).thenReturn(List.of(new DepartmentStatsDto("Compro", 2L)));
+        departmentService.reconcileHeadcounts();
+        departmentService.onEmployeeChanged(EmployeeChangedEvent.created(3L, "mary.jones@gmail.com", new EmployeeResponseDto("Mary", "Jones", "Compro", 0L)));
+        // When: Reconciling against the table, which still has two employees
+        departmentService.reconcileHeadcounts();
+        // Then: The counter is back at the table's count
+        assertEquals(List.of(new DepartmentStatsDto("Compro", 2L)), departmentService.getDepartmentStats());
+    }
+
+    @Test
+    @DisplayName("Test for keeping changes that land while the reconciliation query runs")
+    void givenChangeDuringQuery_whenReconcile_thenChangeKept() {
+        // Given: Seeded headcounts and a create that commits while the next GROUP BY is running
+        Mockito.when(employeeRepository.countByDepartmentCode())
+                .thenReturn(List.of(new DepartmentStatsDto("Compro", 2L)))
+                .thenAnswer(invocation -> {
+                    departmentService.onEmployeeChanged(EmployeeChangedEvent.created(3L, "mary.jones@gmail.com", new EmployeeResponseDto("Mary", "Jones", "Compro", 0L)));
+                    return List.of(new DepartmentStatsDto("Compro", 2L));
+                });
+        departmentService.reconcileHeadcounts();
+        // When: Reconciling with a result read before the create
+        departmentService.reconcileHeadcounts();
+        // Then: The create is still counted
+        assertEquals(List.of(new DepartmentStatsDto("Compro", 3L)), departmentService.getDepartmentStats());
+    }
+}
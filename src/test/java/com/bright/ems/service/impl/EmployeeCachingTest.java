@@ -0,0 +1,146 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.config.CacheConfig;
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the employee cache through the real proxies, so the cache annotations and the transaction-aware
+ * cache manager are exercised together. Database reads are counted with the repository timers.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:employee-caching;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "ems.cache.enabled=true",
+        "ems.replica.enabled=false"
+})
+class EmployeeCachingTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Test for answering a repeated email lookup from the cache")
+    void givenCachedEmployee_whenFindByEmail_thenNoQuery() {
+        // Given: An employee looked up once
+        employeeService.createEmployee(new EmployeeRequestDto("John", "Smith", "john.smith@caching.test", "Compro"));
+        Optional<EmployeeResponseDto> first = employeeService.findByEmail("john.smith@caching.test");
+        double queriesBefore = emailQueries();
+        // When: Looking the same email up again
+        Optional<EmployeeResponseDto> second = employeeService.findByEmail("john.smith@caching.test");
+        // Then: The cached employee is returned without a query
+        assertTrue(second.isPresent());
+        assertEquals(first, second);
+        assertEquals(queriesBefore, emailQueries());
+    }
+
+    @Test
+    @DisplayName("Test for refreshing the cached employee on update")
+    void givenCachedEmployee_whenUpdate_thenCacheHoldsUpdatedEmployee() {
+        // Given: A cached employee
+        employeeService.createEmployee(new EmployeeRequestDto("Jane", "Smith", "jane.smith@caching.test", "Compro"));
+        employeeService.findByEmail("jane.smith@caching.test");
+        // When: Replacing the employee
+        employeeService.updateEmployee("jane.smith@caching.test", new EmployeeRequestDto("Jane", "Doe", "jane.smith@caching.test", "MBA"), null);
+        double queriesBefore = emailQueries();
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.findByEmail("jane.smith@caching.test");
+        // Then: The next lookup is the updated employee, served from the cache
+        assertTrue(employeeResponseDto.isPresent());
+        assertEquals("Doe", employeeResponseDto.get().lastName());
+        assertEquals("MBA", employeeResponseDto.get().departmentCode());
+        assertEquals(queriesBefore, emailQueries());
+    }
+
+    @Test
+    @DisplayName("Test for evicting the cached employee on delete")
+    void givenCachedEmployee_whenDelete_thenEvicted() {
+        // Given: A cached employee
+        employeeService.createEmployee(new EmployeeRequestDto("Mary", "Johnson", "mary.johnson@caching.test", "Compro"));
+        employeeService.findByEmail("mary.johnson@caching.test");
+        // When: Deleting the employee
+        employeeService.deleteEmployee("mary.johnson@caching.test", null);
+        double queriesBefore = emailQueries();
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.findByEmail("mary.johnson@caching.test");
+        // Then: The next lookup goes to the database and finds nothing
+        assertTrue(employeeResponseDto.isEmpty());
+        assertEquals(queriesBefore + 1, emailQueries());
+    }
+
+    @Test
+    @DisplayName("Test for evicting a cached miss when the employee is created")
+    void givenCachedMiss_whenCreate_thenEvicted() {
+        // Given: A lookup that cached a miss
+        assertTrue(employeeService.findByEmail("peter.parker@caching.test").isEmpty());
+        // When: Creating the employee
+        employeeService.createEmployee(new EmployeeRequestDto("Peter", "Parker", "peter.parker@caching.test", "Compro"));
+        // Then: The next lookup finds the new employee
+        assertTrue(employeeService.findByEmail("peter.parker@caching.test").isPresent());
+    }
+
+    @Test
+    @DisplayName("Test for applying the cache put of an update only after commit")
+    void givenUpdateInTransaction_whenBeforeCommit_thenCacheStillHoldsCommittedEmployee() {
+        // Given: A cached employee
+        employeeService.createEmployee(new EmployeeRequestDto("Bruce", "Wayne", "bruce.wayne@caching.test", "Compro"));
+        EmployeeResponseDto committed = employeeService.findByEmail("bruce.wayne@caching.test").orElseThrow();
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL);
+        // When: Updating it inside a caller's transaction
+        Object[] beforeCommit = new Object[1];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            employeeService.updateEmployee("bruce.wayne@caching.test", new EmployeeRequestDto("Bruce", "Banner", "bruce.wayne@caching.test", "MBA"), null);
+            beforeCommit[0] = cache.get("bruce.wayne@caching.test").get();
+        });
+        // Then: Other readers see the committed employee until the commit, and the update after it
+        assertEquals(committed, beforeCommit[0]);
+        assertEquals("Banner", ((EmployeeResponseDto) cache.get("bruce.wayne@caching.test").get()).lastName());
+    }
+
+    @Test
+    @DisplayName("Test for dropping the cache put of a rolled back update")
+    void givenUpdateInTransaction_whenRolledBack_thenCacheUnchanged() {
+        // Given: A cached employee
+        employeeService.createEmployee(new EmployeeRequestDto("Clark", "Kent", "clark.kent@caching.test", "Compro"));
+        EmployeeResponseDto committed = employeeService.findByEmail("clark.kent@caching.test").orElseThrow();
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL);
+        // When: Updating it inside a transaction that rolls back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            employeeService.updateEmployee("clark.kent@caching.test", new EmployeeRequestDto("Clark", "Wayne", "clark.kent@caching.test", "MBA"), null);
+            status.setRollbackOnly();
+        });
+        // Then: The cache still holds the committed employee
+        assertEquals(committed, cache.get("clark.kent@caching.test").get());
+        assertEquals(committed, employeeService.findByEmail("clark.kent@caching.test").orElseThrow());
+    }
+
+    private double emailQueries() {
+        Timer timer = meterRegistry.find("ems.repository")
+                .tag("method", "findResponseDtoByEmail")
+                .tag("outcome", "success")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
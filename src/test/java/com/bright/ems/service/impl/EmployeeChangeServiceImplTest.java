@@ -0,0 +1,72 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.changes.EmployeeChangeLog;
+import com.bright.ems.config.ChangeFeedProperties;
+import com.bright.ems.dto.response.EmployeeChangesResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.event.EmployeeChangesAppendedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeChangeServiceImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private EmployeeChangeLog employeeChangeLog;
+    private EmployeeChangeServiceImpl employeeChangeService;
+
+    @BeforeEach
+    void setUp() {
+        employeeChangeLog = new EmployeeChangeLog(directory, 1 << 20, 4);
+        employeeChangeService = new EmployeeChangeServiceImpl(employeeChangeLog, new ChangeFeedProperties(
+                true, directory, DataSize.ofMegabytes(1), 4, 500, Duration.ofSeconds(1), Duration.ofSeconds(10), 100, 1000, Duration.ofSeconds(25)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeChangeLog.close();
+    }
+
+    @Test
+    @DisplayName("Test for a long-poll completed by the next relayed change")
+    void givenNoNewChanges_whenLongPoll_thenCompleteOnAppend() throws Exception {
+        // Given: One change the consumer has already seen
+        employeeChangeLog.append(EmployeeChangedEvent.Type.CREATED, "john.smith@gmail.com", new EmployeeResponseDto("John", "Smith", "Compro", 0L), 0L, Instant.now());
+        CompletableFuture<EmployeeChangesResponseDto> changes = employeeChangeService.getChanges(1, null, Duration.ofSeconds(10));
+        assertFalse(changes.isDone());
+        // When: The relay appends the next change
+        long offset = employeeChangeLog.append(EmployeeChangedEvent.Type.DELETED, "john.smith@gmail.com", null, 0L, Instant.now());
+        employeeChangeService.onChangesAppended(new EmployeeChangesAppendedEvent(offset));
+        // Then: The waiting request gets it
+        EmployeeChangesResponseDto employeeChangesResponseDto = changes.get(1, TimeUnit.SECONDS);
+        assertEquals(1, employeeChangesResponseDto.changes().size());
+        assertEquals(EmployeeChangedEvent.Type.DELETED, employeeChangesResponseDto.changes().getFirst().type());
+        assertEquals(2, employeeChangesResponseDto.nextOffset());
+    }
+
+    @Test
+    @DisplayName("Test for an offset the log does not know")
+    void givenOffsetPastTheEnd_whenGetChanges_thenThrowGone() {
+        // When
+        ResponseStatusException responseStatusException = assertThrows(ResponseStatusException.class,
+                () -> employeeChangeService.getChanges(5, null, Duration.ZERO));
+        // Then
+        assertEquals(HttpStatus.GONE, responseStatusException.getStatusCode());
+    }
+}
@@ -1,17 +1,39 @@
 package com.bright.ems.service.impl;
 
+import com.bright.ems.config.BulkProperties;
+import com.bright.ems.config.CacheConfig;
+import com.bright.ems.config.SingleFlightProperties;
 import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.dto.response.EmployeeLookupResponseDto;
 import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.httpcache.EmployeeChangeCounter;
 import com.bright.ems.model.Employee;
+import com.bright.ems.replica.EmployeeReplica;
+import com.bright.ems.search.EmployeeSearchIndex;
 import com.bright.ems.repository.EmployeeRepository;
+import com.bright.ems.repository.projection.EmployeeRow;
+import com.bright.ems.repository.projection.EmployeeVersionRow;
+import com.bright.ems.singleflight.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +45,27 @@ class EmployeeServiceImplTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Spy
+    private BulkProperties bulkProperties = new BulkProperties(100, 1000, 1000, 1000);
+
+    @Mock
+    private EmployeeReplica employeeReplica;
+
+    @Mock
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new EmployeeChangeCounter(), new SingleFlightProperties(true, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+
+    @Spy
+    private ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.EMPLOYEES_BY_EMAIL);
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -55,17 +98,112 @@ class EmployeeServiceImplTest {
         assertFalse(employeeResponseDto.isPresent());
     }
 
+    @Test
+    @DisplayName("Test for bulk create with existing and repeated emails")
+    void givenBulkRequest_whenCreateEmployees_thenReturnPerRowResults() {
+        // Given: One email already stored and one repeated inside the request
+        List<EmployeeRequestDto> employeeRequestDtos = List.of(
+                new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro"),
+                new EmployeeRequestDto("Jane", "Smith", "jane.smith@gmail.com", "MBA"),
+                new EmployeeRequestDto("Jane", "Doe", "jane.smith@gmail.com", "MBA")
+        );
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        Mockito.when(employeeRepository.findExistingEmails(Mockito.anyCollection())).thenReturn(List.of("john.smith@gmail.com"));
+        // When: Creating the employees in bulk
+        List<BulkEmployeeResultDto> bulkEmployeeResultDtos = employeeService.createEmployees(employeeRequestDtos);
+        // Then: Only the first new email is inserted and every row gets a result
+        assertEquals(List.of(
+                new BulkEmployeeResultDto("john.smith@gmail.com", BulkEmployeeResultDto.Status.CONFLICT),
+                new BulkEmployeeResultDto("jane.smith@gmail.com", BulkEmployeeResultDto.Status.CREATED),
+                new BulkEmployeeResultDto("jane.smith@gmail.com", BulkEmployeeResultDto.Status.CONFLICT)
+        ), bulkEmployeeResultDtos);
+        Mockito.verify(employeeRepository).insertAll(
+                List.of(new Employee("Jane", "Smith", "jane.smith@gmail.com", "MBA")), 100);
+    }
+
+    @Test
+    @DisplayName("Test for bulk create with missing and blank emails")
+    void givenBlankEmails_whenCreateEmployees_thenInvalid() {
+        // Given: One row without an email, one with a blank email and one valid row
+        List<EmployeeRequestDto> employeeRequestDtos = List.of(
+                new EmployeeRequestDto("John", "Smith", null, "Compro"),
+                new EmployeeRequestDto("Jane", "Smith", " ", "MBA"),
+                new EmployeeRequestDto("Mary", "Johnson", "mary.johnson@gmail.com", "MBA")
+        );
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        Mockito.when(employeeRepository.findExistingEmails(List.of("mary.johnson@gmail.com"))).thenReturn(List.of());
+        // When: Creating the employees in bulk
+        List<BulkEmployeeResultDto> bulkEmployeeResultDtos = employeeService.createEmployees(employeeRequestDtos);
+        // Then: Both rows without a usable email are invalid and only the valid row is inserted
+        assertEquals(List.of(
+                new BulkEmployeeResultDto(null, BulkEmployeeResultDto.Status.INVALID),
+                new BulkEmployeeResultDto(" ", BulkEmployeeResultDto.Status.INVALID),
+                new BulkEmployeeResultDto("mary.johnson@gmail.com", BulkEmployeeResultDto.Status.CREATED)
+        ), bulkEmployeeResultDtos);
+        Mockito.verify(employeeRepository).insertAll(
+                List.of(new Employee("Mary", "Johnson", "mary.johnson@gmail.com", "MBA")), 100);
+    }
+
+    @Test
+    @DisplayName("Test for bulk create evicting only the inserted emails")
+    void givenCachedEmails_whenCreateEmployees_thenOnlyInsertedEmailsEvicted() {
+        // Given: A cached miss for the new email and a cached employee for the existing one
+        List<EmployeeRequestDto> employeeRequestDtos = List.of(
+                new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro"),
+                new EmployeeRequestDto("Jane", "Smith", "jane.smith@gmail.com", "MBA")
+        );
+        EmployeeResponseDto john = new EmployeeResponseDto("John", "Smith", "Compro", 0L);
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).put("john.smith@gmail.com", john);
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).put("jane.smith@gmail.com", null);
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).put("mary.johnson@gmail.com", null);
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        Mockito.when(employeeRepository.findExistingEmails(Mockito.anyCollection())).thenReturn(List.of("john.smith@gmail.com"));
+        // When: Creating the employees in bulk
+        employeeService.createEmployees(employeeRequestDtos);
+        // Then: Only the inserted email's cached miss is gone
+        assertNull(cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).get("jane.smith@gmail.com"));
+        assertEquals(john, cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).get("john.smith@gmail.com").get());
+        assertNotNull(cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).get("mary.johnson@gmail.com"));
+    }
+
+    @Test
+    @DisplayName("Test for bulk create racing a concurrent create of the same email")
+    void givenConcurrentlyInsertedEmail_whenCreateEmployees_thenRetriedAndConflict() {
+        // Given: The first IN query misses an email another request inserts before this batch does
+        List<EmployeeRequestDto> employeeRequestDtos = List.of(
+                new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro"),
+                new EmployeeRequestDto("Jane", "Smith", "jane.smith@gmail.com", "MBA")
+        );
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        Mockito.when(employeeRepository.findExistingEmails(Mockito.anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of("john.smith@gmail.com"));
+        Mockito.doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doNothing()
+                .when(employeeRepository).insertAll(Mockito.anyList(), Mockito.anyInt());
+        // When: Creating the employees in bulk
+        List<BulkEmployeeResultDto> bulkEmployeeResultDtos = employeeService.createEmployees(employeeRequestDtos);
+        // Then: The batch is rolled back and retried, and the raced row is a conflict instead of failing the batch
+        assertEquals(List.of(
+                new BulkEmployeeResultDto("john.smith@gmail.com", BulkEmployeeResultDto.Status.CONFLICT),
+                new BulkEmployeeResultDto("jane.smith@gmail.com", BulkEmployeeResultDto.Status.CREATED)
+        ), bulkEmployeeResultDtos);
+        Mockito.verify(transactionManager).rollback(Mockito.any());
+        Mockito.verify(employeeRepository).insertAll(
+                List.of(new Employee("Jane", "Smith", "jane.smith@gmail.com", "MBA")), 100);
+    }
+
     @Test
     @DisplayName("Test for find all employees by FirstName")
     void givenFirstName_whenFind_thenReturnEmployeeResponses() {
         //Given
         String firstName = "John";
-        List<Employee> employees = List.of(
-                Employee.builder().firstName("John").lastName("Smith").build(),
-                Employee.builder().firstName("John").lastName("Thomas").build()
+        List<EmployeeResponseDto> employees = List.of(
+                new EmployeeResponseDto("John", "Smith", "Compro"),
+                new EmployeeResponseDto("John", "Thomas", "MBA")
         );
-        //Define what the mock should do when the findByFirstName method is called
-        Mockito.when(employeeRepository.findByFirstName(firstName)).thenReturn(employees);
+        //Define what the mock should do when the projection query is called
+        Mockito.when(employeeRepository.findResponseDtosByFirstName(firstName)).thenReturn(employees);
         //When
         List<EmployeeResponseDto> employeeResponseDtos = employeeService.findByFirstName(firstName);
         //Then
@@ -78,18 +216,18 @@ class EmployeeServiceImplTest {
     void givenLastName_whenFind_thenReturnEmployeeResponses() {
         //Given
         String lastName = "Smith";
-        List<Employee> employees = List.of(
-                Employee.builder().firstName("John").lastName("Smith").build(),
-                Employee.builder().firstName("Jane").lastName("Smith").build()
+        List<EmployeeResponseDto> employees = List.of(
+                new EmployeeResponseDto("John", "Smith", "Compro"),
+                new EmployeeResponseDto("Jane", "Smith", "MBA")
         );
-        //Define what the mock should do when findByLastName method is called
-        Mockito.when(employeeRepository.findByLastName(lastName)).thenReturn(employees);
+        //Define what the mock should do when the projection query is called
+        Mockito.when(employeeRepository.findResponseDtosByLastName(lastName)).thenReturn(employees);
         //When
         List<EmployeeResponseDto> employeeResponseDtos = employeeService.findByLastName(lastName);
         //Then
         assertFalse(employeeResponseDtos.isEmpty());
         assertEquals(2, employeeResponseDtos.size());
-        Mockito.verify(employeeRepository, Mockito.times(1)).findByLastName(lastName);
+        Mockito.verify(employeeRepository, Mockito.times(1)).findResponseDtosByLastName(lastName);
     }
 
     @Test
@@ -97,23 +235,45 @@ class EmployeeServiceImplTest {
     void givenEmail_whenDelete_thenEmployeeDeleted() {
         //Given
         String email = "john.smith@gmail.com";
-        Employee employee = Employee.builder()
-                .firstName("John")
-                .lastName("Smith")
-                .email(email)
-                .build();
+        Mockito.when(employeeRepository.findVersionRowByEmail(email)).thenReturn(Optional.of(new EmployeeVersionRow(7L, "Compro", 3L)));
+        Mockito.when(employeeRepository.deleteByEmail(email, 3L)).thenReturn(1);
 
-        Mockito.when(employeeRepository.findByEmail(email)).thenReturn(Optional.of(employee));
-        Mockito.doNothing().when(employeeRepository).delete(employee);
+        //When
+        employeeService.deleteEmployee(email, null);
+        //Then
+        //A single DELETE statement conditioned on the version read, without loading the employee first
+        Mockito.verify(employeeRepository).deleteByEmail(email, 3L);
+        Mockito.verify(employeeRepository, Mockito.never()).findByEmail(email);
+        Mockito.verify(applicationEventPublisher).publishEvent(EmployeeChangedEvent.deleted(7L, email, "Compro", 3L));
+    }
 
+    @Test
+    @DisplayName("Test for retrying an unconditional delete that raced an update")
+    void givenConcurrentUpdate_whenDelete_thenDeleteNewVersion() {
+        //Given
+        String email = "john.smith@gmail.com";
+        Mockito.when(employeeRepository.findVersionRowByEmail(email))
+                .thenReturn(Optional.of(new EmployeeVersionRow(7L, "Compro", 3L)))
+                .thenReturn(Optional.of(new EmployeeVersionRow(7L, "MBA", 4L)));
+        Mockito.when(employeeRepository.deleteByEmail(email, 3L)).thenReturn(0);
+        Mockito.when(employeeRepository.deleteByEmail(email, 4L)).thenReturn(1);
         //When
-        employeeService.deleteEmployee(email);
+        employeeService.deleteEmployee(email, null);
         //Then
-//        Mockito.verify(employeeRepository, Mockito.times(1)).findByEmail(email);
-//        Mockito.verify(employeeRepository, Mockito.times(1)).delete(employee);
-        //Mockito.times(1) is redundant because .verify() already checks for a single call by default.
-        Mockito.verify(employeeRepository).findByEmail(email);
-        Mockito.verify(employeeRepository).delete(employee);
+        //The event names the version that was actually deleted
+        Mockito.verify(applicationEventPublisher).publishEvent(EmployeeChangedEvent.deleted(7L, email, "MBA", 4L));
+    }
+
+    @Test
+    @DisplayName("Test for deleting a non-existing employee")
+    void givenNonExistingEmail_whenDelete_thenThrowNotFound() {
+        //Given
+        String email = "john.smith@gmail.com";
+        Mockito.when(employeeRepository.findVersionRowByEmail(email)).thenReturn(Optional.empty());
+        //When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> employeeService.deleteEmployee(email, null));
+        //Then
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
     }
 
     @Test
@@ -122,27 +282,123 @@ class EmployeeServiceImplTest {
         //Given
         String email = "john.smith@gmail.com";
         EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("Jane", "Thomas", email, "MBA");
-        Employee existingEmployee = Employee.builder()
-                .firstName("John")
-                .lastName("Smith")
-                .email("john.smith@gmail.com")
-                .departmentCode("Compro")
-                .build();
-        Employee updatedEmployee = Employee.builder()
-                .firstName("Jane")
-                .lastName("Thomas")
-                .email("john.smith@gmail.com")
-                .departmentCode("MBA")
-                .build();
-        Mockito.when(employeeRepository.findByEmail("john.smith@gmail.com")).thenReturn(Optional.of(existingEmployee));
-        Mockito.when(employeeRepository.save(Mockito.any(Employee.class))).thenReturn(updatedEmployee);
+        Mockito.when(employeeRepository.findVersionRowByEmail(email)).thenReturn(Optional.of(new EmployeeVersionRow(7L, "Compro", 4L)));
+        Mockito.when(employeeRepository.updateByEmail(email, "Jane", "Thomas", "MBA", "jane", "thomas", 4L)).thenReturn(1);
         //When
-        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.updateEmployee(email, employeeRequestDto);
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.updateEmployee(email, employeeRequestDto, 4L);
         //Then
         assertTrue(employeeResponseDto.isPresent());
-//        Mockito.verify(employeeRepository, Mockito.times(1)).findByEmail(email);
-//        Mockito.verify(employeeRepository, Mockito.times(1)).save(Mockito.any(Employee.class));
-        Mockito.verify(employeeRepository).findByEmail(email);
-        Mockito.verify(employeeRepository).save(Mockito.any(Employee.class));
+        //The new version is known from the version the update was conditioned on, so the row is not read back
+        assertEquals(new EmployeeResponseDto("Jane", "Thomas", "MBA", 5L), employeeResponseDto.get());
+        Mockito.verify(employeeRepository, Mockito.never()).findResponseDtoByEmail(email);
+    }
+
+    @Test
+    @DisplayName("Test for retrying an unconditional update that lost the row to a concurrent update")
+    void givenConcurrentUpdate_whenUpdateUnconditionally_thenUpdateNewVersion() {
+        //Given
+        String email = "john.smith@gmail.com";
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("Jane", "Thomas", email, "MBA");
+        Mockito.when(employeeRepository.findVersionRowByEmail(email))
+                .thenReturn(Optional.of(new EmployeeVersionRow(7L, "Compro", 3L)))
+                .thenReturn(Optional.of(new EmployeeVersionRow(7L, "Sales", 4L)));
+        Mockito.when(employeeRepository.updateByEmail(email, "Jane", "Thomas", "MBA", "jane", "thomas", 3L)).thenReturn(0);
+        Mockito.when(employeeRepository.updateByEmail(email, "Jane", "Thomas", "MBA", "jane", "thomas", 4L)).thenReturn(1);
+        //When
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.updateEmployee(email, employeeRequestDto, null);
+        //Then
+        assertEquals(Optional.of(new EmployeeResponseDto("Jane", "Thomas", "MBA", 5L)), employeeResponseDto);
+        Mockito.verify(applicationEventPublisher).publishEvent(
+                EmployeeChangedEvent.updated(email, "Sales", new EmployeeResponseDto("Jane", "Thomas", "MBA", 5L)));
+    }
+
+    @Test
+    @DisplayName("Test for partially updating an employee with only the non-null request fields")
+    void givenPartialRequest_whenUpdatePartially_thenOnlyNonNullFieldsAreWritten() {
+        //Given
+        String email = "john.smith@gmail.com";
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto(null, null, email, "MBA");
+        Mockito.when(employeeRepository.patchByEmail(email, null, null, "MBA", null, null, null)).thenReturn(1);
+        Mockito.when(employeeRepository.findResponseDtoByEmail(email)).thenReturn(Optional.of(new EmployeeResponseDto("John", "Smith", "MBA", 1L)));
+        //When
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.updateEmployeePartially(email, employeeRequestDto, null);
+        //Then
+        assertEquals(Optional.of(new EmployeeResponseDto("John", "Smith", "MBA", 1L)), employeeResponseDto);
+    }
+
+    @Test
+    @DisplayName("Test for updating a non-existing employee")
+    void givenNonExistingEmail_whenUpdate_thenReturnEmpty() {
+        //Given
+        String email = "john.smith@gmail.com";
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("Jane", "Thomas", email, "MBA");
+        Mockito.when(employeeRepository.findVersionRowByEmail(email)).thenReturn(Optional.empty());
+        //When
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.updateEmployee(email, employeeRequestDto, null);
+        //Then
+        assertFalse(employeeResponseDto.isPresent());
+        Mockito.verify(employeeRepository, Mockito.never()).updateByEmail(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Test for updating an employee with a stale version")
+    void givenStaleVersion_whenUpdate_thenThrowPreconditionFailed() {
+        //Given
+        String email = "john.smith@gmail.com";
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("Jane", "Thomas", email, "MBA");
+        Mockito.when(employeeRepository.findVersionRowByEmail(email)).thenReturn(Optional.of(new EmployeeVersionRow(7L, "Compro", 3L)));
+        //When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> employeeService.updateEmployee(email, employeeRequestDto, 2L));
+        //Then
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test for reading an employee from the loaded read replica")
+    void givenReadyReplica_whenFindByEmail_thenDatabaseIsNotQueried() {
+        //Given
+        String email = "john.smith@gmail.com";
+        EmployeeResponseDto replicated = new EmployeeResponseDto("John", "Smith", "Compro", 0L);
+        Mockito.when(employeeReplica.isReady()).thenReturn(true);
+        Mockito.when(employeeReplica.findByEmail(email)).thenReturn(Optional.of(replicated));
+        //When
+        Optional<EmployeeResponseDto> employeeResponseDto = employeeService.findByEmail(email);
+        //Then
+        assertEquals(Optional.of(replicated), employeeResponseDto);
+        Mockito.verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    @DisplayName("Test for publishing the change of an updated employee")
+    void givenValidRequest_whenUpdate_thenPublishUpdatedEvent() {
+        //Given
+        String email = "john.smith@gmail.com";
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("Jane", "Thomas", email, "MBA");
+        Mockito.when(employeeRepository.findVersionRowByEmail(email)).thenReturn(Optional.of(new EmployeeVersionRow(7L, "Compro", 4L)));
+        Mockito.when(employeeRepository.updateByEmail(email, "Jane", "Thomas", "MBA", "jane", "thomas", 4L)).thenReturn(1);
+        //When
+        employeeService.updateEmployee(email, employeeRequestDto, 4L);
+        //Then
+        Mockito.verify(applicationEventPublisher).publishEvent(
+                EmployeeChangedEvent.updated(email, "Compro", new EmployeeResponseDto("Jane", "Thomas", "MBA", 5L)));
+    }
+
+    @Test
+    @DisplayName("Test for batch lookup in request order from the cache and one IN query")
+    void givenEmails_whenLookup_thenReturnFoundInOrderAndMissing() {
+        //Given
+        EmployeeResponseDto cached = new EmployeeResponseDto("Mary", "Johnson", "Compro", 2L);
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).put("mary.johnson@gmail.com", cached);
+        Mockito.when(employeeRepository.findRowsByEmailIn(List.of("john.smith@gmail.com", "nobody@gmail.com")))
+                .thenReturn(List.of(new EmployeeRow(1L, "John", "Smith", "john.smith@gmail.com", "MBA", 0L)));
+        //When
+        EmployeeLookupResponseDto employeeLookupResponseDto = employeeService.lookupEmployees(
+                List.of("john.smith@gmail.com", "mary.johnson@gmail.com", "nobody@gmail.com", "john.smith@gmail.com"));
+        //Then
+        assertEquals(List.of("john.smith@gmail.com", "mary.johnson@gmail.com"), List.copyOf(employeeLookupResponseDto.employees().keySet()));
+        assertEquals(cached, employeeLookupResponseDto.employees().get("mary.johnson@gmail.com"));
+        assertEquals(List.of("nobody@gmail.com"), employeeLookupResponseDto.missing());
+        Mockito.verify(employeeRepository, Mockito.times(1)).findRowsByEmailIn(Mockito.anyCollection());
     }
-}
\ No newline at end of file
+}
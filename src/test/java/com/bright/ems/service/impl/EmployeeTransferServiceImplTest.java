@@ -0,0 +1,124 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.config.BulkProperties;
+import com.bright.ems.config.PaginationProperties;
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.dto.response.ImportResultDto;
+import com.bright.ems.repository.EmployeeStreamRepository;
+import com.bright.ems.repository.projection.EmployeeRow;
+import com.bright.ems.service.EmployeeService;
+import com.bright.ems.util.EmployeeCsvReader;
+import com.bright.ems.util.EmployeeCsvWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeTransferServiceImplTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    @Mock
+    private EmployeeStreamRepository employeeStreamRepository;
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties(50, 500, 500);
+
+    // Two rows per import transaction
+    @Spy
+    private BulkProperties bulkProperties = new BulkProperties(100, 1000, 2, 1000);
+
+    @InjectMocks
+    private EmployeeTransferServiceImpl employeeTransferService;
+
+    @Test
+    @DisplayName("Test for importing an upload in batches of the import batch size")
+    void givenFiveRecords_whenImport_thenThreeBatches() {
+        // Given: Five records, one of which already exists
+        List<Integer> batchSizes = recordBatchSizes("e3@example.com");
+        // When: Importing them
+        ImportResultDto importResultDto = employeeTransferService.importEmployees(csv(records(5)));
+        // Then: They are created in batches of two, two and one and counted per outcome
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(5, importResultDto.rows());
+        assertEquals(4, importResultDto.created());
+        assertEquals(1, importResultDto.conflicts());
+        assertNull(importResultDto.failedRecord());
+    }
+
+    @Test
+    @DisplayName("Test for keeping the records before a malformed one and reporting where the import stopped")
+    void givenMalformedRecordAfterCommittedBatch_whenImport_thenPartialResult() {
+        // Given: Three good records followed by one with a missing field
+        List<Integer> batchSizes = recordBatchSizes(null);
+        String upload = records(3) + "e4@example.com,First4,Last4\n" + "e5@example.com,First5,Last5,Compro\n";
+        // When: Importing them
+        ImportResultDto importResultDto = employeeTransferService.importEmployees(csv(upload));
+        // Then: The first batch and the record after it are imported, and the fourth record is named
+        assertEquals(List.of(2, 1), batchSizes);
+        assertEquals(3, importResultDto.created());
+        assertEquals(4L, importResultDto.failedRecord());
+        assertTrue(importResultDto.error().contains("expected 4 fields"));
+    }
+
+    @Test
+    @DisplayName("Test for exporting every row with its email")
+    void givenRows_whenExport_thenConsumerReceivesEachEmployee() {
+        // Given: Two rows in the table
+        Mockito.doAnswer(invocation -> {
+            Consumer<EmployeeRow> consumer = invocation.getArgument(1);
+            consumer.accept(new EmployeeRow(1L, "John", "Smith", "john.smith@gmail.com", "Compro", 0L));
+            consumer.accept(new EmployeeRow(2L, "Jane", "Doe", "jane.doe@gmail.com", null, 3L));
+            return null;
+        }).when(employeeStreamRepository).streamRows(Mockito.eq(500), Mockito.any());
+        // When: Exporting
+        List<EmployeeRequestDto> exported = new ArrayList<>();
+        long rows = employeeTransferService.exportEmployees(exported::add);
+        // Then: Each row arrives as a request DTO, in order
+        assertEquals(2, rows);
+        assertEquals(List.of(
+                new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro"),
+                new EmployeeRequestDto("Jane", "Doe", "jane.doe@gmail.com", null)), exported);
+    }
+
+    private static String records(int count) {
+        StringBuilder records = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            records.append("e").append(i).append("@example.com,First").append(i).append(",Last").append(i).append(",Compro\n");
+        }
+        return records.toString();
+    }
+
+    private static EmployeeCsvReader csv(String records) {
+        return new EmployeeCsvReader(new StringReader(EmployeeCsvWriter.HEADER + "\n" + records));
+    }
+
+    /**
+     * Answers every bulk create with CREATED, or CONFLICT for the existing email, and records the batch sizes
+     * as they arrive, since the service reuses its batch list.
+     */
+    private List<Integer> recordBatchSizes(String existingEmail) {
+        List<Integer> batchSizes = new ArrayList<>();
+        Mockito.when(employeeService.createEmployees(Mockito.anyList())).thenAnswer(invocation -> {
+            List<EmployeeRequestDto> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            return batch.stream().map(employee -> new BulkEmployeeResultDto(employee.email(), employee.email().equals(existingEmail)
+                    ? BulkEmployeeResultDto.Status.CONFLICT : BulkEmployeeResultDto.Status.CREATED)).toList();
+        });
+        return batchSizes;
+    }
+}
@@ -0,0 +1,220 @@
+package com.bright.ems.service.impl;
+
+import com.bright.ems.config.BulkProperties;
+import com.bright.ems.config.PaginationProperties;
+import com.bright.ems.config.ShardingProperties;
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.BulkEmployeeResultDto;
+import com.bright.ems.dto.response.EmployeePageResponseDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.replica.EmployeeReplica;
+import com.bright.ems.repository.EmployeeRepository;
+import com.bright.ems.sharding.HashShardRouter;
+import com.bright.ems.sharding.ShardContext;
+import com.bright.ems.sharding.ShardRouter;
+import com.bright.ems.sharding.Shards;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedEmployeeServiceImplTest {
+
+    @Mock
+    private EmployeeServiceImpl employeeService;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeReplica employeeReplica;
+
+    @Test
+    @DisplayName("Test that a lookup by email runs on the shard of the email")
+    void givenEmailSharding_whenFindByEmail_thenRoutedToEmailShard() {
+        // Given: Two shards keyed by email and a delegate that reports the shard it ran on
+        ShardRouter router = new HashShardRouter(ShardingProperties.ShardKey.EMAIL, 2);
+        ShardedEmployeeServiceImpl shardedEmployeeService = shardedService(router);
+        String email = "john.smith@gmail.com";
+        Mockito.when(employeeService.findByEmail(email))
+                .thenAnswer(invocation -> Optional.of(new EmployeeResponseDto("John", "Smith", "shard" + ShardContext.current(), 0L)));
+        // When: Finding the employee
+        Optional<EmployeeResponseDto> employee = shardedEmployeeService.findByEmail(email);
+        // Then: Only the email's shard was asked
+        assertTrue(employee.isPresent());
+        assertEquals("shard" + router.shardOf(email, null), employee.get().departmentCode());
+        Mockito.verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    @DisplayName("Test that a lookup by email asks every shard when sharding by department")
+    void givenDepartmentSharding_whenFindByEmail_thenFoundOnHoldingShard() {
+        // Given: Two shards keyed by department, only shard 1 has the email
+        ShardedEmployeeServiceImpl shardedEmployeeService = shardedService(new HashShardRouter(ShardingProperties.ShardKey.DEPARTMENT_CODE, 2));
+        String email = "john.smith@gmail.com";
+        Mockito.when(employeeRepository.existsByEmail(email)).thenAnswer(invocation -> ShardContext.current() == 1);
+        Mockito.when(employeeService.findByEmail(email))
+                .thenAnswer(invocation -> Optional.of(new EmployeeResponseDto("John", "Smith", "shard" + ShardContext.current(), 0L)));
+        // When: Finding the employee
+        Optional<EmployeeResponseDto> employee = shardedEmployeeService.findByEmail(email);
+        // Then: The delegate ran once, on shard 1
+        assertEquals("shard1", employee.orElseThrow().departmentCode());
+        Mockito.verify(employeeService).findByEmail(email);
+    }
+
+    @Test
+    @DisplayName("Test that pages continue from one shard into the next")
+    void givenTwoShards_whenPaging_thenWalkShardsInTurn() {
+        // Given: Shard 0 holds one employee and shard 1 holds two
+        ShardedEmployeeServiceImpl shardedEmployeeService = shardedService(new HashShardRouter(ShardingProperties.ShardKey.EMAIL, 2));
+        EmployeeResponseDto john = new EmployeeResponseDto("John", "Smith", "Compro", 0L);
+        EmployeeResponseDto jane = new EmployeeResponseDto("Jane", "Doe", "Compro", 0L);
+        Mockito.when(employeeService.getEmployeePage(Mockito.isNull(), Mockito.anyInt())).thenAnswer(invocation -> ShardContext.current() == 0
+                ? new EmployeePageResponseDto(List.of(john), null)
+                : new EmployeePageResponseDto(List.of(jane), "c1"));
+        Mockito.when(employeeService.getEmployeePage("c1", 2)).thenReturn(new EmployeePageResponseDto(List.of(jane), null));
+        // When: Reading two pages of two
+        EmployeePageResponseDto first = shardedEmployeeService.getEmployeePage(null, 2);
+        EmployeePageResponseDto second = shardedEmployeeService.getEmployeePage(first.nextCursor(), 2);
+        // Then: The first page spans both shards and the second ends the walk
+        assertEquals(List.of(john, jane), first.content());
+        assertEquals("1~c1", first.nextCursor());
+        assertEquals(List.of(jane), second.content());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Test that a cursor naming a missing shard is rejected")
+    void givenUnknownShardCursor_whenPaging_thenBadRequest() {
+        ShardedEmployeeServiceImpl shardedEmployeeService = shardedService(new HashShardRouter(ShardingProperties.ShardKey.EMAIL, 2));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> shardedEmployeeService.getEmployeePage("7~c1", 2));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test that moving an employee to a department on another shard is refused")
+    void givenDepartmentSharding_whenMoveAcrossShards_thenConflict() {
+        // Given: The employee lives on the shard of its department
+        HashShardRouter router = new HashShardRouter(ShardingProperties.ShardKey.DEPARTMENT_CODE, 2);
+        ShardedEmployeeServiceImpl shardedEmployeeService = shardedService(router);
+        String email = "john.smith@gmail.com";
+        String away = departmentOnShard(router, 1);
+        Mockito.when(employeeRepository.existsByEmail(email)).thenAnswer(invocation -> ShardContext.current() == 0);
+        // When: Moving it to a department of the other shard
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> shardedEmployeeService.updateEmployeePartially(email, new EmployeeRequestDto(null, null, null, away), null));
+        // Then: The move is refused and nothing was written
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        Mockito.verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    @DisplayName("Test that a bulk create sharded by department reports emails held by any shard as conflicts")
+    void givenDepartmentSharding_whenCreateEmployees_thenConflictsAcrossShards() {
+        // Given: Shard 1 already has jane, and john is sent twice
+        HashShardRouter router = new HashShardRouter(ShardingProperties.ShardKey.DEPARTMENT_CODE, 2);
+        ShardedEmployeeServiceImpl shardedEmployeeService = shardedService(router);
+        String department = departmentOnShard(router, 0);
+        List<EmployeeRequestDto> employeeRequestDtos = List.of(
+                new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", department),
+                new EmployeeRequestDto("Jane", "Doe", "jane.doe@gmail.com", department),
+                new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", department));
+        Mockito.when(employeeRepository.findExistingEmails(Mockito.anyCollection()))
+                .thenAnswer(invocation -> ShardContext.current() == 1 ? List.of("jane.doe@gmail.com") : List.of());
+        Mockito.when(employeeService.createEmployees(List.of(employeeRequestDtos.getFirst())))
+                .thenReturn(List.of(new BulkEmployeeResultDto("john.smith@gmail.com", BulkEmployeeResultDto.Status.CREATED)));
+        // When: Creating the batch
+        List<BulkEmployeeResultDto> results = shardedEmployeeService.createEmployees(employeeRequestDtos);
+        // Then: Only the first john reached a shard, the rest are conflicts in request order
+        assertEquals(List.of(
+                new BulkEmployeeResultDto("john.smith@gmail.com", BulkEmployeeResultDto.Status.CREATED),
+                new BulkEmployeeResultDto("jane.doe@gmail.com", BulkEmployeeResultDto.Status.CONFLICT),
+                new BulkEmployeeResultDto("john.smith@gmail.com", BulkEmployeeResultDto.Status.CONFLICT)), results);
+    }
+
+    @Test
+    @DisplayName("Test that a single create sharded by department waits for a bulk create of the same email")
+    void givenDepartmentSharding_whenCreateDuringBulkCreate_thenConflict() throws Exception {
+        // Given: A bulk create of john that is inserting on shard 0
+        HashShardRouter router = new HashShardRouter(ShardingProperties.ShardKey.DEPARTMENT_CODE, 2);
+        ShardedEmployeeServiceImpl shardedEmployeeService = shardedService(router);
+        String email = "john.smith@gmail.com";
+        EmployeeRequestDto bulkRequestDto = new EmployeeRequestDto("John", "Smith", email, departmentOnShard(router, 0));
+        EmployeeRequestDto singleRequestDto = new EmployeeRequestDto("John", "Smith", email, departmentOnShard(router, 1));
+        AtomicBoolean inserted = new AtomicBoolean();
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch singleWaiting = new CountDownLatch(1);
+        Mockito.when(employeeRepository.findExistingEmails(Mockito.anyCollection())).thenReturn(List.of());
+        Mockito.when(employeeRepository.existsByEmail(email)).thenAnswer(invocation -> ShardContext.current() == 0 && inserted.get());
+        Mockito.when(employeeService.createEmployees(List.of(bulkRequestDto))).thenAnswer(invocation -> {
+            inserting.countDown();
+            assertTrue(singleWaiting.await(5, TimeUnit.SECONDS));
+            inserted.set(true);
+            return List.of(new BulkEmployeeResultDto(email, BulkEmployeeResultDto.Status.CREATED));
+        });
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<BulkEmployeeResultDto>> bulk = executorService.submit(() -> shardedEmployeeService.createEmployees(List.of(bulkRequestDto)));
+            assertTrue(inserting.await(5, TimeUnit.SECONDS));
+            // When: A single create of john for a department on shard 1 comes in meanwhile
+            AtomicReference<Thread> singleThread = new AtomicReference<>();
+            Future<Optional<EmployeeResponseDto>> single = executorService.submit(() -> {
+                singleThread.set(Thread.currentThread());
+                return shardedEmployeeService.createEmployee(singleRequestDto);
+            });
+            awaitBlocked(singleThread);
+            singleWaiting.countDown();
+            // Then: It waits for the bulk create's lock and then finds john on shard 0
+            assertEquals(List.of(new BulkEmployeeResultDto(email, BulkEmployeeResultDto.Status.CREATED)), bulk.get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.empty(), single.get(5, TimeUnit.SECONDS));
+            Mockito.verify(employeeService, Mockito.never()).createEmployee(Mockito.any());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Polls until the thread is parked, so the bulk create only finishes once the single create waits for its lock.
+     */
+    private static void awaitBlocked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.get() == null || thread.get().getState() != Thread.State.WAITING) {
+            if (System.nanoTime() > deadline) {
+                fail("The single create did not wait for the email lock");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private ShardedEmployeeServiceImpl shardedService(ShardRouter router) {
+        return new ShardedEmployeeServiceImpl(employeeService, employeeRepository, employeeReplica, new Shards(Optional.of(router)),
+                router, new PaginationProperties(50, 500, 500), new BulkProperties(100, 1000, 1000, 1000));
+    }
+
+    private static String departmentOnShard(ShardRouter router, int shard) {
+        for (int i = 0; ; i++) {
+            String departmentCode = "D" + i;
+            if (router.shardOfDepartment(departmentCode).orElseThrow() == shard) {
+                return departmentCode;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.bright.ems.sharding;
+
+import com.bright.ems.config.ShardingProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashShardRouterTest {
+
+    @Test
+    @DisplayName("Test that emails are spread over every shard and always land on the same one")
+    void givenEmailKey_whenShardOf_thenStableAndSpread() {
+        // Given: A router over four shards keyed by email
+        HashShardRouter router = new HashShardRouter(ShardingProperties.ShardKey.EMAIL, 4);
+        int[] rows = new int[4];
+        // When: Placing 10k emails that differ only in a counter
+        for (int i = 0; i < 10_000; i++) {
+            String email = "employee" + i + "@example.com";
+            int shard = router.shardOf(email, "Compro");
+            assertEquals(shard, router.shardOf(email, "Other"));
+            assertEquals(OptionalInt.of(shard), router.shardOfEmail(email));
+            rows[shard]++;
+        }
+        // Then: Every shard gets roughly a quarter of them
+        for (int count : rows) {
+            assertTrue(count > 2_000 && count < 3_000, "Uneven shard: " + count);
+        }
+        assertTrue(router.shardOfDepartment("Compro").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test that the department code decides the shard when sharding by department")
+    void givenDepartmentKey_whenShardOf_thenDepartmentDecides() {
+        // Given: A router over three shards keyed by department code
+        HashShardRouter router = new HashShardRouter(ShardingProperties.ShardKey.DEPARTMENT_CODE, 3);
+        // When: Placing two employees of one department
+        int shard = router.shardOf("john.smith@gmail.com", "Compro");
+        // Then: They share the department's shard and the email alone decides nothing
+        assertEquals(shard, router.shardOf("jane.doe@gmail.com", "Compro"));
+        assertEquals(OptionalInt.of(shard), router.shardOfDepartment("Compro"));
+        assertTrue(router.shardOfEmail("john.smith@gmail.com").isEmpty());
+        assertEquals(0, router.shardOf("john.smith@gmail.com", null));
+    }
+
+    @Test
+    @DisplayName("Test that a router needs at least one shard")
+    void givenNoShards_whenCreate_thenThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new HashShardRouter(ShardingProperties.ShardKey.EMAIL, 0));
+    }
+}
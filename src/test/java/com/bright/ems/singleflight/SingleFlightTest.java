@@ -0,0 +1,156 @@
+package com.bright.ems.singleflight;
+
+import com.bright.ems.config.SingleFlightProperties;
+import com.bright.ems.event.EmployeeChangedEvent;
+import com.bright.ems.httpcache.EmployeeChangeCounter;
+import com.bright.ems.routing.PrimaryReads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private EmployeeChangeCounter employeeChangeCounter;
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        employeeChangeCounter = new EmployeeChangeCounter();
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(employeeChangeCounter, new SingleFlightProperties(true, Duration.ofSeconds(5)), meterRegistry);
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Test for sharing one query between concurrent identical lookups")
+    void givenQueryInFlight_whenSameLookup_thenShareItsResult() throws Exception {
+        // Given: A leader whose query blocks until released
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        Future<List<String>> leader = executorService.submit(() -> singleFlight.execute("findByDepartmentCode", "MBA", () -> {
+            queries.incrementAndGet();
+            started.countDown();
+            await(release);
+            return List.of("Jane");
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        // When: A second caller asks for the same department while the query runs
+        Future<List<String>> follower = executorService.submit(() -> singleFlight.execute("findByDepartmentCode", "MBA", () -> {
+            queries.incrementAndGet();
+            return List.of("unexpected");
+        }));
+        awaitFollowerWaiting("findByDepartmentCode", "MBA");
+        release.countDown();
+        // Then: Both get the leader's result from a single query, and the follower is counted as shared
+        assertEquals(List.of("Jane"), leader.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("Jane"), follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queries.get());
+        assertEquals(1.0, meterRegistry.get("ems.single-flight.calls").tag("outcome", "shared").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test for not sharing a query started before a committed change")
+    void givenChangeAfterQueryStarted_whenSameLookup_thenQueryAgain() throws Exception {
+        // Given: A leader query in flight, then a committed change
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executorService.submit(() -> singleFlight.execute("findByEmail", "john.smith@gmail.com", () -> {
+            started.countDown();
+            await(release);
+            return "before";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        employeeChangeCounter.onEmployeeChanged(EmployeeChangedEvent.deleted(1L, "john.smith@gmail.com", "Compro", 0L));
+        // When: The same lookup arrives after the change
+        String after = singleFlight.execute("findByEmail", "john.smith@gmail.com", () -> "after");
+        release.countDown();
+        // Then: It ran its own query instead of joining the older one
+        assertEquals("after", after);
+        assertEquals("before", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Test for not sharing a query that may read a replica with a caller pinned to the primary")
+    void givenUnpinnedQueryInFlight_whenPinnedLookup_thenQueryAgain() throws Exception {
+        // Given: A leader query in flight that is free to read a replica
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executorService.submit(() -> singleFlight.execute("findByEmail", "john.smith@gmail.com", () -> {
+            started.countDown();
+            await(release);
+            return "replica";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        // When: The same lookup arrives pinned to the primary
+        String pinned = PrimaryReads.call(() -> singleFlight.execute("findByEmail", "john.smith@gmail.com", () -> "primary"));
+        release.countDown();
+        // Then: It ran its own query instead of joining the leader's
+        assertEquals("primary", pinned);
+        assertEquals("replica", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Test for passing the leader's failure to the waiting callers")
+    void givenFailingQuery_whenSameLookup_thenBothFail() throws Exception {
+        // Given: A leader whose query fails once released
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executorService.submit(() -> singleFlight.execute("findByEmail", "john.smith@gmail.com", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        // When: A second caller joins before the failure
+        Future<String> follower = executorService.submit(() -> singleFlight.execute("findByEmail", "john.smith@gmail.com", () -> "unexpected"));
+        awaitFollowerWaiting("findByEmail", "john.smith@gmail.com");
+        release.countDown();
+        // Then: Both see the same exception
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(leaderFailure.getCause(), followerFailure.getCause());
+    }
+
+    /**
+     * Polls until a follower is blocked on the leader's query, so the leader is only released once it joined.
+     */
+    private void awaitFollowerWaiting(String operation, Object key) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.waiting(operation, key) == 0) {
+            if (System.nanoTime() > deadline) {
+                fail("No caller joined the " + operation + " flight for " + key);
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.bright.ems.util;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeCsvReaderTest {
+
+    @Test
+    @DisplayName("Test for reading back what the CSV writer wrote")
+    void givenWrittenCsv_whenRead_thenReturnSameEmployees() throws IOException {
+        // Given: Employees with quotes, commas, line breaks and a missing department
+        List<EmployeeRequestDto> employeeRequestDtos = List.of(
+                new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro"),
+                new EmployeeRequestDto("Mary \"May\"", "Jones, Jr.", "mary.jones@gmail.com", null),
+                new EmployeeRequestDto("Ann\nMarie", "Lee", "ann.lee@gmail.com", "MBA"));
+        StringWriter stringWriter = new StringWriter();
+        try (EmployeeCsvWriter employeeCsvWriter = new EmployeeCsvWriter(stringWriter)) {
+            for (EmployeeRequestDto employeeRequestDto : employeeRequestDtos) {
+                employeeCsvWriter.write(employeeRequestDto);
+            }
+        }
+        // When: Reading the CSV back
+        List<EmployeeRequestDto> read = new ArrayList<>();
+        new EmployeeCsvReader(new StringReader(stringWriter + "\n")).forEachRemaining(read::add);
+        // Then: Every employee comes back unchanged
+        assertEquals(employeeRequestDtos, read);
+    }
+
+    @Test
+    @DisplayName("Test for rejecting a record with missing fields")
+    void givenShortRecord_whenRead_thenThrowBadRequest() {
+        // Given: A record with three of the four fields
+        EmployeeCsvReader employeeCsvReader = new EmployeeCsvReader(new StringReader(
+                EmployeeCsvWriter.HEADER + "\njohn.smith@gmail.com,John,Smith\n"));
+        // When: Reading it
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, employeeCsvReader::next);
+        // Then: The request is rejected
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+}
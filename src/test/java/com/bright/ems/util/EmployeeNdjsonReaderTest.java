@@ -0,0 +1,51 @@
+package com.bright.ems.util;
+
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeNdjsonReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Test for rejecting a malformed NDJSON line with 400 after the lines before it")
+    void givenMalformedLine_whenRead_thenThrowBadRequestWithLine() throws IOException {
+        // Given: A valid line followed by one that is cut off
+        EmployeeNdjsonReader employeeNdjsonReader = new EmployeeNdjsonReader(objectMapper.readerFor(EmployeeRequestDto.class).readValues("""
+                {"firstName":"John","lastName":"Smith","email":"john.smith@gmail.com","departmentCode":"Compro"}
+                {"firstName":"Jane","lastName":
+                """));
+        // When: Reading both lines
+        EmployeeRequestDto first = employeeNdjsonReader.next();
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> {
+                    if (employeeNdjsonReader.hasNext()) {
+                        employeeNdjsonReader.next();
+                    }
+                });
+        // Then: The first employee is read and the second line is rejected as a bad request naming it
+        assertEquals(new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro"), first);
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertTrue(exception.getReason().startsWith("Malformed NDJSON line"));
+    }
+
+    @Test
+    @DisplayName("Test for rejecting an NDJSON line of the wrong shape with 400")
+    void givenWrongShape_whenRead_thenThrowBadRequest() throws IOException {
+        // Given: A line whose first name is an object
+        EmployeeNdjsonReader employeeNdjsonReader = new EmployeeNdjsonReader(objectMapper.readerFor(EmployeeRequestDto.class)
+                .readValues("{\"firstName\":{\"given\":\"John\"}}\n"));
+        // When: Reading it
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, employeeNdjsonReader::next);
+        // Then: It is a bad request, not a server error
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+}
@@ -0,0 +1,149 @@
+package com.bright.ems.writebehind;
+
+import com.bright.ems.config.WriteBehindProperties;
+import com.bright.ems.dto.request.EmployeeRequestDto;
+import com.bright.ems.dto.response.EmployeeResponseDto;
+import com.bright.ems.service.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class EmployeeWriteBehindQueueTest {
+
+    private EmployeeService employeeService;
+    private EmployeeWriteBehindQueue employeeWriteBehindQueue;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = mock(EmployeeService.class);
+        WriteBehindProperties writeBehindProperties = new WriteBehindProperties(true, 100, 3, Duration.ofSeconds(1), Duration.ofMillis(100), Duration.ofMillis(100));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        employeeWriteBehindQueue = new EmployeeWriteBehindQueue(employeeService, transactionManager, writeBehindProperties, meterRegistry);
+        employeeWriteBehindQueue.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeWriteBehindQueue.stop();
+    }
+
+    @Test
+    @DisplayName("Test for committing a batch once and folding replaces of the same employee")
+    void givenReplacesOfSameEmployee_whenQueued_thenLastReplaceIsWrittenInOneCommit() {
+        // Given: Two unconditional replaces of one employee and a create of another
+        EmployeeRequestDto first = new EmployeeRequestDto("John", "Smith", "john.smith@gmail.com", "Compro");
+        EmployeeRequestDto second = new EmployeeRequestDto("Johnny", "Smith", "john.smith@gmail.com", "MBA");
+        EmployeeRequestDto created = new EmployeeRequestDto("Mary", "Johnson", "mary.johnson@gmail.com", "Compro");
+        EmployeeResponseDto replaced = new EmployeeResponseDto("Johnny", "Smith", "MBA", 2L);
+        when(employeeService.updateEmployee(eq("john.smith@gmail.com"), eq(second), isNull())).thenReturn(Optional.of(replaced));
+        when(employeeService.createEmployee(created)).thenReturn(Optional.of(new EmployeeResponseDto("Mary", "Johnson", "Compro", 0L)));
+        // When: Queuing the three writes, which fill one batch
+        CompletableFuture<Optional<EmployeeResponseDto>> firstResult = employeeWriteBehindQueue.update("john.smith@gmail.com", first, null, false);
+        CompletableFuture<Optional<EmployeeResponseDto>> secondResult = employeeWriteBehindQueue.update("john.smith@gmail.com", second, null, false);
+        CompletableFuture<Optional<EmployeeResponseDto>> createResult = employeeWriteBehindQueue.create(created, false);
+        // Then: Only the later replace is written, both callers see it, and the batch is one commit
+        assertEquals(Optional.of(replaced), firstResult.join());
+        assertEquals(Optional.of(replaced), secondResult.join());
+        assertTrue(createResult.join().isPresent());
+        verify(employeeService, never()).updateEmployee(any(), eq(first), any());
+        assertEquals(1, employeeWriteBehindQueue.commits());
+    }
+
+    @Test
+    @DisplayName("Test for failing only the write that is refused in a batch")
+    void givenRefusedWrite_whenQueued_thenOtherWritesCommitInSameBatch() {
+        // Given: A conditional delete that fails its version check next to a valid create
+        EmployeeRequestDto created = new EmployeeRequestDto("Mary", "Johnson", "mary.johnson@gmail.com", "Compro");
+        when(employeeService.createEmployee(created)).thenReturn(Optional.of(new EmployeeResponseDto("Mary", "Johnson", "Compro", 0L)));
+        doThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED))
+                .when(employeeService).deleteEmployee("john.smith@gmail.com", 3L);
+        // When: Queuing both writes and a third to fill the batch
+        CompletableFuture<Optional<EmployeeResponseDto>> deleteResult = employeeWriteBehindQueue.delete("john.smith@gmail.com", 3L, false);
+        CompletableFuture<Optional<EmployeeResponseDto>> createResult = employeeWriteBehindQueue.create(created, false);
+        CompletableFuture<Optional<EmployeeResponseDto>> otherDeleteResult = employeeWriteBehindQueue.delete("peter.parker@gmail.com", null, false);
+        // Then: The refused delete reports its 412 and the other writes still share one commit
+        CompletionException exception = assertThrows(CompletionException.class, deleteResult::join);
+        assertInstanceOf(ResponseStatusException.class, exception.getCause());
+        assertTrue(createResult.join().isPresent());
+        assertEquals(Optional.empty(), otherDeleteResult.join());
+        assertEquals(1, employeeWriteBehindQueue.commits());
+    }
+
+    @Test
+    @DisplayName("Test for retrying a batch one write at a time after a failure that spoils the transaction")
+    void givenUnexpectedFailure_whenQueued_thenWritesRetriedAlone() {
+        // Given: A create that fails with a database error next to two deletes
+        EmployeeRequestDto created = new EmployeeRequestDto("Mary", "Johnson", "mary.johnson@gmail.com", "Compro");
+        when(employeeService.createEmployee(created)).thenThrow(new IllegalStateException("database down"));
+        // When: Queuing the three writes, which fill one batch
+        CompletableFuture<Optional<EmployeeResponseDto>> createResult = employeeWriteBehindQueue.create(created, false);
+        CompletableFuture<Optional<EmployeeResponseDto>> deleteResult = employeeWriteBehindQueue.delete("john.smith@gmail.com", null, false);
+        CompletableFuture<Optional<EmployeeResponseDto>> otherDeleteResult = employeeWriteBehindQueue.delete("peter.parker@gmail.com", null, false);
+        // Then: Only the create fails, and the deletes commit one transaction each
+        CompletionException exception = assertThrows(CompletionException.class, createResult::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertEquals(Optional.empty(), deleteResult.join());
+        assertEquals(Optional.empty(), otherDeleteResult.join());
+        assertEquals(2, employeeWriteBehindQueue.commits());
+    }
+
+    @Test
+    @DisplayName("Test for counting the failure of a write whose caller was answered 202")
+    void givenAcceptedWrite_whenFails_thenCounted() {
+        // Given: An accepted create that fails with a database error next to two waited deletes
+        EmployeeRequestDto created = new EmployeeRequestDto("Mary", "Johnson", "mary.johnson@gmail.com", "Compro");
+        when(employeeService.createEmployee(created)).thenThrow(new IllegalStateException("database down"));
+        // When: Queuing the three writes, which fill one batch
+        CompletableFuture<Optional<EmployeeResponseDto>> createResult = employeeWriteBehindQueue.create(created, true);
+        CompletableFuture<Optional<EmployeeResponseDto>> deleteResult = employeeWriteBehindQueue.delete("john.smith@gmail.com", null, false);
+        CompletableFuture<Optional<EmployeeResponseDto>> otherDeleteResult = employeeWriteBehindQueue.delete("peter.parker@gmail.com", null, false);
+        // Then: The failed create is counted under its kind and nothing else is
+        assertThrows(CompletionException.class, createResult::join);
+        assertEquals(Optional.empty(), deleteResult.join());
+        assertEquals(Optional.empty(), otherDeleteResult.join());
+        assertEquals(1, meterRegistry.get("ems.write-behind.failed").tag("kind", "create").counter().count());
+        assertEquals(0, meterRegistry.get("ems.write-behind.failed").tag("kind", "delete").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test for answering 503 when a queued write is not committed in time")
+    void givenUncommittedWrite_whenAwait_thenServiceUnavailable() {
+        // Given: A queued write that has not completed
+        CompletableFuture<Optional<EmployeeResponseDto>> queuedWrite = new CompletableFuture<>();
+        // When: Waiting past the await timeout
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> employeeWriteBehindQueue.await(queuedWrite));
+        // Then: The caller gets 503
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test for rethrowing the refusal of a queued write as is")
+    void givenRefusedWrite_whenAwait_thenRefusalRethrown() {
+        // Given: A queued write refused with 412
+        CompletableFuture<Optional<EmployeeResponseDto>> queuedWrite = CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED));
+        // When: Waiting for it
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> employeeWriteBehindQueue.await(queuedWrite));
+        // Then: The caller gets the 412
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+    }
+}